@@ -0,0 +1,38 @@
+/***************************************************************************
+* Adds the search date indexes and monthly partitioning to an existing
+* stock_search database created before the partition maintenance job.
+* New databases created by stock_search_db.sql already have these changes.
+*****************************************************************************/
+
+USE stock_search;
+
+/* Partitioned tables cannot hold or be referenced by foreign keys */
+ALTER TABLE StockPriceSearch DROP FOREIGN KEY fk_price_search_symbol;
+ALTER TABLE StockHistorySearchResult DROP FOREIGN KEY fk_history_search_result_search;
+
+/* Every unique key of a partitioned table must include the partitioning column */
+ALTER TABLE StockPriceSearch 
+    DROP PRIMARY KEY,
+    ADD CONSTRAINT pk_price_search PRIMARY KEY (stock_price_id, search_date_time),
+    ADD INDEX idx_price_search_date_time (search_date_time),
+    ADD INDEX idx_price_search_symbol_date_time (symbol, search_date_time);
+
+ALTER TABLE StockHistorySearch 
+    DROP PRIMARY KEY,
+    ADD CONSTRAINT pk_history_search PRIMARY KEY (stock_history_search_id, search_date_time),
+    ADD INDEX idx_history_search_date_time (search_date_time);
+
+/* 
+ * Existing rows start in the catch-all partition. The partition maintenance 
+ * job splits a partition for every month from the oldest search to the 
+ * coming months out of it when the Operation Monitor starts.
+ */
+ALTER TABLE StockPriceSearch PARTITION BY RANGE (TO_DAYS(search_date_time)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+ALTER TABLE StockHistorySearch PARTITION BY RANGE (TO_DAYS(search_date_time)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+GRANT ALTER ON stock_search.* TO stock_search_db_user@localhost;
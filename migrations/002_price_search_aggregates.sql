@@ -0,0 +1,22 @@
+/***************************************************************************
+* Adds the table of rolled up stock price searches to an existing
+* stock_search database created before the search roll-up job.
+* New databases created by stock_search_db.sql already have this table.
+*****************************************************************************/
+
+USE stock_search;
+
+CREATE TABLE IF NOT EXISTS StockPriceSearchAggregate(
+    granularity         VARCHAR(4) NOT NULL,
+    symbol              VARCHAR(5) NOT NULL,
+    period_start        DATETIME NOT NULL,
+    search_count        BIGINT NOT NULL,
+    avg_time_elapsed    DOUBLE,
+    p95_time_elapsed    BIGINT,
+    first_price         NUMERIC(7,2),
+    last_price          NUMERIC(7,2),
+    min_price           NUMERIC(7,2),
+    max_price           NUMERIC(7,2),
+    CONSTRAINT pk_price_search_aggregate PRIMARY KEY (granularity, symbol, period_start),
+    INDEX idx_price_search_aggregate_period (granularity, period_start)
+);
@@ -0,0 +1,29 @@
+/***************************************************************************
+* Adds the symbol, time elapsed, number of days and date range of the
+* results to StockHistorySearch, and fills them in for the existing
+* searches from StockHistorySearchResult. The time elapsed of an existing
+* search is not known and stays null.
+* New databases created by stock_search_db.sql already have these columns.
+*****************************************************************************/
+
+USE stock_search;
+
+ALTER TABLE StockHistorySearch 
+    ADD COLUMN symbol VARCHAR(5),
+    ADD COLUMN time_elapsed BIGINT,
+    ADD COLUMN bar_count INT NOT NULL DEFAULT 0,
+    ADD COLUMN first_date DATE,
+    ADD COLUMN last_date DATE,
+    ADD INDEX idx_history_search_symbol_date_time (symbol, search_date_time);
+
+UPDATE StockHistorySearch s 
+    JOIN (
+        SELECT stock_history_search_id, MIN(symbol) AS symbol, COUNT(*) AS bar_count, 
+            MIN(history_date) AS first_date, MAX(history_date) AS last_date 
+        FROM StockHistorySearchResult 
+        GROUP BY stock_history_search_id
+    ) r ON r.stock_history_search_id = s.stock_history_search_id 
+SET s.symbol = r.symbol, 
+    s.bar_count = r.bar_count, 
+    s.first_date = r.first_date, 
+    s.last_date = r.last_date;
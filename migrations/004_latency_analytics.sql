@@ -0,0 +1,27 @@
+/***************************************************************************
+* Extends the search date indexes of StockPriceSearch with the time elapsed,
+* so that latency is aggregated from the indexes alone, and adds the median
+* and 99th percentile to StockPriceSearchAggregate.
+* Days rolled up before this change have no percentiles other than the 95th,
+* and their every-symbol rows are summed from the symbol rows without any
+* percentile.
+* New databases created by stock_search_db.sql already have these changes.
+*****************************************************************************/
+
+USE stock_search;
+
+ALTER TABLE StockPriceSearch 
+    DROP INDEX idx_price_search_date_time,
+    DROP INDEX idx_price_search_symbol_date_time,
+    ADD INDEX idx_price_search_date_time (search_date_time, time_elapsed),
+    ADD INDEX idx_price_search_symbol_date_time (symbol, search_date_time, time_elapsed);
+
+ALTER TABLE StockPriceSearchAggregate 
+    ADD COLUMN p50_time_elapsed BIGINT AFTER avg_time_elapsed,
+    ADD COLUMN p99_time_elapsed BIGINT AFTER p95_time_elapsed;
+
+INSERT IGNORE INTO StockPriceSearchAggregate (granularity, symbol, period_start, search_count, avg_time_elapsed) 
+    SELECT granularity, '*', period_start, SUM(search_count), SUM(avg_time_elapsed * search_count) / SUM(search_count) 
+    FROM StockPriceSearchAggregate 
+    WHERE symbol <> '*' 
+    GROUP BY granularity, period_start;
@@ -0,0 +1,21 @@
+/***************************************************************************
+* Marks the first row stored from each call to the stock web service, so that
+* a search for many symbols, stored as a row for each symbol with the time of
+* the whole call, is counted once in the latency of every symbol.
+* Rows stored before this change are marked by taking the rows with the same
+* search time and time elapsed as one call. The every-symbol aggregates of
+* days rolled up before this change still count each symbol of such a search.
+* New databases created by stock_search_db.sql already have these changes.
+*****************************************************************************/
+
+USE stock_search;
+
+ALTER TABLE StockPriceSearch 
+    ADD COLUMN first_of_call BOOLEAN NOT NULL DEFAULT TRUE AFTER time_elapsed,
+    DROP INDEX idx_price_search_date_time,
+    ADD INDEX idx_price_search_date_time (search_date_time, time_elapsed, first_of_call);
+
+UPDATE StockPriceSearch s 
+    JOIN StockPriceSearch f ON f.search_date_time = s.search_date_time 
+        AND f.time_elapsed = s.time_elapsed AND f.stock_price_id < s.stock_price_id 
+    SET s.first_of_call = FALSE;
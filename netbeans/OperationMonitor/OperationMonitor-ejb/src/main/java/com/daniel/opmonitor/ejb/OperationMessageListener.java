@@ -15,27 +15,40 @@
  */
 package com.daniel.opmonitor.ejb;
 
+import com.daniel.search.batch.SearchEventBatch;
+import com.daniel.search.codec.SearchMessageType;
+import com.daniel.search.codec.StocksSearchCodec;
 import com.daniel.search.history.HistoricalStockPriceSearchEvent;
 import com.daniel.search.price.StockPriceSearchEvent;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
 import javax.ejb.ActivationConfigProperty;
 import javax.ejb.EJB;
 import javax.ejb.MessageDriven;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSConsumer;
+import javax.jms.JMSContext;
 import javax.jms.JMSException;
+import javax.jms.JMSRuntimeException;
 import javax.jms.Message;
 import javax.jms.MessageListener;
+import javax.jms.Queue;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 /**
  * This MessageListener implementation handles messages arriving in the
- * operation queue.
+ * operation queue. When the batch size is greater than one, the listener
+ * receives further messages from the queue within the transaction of the
+ * delivered message, until the batch size is reached or the batch wait has
+ * passed, and stores the events of all the messages together. The messages are
+ * acknowledged when the transaction commits, so a failure to store the events
+ * redelivers every message of the batch.
  *
  * @author Bryan Daniel
  */
@@ -46,6 +59,28 @@ import org.apache.log4j.Logger;
 })
 public class OperationMessageListener implements MessageListener {
 
+    /**
+     * The maximum number of messages stored in one transaction is a property
+     * set in GlassFish System Properties with this key.
+     */
+    public static final String BATCH_SIZE = "operation_monitor_consumer_batch_size";
+
+    /**
+     * The longest time in milliseconds spent receiving further messages for a
+     * batch is a property set in GlassFish System Properties with this key.
+     */
+    public static final String BATCH_WAIT = "operation_monitor_consumer_batch_wait";
+
+    /**
+     * The batch size used when the property is not set
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1;
+
+    /**
+     * The batch wait used when the property is not set
+     */
+    private static final long DEFAULT_BATCH_WAIT = 100;
+
     /**
      * The stock search data service
      */
@@ -53,61 +88,150 @@ public class OperationMessageListener implements MessageListener {
     private StockSearchService stockSearchService;
 
     /**
-     * The logger for this class
+     * The broadcaster of stored events to the live operations view
      */
-    private final Logger logger = LogManager.getLogger(OperationMessageListener.class);
+    @EJB
+    private SearchEventBroadcaster searchEventBroadcaster;
+
+    /**
+     * The connection factory of the operation queue
+     */
+    @Resource(lookup = "OperationQueueConnectionFactory")
+    private ConnectionFactory connectionFactory;
+
+    /**
+     * The operation queue
+     */
+    @Resource(lookup = "OperationQueue")
+    private Queue operationQueue;
+
+    /**
+     * The maximum number of messages stored in one transaction
+     */
+    private int batchSize;
+
+    /**
+     * The longest time spent receiving further messages for a batch
+     */
+    private long batchWait;
 
     /**
-     * The name of the stock price history node within the message
+     * The logger for this class
      */
-    private final String HISTORY_NODE = "stock_history_search_result";
+    private final Logger logger = LogManager.getLogger(OperationMessageListener.class);
 
     /**
-     * The name of the stock price search node within the message
+     * Reads the batch settings from the system properties.
      */
-    private final String PRICE_NODE = "stock_price_search_result";
+    @PostConstruct
+    public void initialize() {
+        batchSize = Math.max(1, Integer.getInteger(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+        batchWait = Math.max(0, Long.getLong(BATCH_WAIT, DEFAULT_BATCH_WAIT));
+    }
 
     /**
      * This method uses the stock search service to convert messages from the
-     * operation queue into entities to be stored in the database. If the
+     * operation queue into entities to be stored in the database. A message
+     * holds either a single search event or a batch of search events. If the
      * message is of an unknown type, the message is logged and the service is
-     * not invoked.
+     * not invoked. The stored events are published to the live operations view,
+     * which shows them once the transaction has committed.
      *
      * @param message the message
      */
     @Override
     public void onMessage(Message message) {
 
+        List<StockPriceSearchEvent> stockPriceSearchEvents = new ArrayList<>();
+        List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents = new ArrayList<>();
+        readSearchEvents(message, stockPriceSearchEvents, historicalStockPriceSearchEvents);
+        if (batchSize > 1) {
+            receiveBatch(stockPriceSearchEvents, historicalStockPriceSearchEvents);
+        }
+        if (!stockPriceSearchEvents.isEmpty() || !historicalStockPriceSearchEvents.isEmpty()) {
+            if (stockSearchService.storeSearchEvents(stockPriceSearchEvents, historicalStockPriceSearchEvents)) {
+                searchEventBroadcaster.publish(stockPriceSearchEvents, historicalStockPriceSearchEvents);
+            }
+        }
+    }
+
+    /**
+     * Receives up to the batch size of further messages from the operation
+     * queue within the current transaction, waiting no longer than the batch
+     * wait, and reads their search events. If receiving fails, the events
+     * already read are kept.
+     *
+     * @param stockPriceSearchEvents the list to add stock price search events
+     * to
+     * @param historicalStockPriceSearchEvents the list to add stock history
+     * search events to
+     */
+    private void receiveBatch(List<StockPriceSearchEvent> stockPriceSearchEvents,
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents) {
+
+        long deadline = System.currentTimeMillis() + batchWait;
+        try (JMSContext jmsContext = connectionFactory.createContext();
+                JMSConsumer consumer = jmsContext.createConsumer(operationQueue)) {
+            for (int received = 1; received < batchSize; received++) {
+                long remaining = deadline - System.currentTimeMillis();
+                Message message = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+                if (message == null) {
+                    break;
+                }
+                readSearchEvents(message, stockPriceSearchEvents, historicalStockPriceSearchEvents);
+            }
+        } catch (JMSRuntimeException ex) {
+            logger.warn(MessageFormat.format("Receiving a batch from the operation queue failed: {0}",
+                    ex.getMessage()));
+        }
+    }
+
+    /**
+     * Reads the search events of the message into the lists. The type of the
+     * message is taken from the message type property, or from the field names
+     * of the message if a producer did not set the property, and the message
+     * is read once with the reader for that type. If the message is of an
+     * unknown type or cannot be read, it is logged and no events are added.
+     *
+     * @param message the message
+     * @param stockPriceSearchEvents the list to add stock price search events
+     * to
+     * @param historicalStockPriceSearchEvents the list to add stock history
+     * search events to
+     */
+    private void readSearchEvents(Message message, List<StockPriceSearchEvent> stockPriceSearchEvents,
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents) {
+
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
+            StocksSearchCodec codec = StocksSearchCodec.getInstance();
             String messageString = message.getBody(String.class);
+            SearchMessageType messageType = SearchMessageType.fromValue(
+                    message.getStringProperty(SearchMessageType.PROPERTY_NAME));
+            if (messageType == null) {
+                messageType = SearchMessageType.detect(messageString);
+            }
 
-            /*
-             * Retrieving nodes from the JSON string to determine which type to 
-             * accept
-             */
-            JsonNode rootNode = mapper.readTree(messageString);
-            JsonNode historyNode = rootNode.path(HISTORY_NODE);
-
-            if (!historyNode.isMissingNode()) {
-                HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = mapper.readValue(messageString,
-                        HistoricalStockPriceSearchEvent.class);
-                stockSearchService.storeHistoricalStockPriceSearchEvent(historicalStockPriceSearchEvent);
-            } else {
-                JsonNode dataNode = rootNode.path(PRICE_NODE);
-                if (!dataNode.isMissingNode()) {
-                    StockPriceSearchEvent stockPriceSearchEvent = mapper.readValue(messageString, StockPriceSearchEvent.class);
-                    stockSearchService.storeStockPriceSearchEvent(stockPriceSearchEvent);
-                } else {
-                    logger.info(MessageFormat.format("Unknown message received from the queue:\n{0}",
-                            mapper.writerWithDefaultPrettyPrinter().writeValueAsString(messageString)));
-                }
+            if (messageType == null) {
+                logger.info(MessageFormat.format("Unknown message received from the queue:\n{0}",
+                        codec.getWriter().withDefaultPrettyPrinter().writeValueAsString(messageString)));
+                return;
+            }
+            switch (messageType) {
+                case BATCH:
+                    SearchEventBatch searchEventBatch = codec.getBatchReader().readValue(messageString);
+                    stockPriceSearchEvents.addAll(searchEventBatch.getStockPriceSearchEvents());
+                    historicalStockPriceSearchEvents.addAll(searchEventBatch.getHistoricalStockPriceSearchEvents());
+                    break;
+                case HISTORY:
+                    historicalStockPriceSearchEvents.add(codec.getHistoryEventReader().readValue(messageString));
+                    break;
+                default:
+                    stockPriceSearchEvents.add(codec.getPriceEventReader().readValue(messageString));
             }
         } catch (JMSException | JsonProcessingException ex) {
-            logger.error("An exception occurred in onMessage method.", ex);
+            logger.error("An exception occurred in readSearchEvents method.", ex);
         } catch (IOException ex) {
-            logger.error("An IOException occurred in onMessage method.", ex);
+            logger.error("An IOException occurred in readSearchEvents method.", ex);
         }
     }
 }
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.ejb;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.sql.DataSource;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton maintains the monthly partitions of the search tables. When
+ * the application starts and every night, the partitions for the current
+ * month and the coming months are split from the catch-all partition, and the
+ * partitions older than the retention period are dropped. A partition of the
+ * stock price searches is dropped only once the roll-up has summarized and
+ * purged its searches, so that no search is lost from the summaries. The partition
+ * statements are data definition statements, which commit implicitly in MySQL,
+ * so they are run on a connection outside of any container transaction.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@Startup
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class PartitionMaintenance {
+
+    /**
+     * The number of months after the current month with a partition prepared
+     * is a property set in GlassFish System Properties with this key.
+     */
+    public static final String MONTHS_AHEAD = "operation_monitor_partition_months_ahead";
+
+    /**
+     * The number of months before the current month kept in the search tables
+     * is a property set in GlassFish System Properties with this key. Zero
+     * keeps every month. The stock price searches are dropped only when the raw
+     * search retention of the roll-up is also set.
+     */
+    public static final String RETENTION_MONTHS = "operation_monitor_partition_retention_months";
+
+    /**
+     * The months ahead used when the property is not set
+     */
+    private static final int DEFAULT_MONTHS_AHEAD = 3;
+
+    /**
+     * The retention used when the property is not set
+     */
+    private static final int DEFAULT_RETENTION_MONTHS = 0;
+
+    /**
+     * The search tables partitioned by month
+     */
+    private static final String[] PARTITIONED_TABLES = {"StockPriceSearch", "StockHistorySearch"};
+
+    /**
+     * The table partitioned by month whose rows are linked to from the search
+     * result table
+     */
+    private static final String HISTORY_SEARCH_TABLE = "StockHistorySearch";
+
+    /**
+     * The table partitioned by month whose rows are rolled up into the search
+     * aggregates
+     */
+    private static final String PRICE_SEARCH_TABLE = "StockPriceSearch";
+
+    /**
+     * The name of the catch-all partition
+     */
+    private static final String CATCH_ALL_PARTITION = "pmax";
+
+    /**
+     * The format of the month in a partition name
+     */
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    /**
+     * The query for the partitions of a table, which returns a single row with
+     * a null name if the table is not partitioned
+     */
+    private static final String FIND_PARTITIONS = "SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+
+    /**
+     * The stock search data source
+     */
+    @Resource(lookup = "jdbc/stockSearch")
+    private DataSource dataSource;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(PartitionMaintenance.class);
+
+    /**
+     * Maintains the partitions when the application starts, so that the
+     * current month has a partition before the first search is stored.
+     */
+    @PostConstruct
+    public void initialize() {
+        maintainPartitions();
+    }
+
+    /**
+     * Prepares the partitions of the coming months and drops the partitions
+     * older than the retention period in every partitioned table. A table that
+     * is not partitioned is skipped.
+     */
+    @Schedule(hour = "1", minute = "15", persistent = false)
+    public void maintainPartitions() {
+
+        int monthsAhead = Math.max(0, Integer.getInteger(MONTHS_AHEAD, DEFAULT_MONTHS_AHEAD));
+        int retentionMonths = Math.max(0, Integer.getInteger(RETENTION_MONTHS, DEFAULT_RETENTION_MONTHS));
+        YearMonth currentMonth = YearMonth.now();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String table : PARTITIONED_TABLES) {
+                List<YearMonth> months = findMonthlyPartitions(connection, table);
+                if (months == null) {
+                    logger.warn(MessageFormat.format("The table {0} is not partitioned and is skipped.", table));
+                    continue;
+                }
+                addPartitions(connection, table, months, currentMonth, currentMonth.plusMonths(monthsAhead));
+                if (retentionMonths == 0) {
+                    continue;
+                }
+                YearMonth cutoffMonth = currentMonth.minusMonths(retentionMonths);
+                if (PRICE_SEARCH_TABLE.equals(table)) {
+                    cutoffMonth = findRolledUpCutoff(cutoffMonth);
+                    if (cutoffMonth == null) {
+                        logger.warn(MessageFormat.format("The partitions of {0} are not dropped because the "
+                                + "searches are not rolled up, set {1} to drop them.", table,
+                                StockSearchRollUp.RAW_RETENTION_DAYS));
+                        continue;
+                    }
+                }
+                dropPartitions(connection, table, months, cutoffMonth);
+            }
+        } catch (SQLException e) {
+            logger.error(MessageFormat.format("The search table partitions could not be maintained: {0}",
+                    e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Finds the months of the monthly partitions of the table in ascending
+     * order.
+     *
+     * @param connection the connection
+     * @param table the table name
+     * @return the months, or null if the table is not partitioned
+     * @throws SQLException if the partitions cannot be read
+     */
+    private List<YearMonth> findMonthlyPartitions(Connection connection, String table) throws SQLException {
+
+        List<YearMonth> months = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(FIND_PARTITIONS)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    String partitionName = resultSet.getString(1);
+                    if (partitionName == null) {
+                        return null;
+                    }
+                    if (CATCH_ALL_PARTITION.equals(partitionName)) {
+                        continue;
+                    }
+                    try {
+                        months.add(YearMonth.parse(partitionName, PARTITION_MONTH));
+                    } catch (DateTimeParseException e) {
+                        logger.warn(MessageFormat.format("The partition {0} of {1} is not a monthly partition "
+                                + "and is ignored.", partitionName, table));
+                    }
+                }
+            }
+        }
+        months.sort(null);
+        return months;
+    }
+
+    /**
+     * Finds the first month whose stock price search partition may still hold
+     * searches that have not been rolled up. Only the months ending before the
+     * raw search retention are rolled up, so the cutoff is never later than the
+     * month of the first day kept.
+     *
+     * @param cutoffMonth the first month kept by the partition retention
+     * @return the first month kept, or null if the searches are not rolled up
+     */
+    private YearMonth findRolledUpCutoff(YearMonth cutoffMonth) {
+
+        Date rawRetentionStart = StockSearchRollUp.getRawRetentionStart();
+        if (rawRetentionStart == null) {
+            return null;
+        }
+        YearMonth firstMonthKept = YearMonth.from(Instant.ofEpochMilli(rawRetentionStart.getTime())
+                .atZone(ZoneId.systemDefault()));
+        return firstMonthKept.isBefore(cutoffMonth) ? firstMonthKept : cutoffMonth;
+    }
+
+    /**
+     * Finds the month of the oldest search in the table.
+     *
+     * @param connection the connection
+     * @param table the table name
+     * @return the month of the oldest search, or null if the table is empty
+     * @throws SQLException if the table cannot be read
+     */
+    private YearMonth findOldestMonth(Connection connection, String table) throws SQLException {
+
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT MIN(search_date_time) FROM " + table)) {
+            Timestamp oldest = resultSet.next() ? resultSet.getTimestamp(1) : null;
+            return oldest == null ? null : YearMonth.from(oldest.toLocalDateTime());
+        }
+    }
+
+    /**
+     * Checks whether the partition holds no row.
+     *
+     * @param connection the connection
+     * @param table the table name
+     * @param partition the partition name
+     * @return true if the partition is empty, false otherwise
+     * @throws SQLException if the partition cannot be read
+     */
+    private boolean isEmptyPartition(Connection connection, String table, String partition) throws SQLException {
+
+        try (Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery("SELECT 1 FROM " + table + " PARTITION ("
+                        + partition + ") LIMIT 1")) {
+            return !resultSet.next();
+        }
+    }
+
+    /**
+     * Splits a partition for every month after the last monthly partition, up
+     * to the last month given, from the catch-all partition. If the table has
+     * no monthly partition yet, as in an existing database just partitioned,
+     * the first partition created is for the month of the oldest search, so
+     * that every earlier month can later be dropped on its own.
+     *
+     * @param connection the connection
+     * @param table the table name
+     * @param months the months of the existing monthly partitions
+     * @param currentMonth the current month
+     * @param lastMonth the last month to prepare a partition for
+     * @throws SQLException if the partitions cannot be created
+     */
+    private void addPartitions(Connection connection, String table, List<YearMonth> months,
+            YearMonth currentMonth, YearMonth lastMonth) throws SQLException {
+
+        YearMonth month;
+        if (months.isEmpty()) {
+            YearMonth oldestMonth = findOldestMonth(connection, table);
+            month = oldestMonth != null && oldestMonth.isBefore(currentMonth) ? oldestMonth : currentMonth;
+        } else {
+            month = months.get(months.size() - 1).plusMonths(1);
+        }
+        if (month.isAfter(lastMonth)) {
+            return;
+        }
+        StringJoiner partitions = new StringJoiner(", ", "ALTER TABLE " + table + " REORGANIZE PARTITION "
+                + CATCH_ALL_PARTITION + " INTO (", ")");
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            partitions.add("PARTITION " + month.format(PARTITION_MONTH) + " VALUES LESS THAN (TO_DAYS('"
+                    + month.plusMonths(1).atDay(1) + "'))");
+        }
+        partitions.add("PARTITION " + CATCH_ALL_PARTITION + " VALUES LESS THAN MAXVALUE");
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(partitions.toString());
+        }
+        logger.info(MessageFormat.format("Partitions of {0} prepared up to {1}.", table, lastMonth));
+    }
+
+    /**
+     * Drops the monthly partitions before the cutoff month. The links of the
+     * dropped stock history searches to their results are deleted first. A
+     * stock price search partition still holding searches is kept, since the
+     * roll-up has not yet summarized and purged them.
+     *
+     * @param connection the connection
+     * @param table the table name
+     * @param months the months of the existing monthly partitions
+     * @param cutoffMonth the first month kept
+     * @throws SQLException if the partitions cannot be dropped
+     */
+    private void dropPartitions(Connection connection, String table, List<YearMonth> months,
+            YearMonth cutoffMonth) throws SQLException {
+
+        StringJoiner expired = new StringJoiner(", ");
+        for (YearMonth month : months) {
+            if (!month.isBefore(cutoffMonth)) {
+                continue;
+            }
+            String partition = month.format(PARTITION_MONTH);
+            if (PRICE_SEARCH_TABLE.equals(table) && !isEmptyPartition(connection, table, partition)) {
+                logger.warn(MessageFormat.format("The partition {0} of {1} is kept until its searches are "
+                        + "rolled up.", partition, table));
+                continue;
+            }
+            expired.add(partition);
+        }
+        if (expired.length() == 0) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (HISTORY_SEARCH_TABLE.equals(table)) {
+                statement.executeUpdate("DELETE r FROM StockHistorySearchResult r JOIN " + HISTORY_SEARCH_TABLE
+                        + " PARTITION (" + expired + ") s ON r.stock_history_search_id = s.stock_history_search_id");
+            }
+            statement.executeUpdate("ALTER TABLE " + table + " DROP PARTITION " + expired);
+        }
+        logger.info(MessageFormat.format("Partitions {0} of {1} dropped.", expired, table));
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.ejb;
+
+import com.daniel.search.codec.FixedPoint;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPrice;
+import com.daniel.search.price.StockPriceSearchEvent;
+import java.math.BigDecimal;
+import java.text.MessageFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton pushes the stored search events to the subscribers of the
+ * live operations view. The events stored by a transaction are queued only
+ * after the transaction has committed, so a subscriber never sees an event
+ * that was rolled back. The queued events are sent to every subscriber as one
+ * frame at each frame interval, so a burst of events costs a subscriber no
+ * more than the configured number of frames per second. If the queue is full,
+ * further events are dropped and their number is reported in the next frame.
+ * Each event is sent as a small JSON object holding only what the live view
+ * shows.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@Startup
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SearchEventBroadcaster {
+
+    /**
+     * The maximum number of frames sent to a subscriber each second is a
+     * property set in GlassFish System Properties with this key.
+     */
+    public static final String FRAMES_PER_SECOND = "operation_monitor_live_frames_per_second";
+
+    /**
+     * The maximum number of events waiting for the next frame is a property
+     * set in GlassFish System Properties with this key.
+     */
+    public static final String BUFFER_CAPACITY = "operation_monitor_live_buffer_capacity";
+
+    /**
+     * The frames per second used when the property is not set
+     */
+    private static final int DEFAULT_FRAMES_PER_SECOND = 2;
+
+    /**
+     * The buffer capacity used when the property is not set
+     */
+    private static final int DEFAULT_BUFFER_CAPACITY = 1000;
+
+    /**
+     * The format of the search date and time sent with an event
+     */
+    private static final DateTimeFormatter SEARCH_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * The timer service
+     */
+    @Resource
+    private TimerService timerService;
+
+    /**
+     * The transaction synchronization registry
+     */
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * The receivers of the frames
+     */
+    private final Set<Consumer<String>> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The number of events dropped since the last frame because the buffer was
+     * full
+     */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * The events waiting for the next frame
+     */
+    private BlockingQueue<JsonObject> buffer;
+
+    /**
+     * The maximum number of events waiting for the next frame
+     */
+    private int capacity;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(SearchEventBroadcaster.class);
+
+    /**
+     * Creates the buffer and starts the frame timer.
+     */
+    @PostConstruct
+    public void initialize() {
+        int framesPerSecond = Math.min(1000, Math.max(1,
+                Integer.getInteger(FRAMES_PER_SECOND, DEFAULT_FRAMES_PER_SECOND)));
+        capacity = Math.max(1, Integer.getInteger(BUFFER_CAPACITY, DEFAULT_BUFFER_CAPACITY));
+        buffer = new ArrayBlockingQueue<>(capacity);
+        long frameInterval = 1000 / framesPerSecond;
+        timerService.createIntervalTimer(frameInterval, frameInterval, new TimerConfig(null, false));
+        logger.info(MessageFormat.format("Live search events are pushed at most {0} times a second.",
+                framesPerSecond));
+    }
+
+    /**
+     * Adds a receiver of the frames. The receiver is called by the frame timer
+     * and must not block.
+     *
+     * @param subscriber the receiver of the frames
+     */
+    public void subscribe(Consumer<String> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * Removes a receiver of the frames.
+     *
+     * @param subscriber the receiver of the frames
+     */
+    public void unsubscribe(Consumer<String> subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    /**
+     * Queues the search events for the next frame once the caller's
+     * transaction has committed. Nothing is done if there are no subscribers.
+     *
+     * @param stockPriceSearchEvents the stored stock price search events
+     * @param historicalStockPriceSearchEvents the stored stock history search
+     * events
+     */
+    public void publish(List<StockPriceSearchEvent> stockPriceSearchEvents,
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents) {
+
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<JsonObject> events = new ArrayList<>();
+        stockPriceSearchEvents.forEach(stockPriceSearchEvent -> addPriceEvents(events, stockPriceSearchEvent));
+        historicalStockPriceSearchEvents.forEach(historicalStockPriceSearchEvent
+                -> events.add(toHistoryEvent(historicalStockPriceSearchEvent)));
+        transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+            @Override
+            public void beforeCompletion() {
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == Status.STATUS_COMMITTED) {
+                    events.forEach(event -> {
+                        if (!buffer.offer(event)) {
+                            droppedEvents.incrementAndGet();
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the queued events to every subscriber as one frame when the frame
+     * interval elapses. No frame is sent if nothing was queued or dropped. A
+     * subscriber that fails to take the frame is removed.
+     */
+    @Timeout
+    @TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+    public void sendFrame() {
+
+        List<JsonObject> events = new ArrayList<>();
+        buffer.drainTo(events, capacity);
+        long dropped = droppedEvents.getAndSet(0);
+        if (events.isEmpty() && dropped == 0 || subscribers.isEmpty()) {
+            return;
+        }
+        JsonArrayBuilder eventArray = Json.createArrayBuilder();
+        events.forEach(eventArray::add);
+        String frame = Json.createObjectBuilder()
+                .add("events", eventArray)
+                .add("dropped", dropped)
+                .build().toString();
+        for (Consumer<String> subscriber : subscribers) {
+            try {
+                subscriber.accept(frame);
+            } catch (RuntimeException e) {
+                logger.warn(MessageFormat.format("A live event subscriber is removed after failing to take "
+                        + "a frame: {0}", e.getMessage()));
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Adds an event for every stock price of the search event to the list.
+     *
+     * @param events the list of events
+     * @param stockPriceSearchEvent the stock price search event
+     */
+    private void addPriceEvents(List<JsonObject> events, StockPriceSearchEvent stockPriceSearchEvent) {
+
+        if (stockPriceSearchEvent.getStockPriceSearchResult() == null
+                || stockPriceSearchEvent.getStockPriceSearchResult().getStockPriceData() == null) {
+            return;
+        }
+        for (StockPrice stockPrice : stockPriceSearchEvent.getStockPriceSearchResult().getStockPriceData()) {
+            JsonObjectBuilder event = Json.createObjectBuilder()
+                    .add("type", "price")
+                    .add("symbol", stockPrice.getSymbol())
+                    .add("searchDateTime", stockPriceSearchEvent.getTimeSearched().format(SEARCH_DATE_TIME))
+                    .add("timeElapsed", stockPriceSearchEvent.getTimeElapsed());
+            BigDecimal price = FixedPoint.toBigDecimal(stockPrice.getPrice(), FixedPoint.PRICE_SCALE);
+            if (price != null) {
+                event.add("price", price);
+            } else {
+                event.addNull("price");
+            }
+            events.add(event.build());
+        }
+    }
+
+    /**
+     * Returns the event for the stock history search event.
+     *
+     * @param historicalStockPriceSearchEvent the stock history search event
+     * @return the event
+     */
+    private JsonObject toHistoryEvent(HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent) {
+
+        HistoricalStockPriceSeries historicalStockPriceSeries
+                = historicalStockPriceSearchEvent.getHistoricalStockPriceSeries();
+        JsonObjectBuilder event = Json.createObjectBuilder()
+                .add("type", "history")
+                .add("searchDateTime", historicalStockPriceSearchEvent.getTimeSearched().format(SEARCH_DATE_TIME))
+                .add("timeElapsed", historicalStockPriceSearchEvent.getTimeElapsed())
+                .add("barCount", historicalStockPriceSeries != null ? historicalStockPriceSeries.size() : 0);
+        if (historicalStockPriceSeries != null && historicalStockPriceSeries.getName() != null) {
+            event.add("symbol", historicalStockPriceSeries.getName());
+        } else {
+            event.addNull("symbol");
+        }
+        return event.build();
+    }
+}
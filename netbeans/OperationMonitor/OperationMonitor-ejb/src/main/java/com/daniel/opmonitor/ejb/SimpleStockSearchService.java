@@ -20,28 +20,38 @@ import com.daniel.opmonitor.entity.StockHistoryResult;
 import com.daniel.opmonitor.entity.StockHistoryResultPK;
 import com.daniel.opmonitor.entity.StockHistorySearch;
 import com.daniel.opmonitor.entity.StockPriceSearch;
-import com.daniel.search.history.HistoricalStockPrice;
+import com.daniel.opmonitor.entity.StockPriceSearchAggregate;
+import com.daniel.opmonitor.entity.StockPriceSearchAggregatePK;
+import com.daniel.opmonitor.model.BucketSize;
+import com.daniel.opmonitor.model.LatencyBucket;
+import com.daniel.opmonitor.model.StockHistorySearchSummary;
+import com.daniel.search.codec.FixedPoint;
 import com.daniel.search.history.HistoricalStockPriceSearchEvent;
-import com.daniel.search.history.HistoricalStockPriceSearchResult;
+import com.daniel.search.history.HistoricalStockPriceSeries;
 import com.daniel.search.price.StockPrice;
 import com.daniel.search.price.StockPriceSearchEvent;
 import java.math.BigDecimal;
 import java.text.MessageFormat;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Resource;
+import javax.ejb.EJB;
 import javax.ejb.EJBContext;
 import javax.ejb.Stateless;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
 import javax.validation.ConstraintViolationException;
 import javax.validation.ValidationException;
 import org.apache.log4j.LogManager;
@@ -61,12 +71,62 @@ public class SimpleStockSearchService implements StockSearchService {
      */
     public static final String DATE_FORMAT = "yyyy-MM-dd";
 
+    /**
+     * The query paths of the properties stock price searches may be sorted by
+     */
+    private static final Map<String, String> PRICE_SEARCH_SORT_PATHS = new HashMap<>();
+
+    /**
+     * The query paths of the properties stock history searches may be sorted
+     * by
+     */
+    private static final Map<String, String> HISTORY_SEARCH_SORT_PATHS = new HashMap<>();
+
+    static {
+        PRICE_SEARCH_SORT_PATHS.put("symbol", "st.symbol");
+        PRICE_SEARCH_SORT_PATHS.put("price", "s.price");
+        PRICE_SEARCH_SORT_PATHS.put("searchDateTime", "s.searchDateTime");
+        PRICE_SEARCH_SORT_PATHS.put("timeElapsed", "s.timeElapsed");
+        HISTORY_SEARCH_SORT_PATHS.put("symbol", "s.symbol");
+        HISTORY_SEARCH_SORT_PATHS.put("searchDateTime", "s.searchDateTime");
+        HISTORY_SEARCH_SORT_PATHS.put("timeElapsed", "s.timeElapsed");
+        HISTORY_SEARCH_SORT_PATHS.put("barCount", "s.barCount");
+    }
+
+    /**
+     * The statement deleting a limited number of the stock price searches in
+     * a period, so that a purge holds its locks only briefly
+     */
+    private static final String PURGE_STOCK_PRICE_SEARCHES = "DELETE FROM StockPriceSearch "
+            + "WHERE search_date_time >= ?1 AND search_date_time < ?2 LIMIT ?3";
+
+    /**
+     * The query counting the searches of each time elapsed in each time bucket
+     * of a period, which is answered from the search date and time elapsed
+     * index alone
+     */
+    private static final String FIND_LATENCY_HISTOGRAM = "SELECT CAST(DATE_FORMAT(search_date_time, ?1) AS DATETIME) "
+            + "AS bucket_start, time_elapsed, COUNT(*) FROM StockPriceSearch "
+            + "WHERE search_date_time >= ?2 AND search_date_time < ?3 ";
+
+    /**
+     * The grouping of the latency histogram query
+     */
+    private static final String GROUP_LATENCY_HISTOGRAM = "GROUP BY bucket_start, time_elapsed "
+            + "ORDER BY bucket_start, time_elapsed";
+
     /**
      * The EJB context
      */
     @Resource
     private EJBContext context;
 
+    /**
+     * The registry of stored stock symbols
+     */
+    @EJB
+    private StockRegistry stockRegistry;
+
     /**
      * The logger for this class
      */
@@ -79,19 +139,21 @@ public class SimpleStockSearchService implements StockSearchService {
     private EntityManager entityManager;
 
     @Override
-    public List<StockPriceSearch> findStockPriceSearchEvents(Date dateOccurred) {
+    public List<StockPriceSearch> findStockPriceSearchEvents(Date dateOccurred, String symbol, int firstResult,
+            int maxResults, String sortProperty, boolean ascending) {
 
-        Query query = entityManager.createNamedQuery("StockPriceSearch.findBySearchDateTime");
         List<StockPriceSearch> stockPriceSearches = null;
-
-        // getting a Calendar set to provide the next day's date
-        Calendar dayAfter = Calendar.getInstance();
-        dayAfter.setTime(dateOccurred);
-        dayAfter.add(Calendar.DATE, 1);
-
         try {
-            stockPriceSearches = query.setParameter("searchDateTime", dateOccurred)
-                    .setParameter("dayAfter", dayAfter.getTime()).getResultList();
+            // the symbol is joined so that searches without a stock are still found
+            TypedQuery<StockPriceSearch> query = entityManager.createQuery("SELECT s FROM StockPriceSearch s "
+                    + "LEFT JOIN s.symbol st WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter"
+                    + (symbol != null ? " AND st.symbol = :symbol" : "") + " ORDER BY "
+                    + PRICE_SEARCH_SORT_PATHS.getOrDefault(sortProperty, "s.searchDateTime")
+                    + (ascending ? " ASC" : " DESC") + ", s.stockPriceId", StockPriceSearch.class);
+            stockPriceSearches = setSearchParameters(query, dateOccurred, symbol)
+                    .setFirstResult(firstResult)
+                    .setMaxResults(maxResults)
+                    .getResultList();
         } catch (Exception e) {
             logger.error("An exception occurred in the findStockPriceSearchEvents method.", e);
         }
@@ -99,36 +161,287 @@ public class SimpleStockSearchService implements StockSearchService {
     }
 
     @Override
-    public List<StockHistorySearch> findStockHistorySearchEvents(Date dateOccurred) {
+    public long countStockPriceSearchEvents(Date dateOccurred, String symbol) {
+        return setSearchParameters(entityManager.createQuery("SELECT COUNT(s) FROM StockPriceSearch s "
+                + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter"
+                + (symbol != null ? " AND s.symbol.symbol = :symbol" : ""), Long.class), dateOccurred, symbol)
+                .getSingleResult();
+    }
 
-        Query query = entityManager.createNamedQuery("StockHistorySearch.findBySearchDateTime");
-        List<StockHistorySearch> stockHistorySearches = null;
+    @Override
+    public StockPriceSearch findStockPriceSearchEvent(Long stockPriceId) {
+        return entityManager.find(StockPriceSearch.class, stockPriceId);
+    }
 
-        // getting a Calendar set to provide the next day's date
-        Calendar dayAfter = Calendar.getInstance();
-        dayAfter.setTime(dateOccurred);
-        dayAfter.add(Calendar.DATE, 1);
+    @Override
+    public List<StockHistorySearchSummary> findStockHistorySearchEvents(Date dateOccurred, String symbol,
+            int firstResult, int maxResults, String sortProperty, boolean ascending) {
 
+        List<StockHistorySearchSummary> stockHistorySearches = null;
         try {
-            stockHistorySearches = query.setParameter("searchDateTime", dateOccurred)
-                    .setParameter("dayAfter", dayAfter.getTime()).getResultList();
+            // the summary columns of the search are read without joining its results
+            TypedQuery<StockHistorySearchSummary> query = entityManager.createQuery("SELECT NEW "
+                    + "com.daniel.opmonitor.model.StockHistorySearchSummary(s.stockHistorySearchId, "
+                    + "s.searchDateTime, s.symbol, s.timeElapsed, s.barCount, s.firstDate, s.lastDate) "
+                    + "FROM StockHistorySearch s "
+                    + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter"
+                    + (symbol != null ? " AND s.symbol = :symbol" : "") + " ORDER BY "
+                    + HISTORY_SEARCH_SORT_PATHS.getOrDefault(sortProperty, "s.searchDateTime")
+                    + (ascending ? " ASC" : " DESC") + ", s.stockHistorySearchId", StockHistorySearchSummary.class);
+            stockHistorySearches = setSearchParameters(query, dateOccurred, symbol)
+                    .setFirstResult(firstResult)
+                    .setMaxResults(maxResults)
+                    .getResultList();
         } catch (Exception e) {
             logger.error("An exception occurred in the findStockHistorySearchEvents method.", e);
         }
         return stockHistorySearches;
     }
 
+    @Override
+    public long countStockHistorySearchEvents(Date dateOccurred, String symbol) {
+        return setSearchParameters(entityManager.createQuery("SELECT COUNT(s) FROM StockHistorySearch s "
+                + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter"
+                + (symbol != null ? " AND s.symbol = :symbol" : ""), Long.class), dateOccurred, symbol)
+                .getSingleResult();
+    }
+
+    /**
+     * Sets the parameters of a query for the searches of one day, and of one
+     * symbol if the symbol is given.
+     *
+     * @param <T> the query result type
+     * @param query the query
+     * @param dateOccurred the date of the searches
+     * @param symbol the stock symbol, or null for every symbol
+     * @return the query
+     */
+    private <T> TypedQuery<T> setSearchParameters(TypedQuery<T> query, Date dateOccurred, String symbol) {
+        query.setParameter("searchDateTime", dateOccurred)
+                .setParameter("dayAfter", dayAfter(dateOccurred));
+        if (symbol != null) {
+            query.setParameter("symbol", symbol);
+        }
+        return query;
+    }
+
+    @Override
+    public StockHistorySearch findStockHistorySearchEvent(Long stockHistorySearchId) {
+        List<StockHistorySearch> stockHistorySearches = entityManager
+                .createNamedQuery("StockHistorySearch.findByIdWithResults", StockHistorySearch.class)
+                .setParameter("stockHistorySearchId", stockHistorySearchId)
+                .getResultList();
+        return stockHistorySearches.isEmpty() ? null : stockHistorySearches.get(0);
+    }
+
+    @Override
+    public List<StockPriceSearchAggregate> findStockPriceSearchAggregates(Date dateOccurred) {
+
+        List<StockPriceSearchAggregate> aggregates = null;
+        try {
+            aggregates = entityManager.createNamedQuery("StockPriceSearchAggregate.findByPeriod",
+                    StockPriceSearchAggregate.class)
+                    .setParameter("granularity", StockPriceSearchAggregate.HOUR)
+                    .setParameter("periodStart", dateOccurred)
+                    .setParameter("periodEnd", dayAfter(dateOccurred))
+                    .getResultList();
+        } catch (Exception e) {
+            logger.error("An exception occurred in the findStockPriceSearchAggregates method.", e);
+        }
+        return aggregates;
+    }
+
+    @Override
+    public List<LatencyBucket> findLatencyBuckets(BucketSize bucketSize, Date dateFrom, Date dateTo, String symbol) {
+
+        List<LatencyBucket> buckets = new ArrayList<>();
+        Date rawRetentionStart = StockSearchRollUp.getRawRetentionStart();
+        Date rawFrom = dateFrom;
+        if (rawRetentionStart != null && dateFrom.before(rawRetentionStart)) {
+            Date aggregateTo = dateTo.before(rawRetentionStart) ? dateTo : rawRetentionStart;
+            buckets.addAll(entityManager.createNamedQuery("StockPriceSearchAggregate.findLatencyBuckets",
+                    LatencyBucket.class)
+                    .setParameter("granularity", bucketSize == BucketSize.DAY
+                            ? StockPriceSearchAggregate.DAY : StockPriceSearchAggregate.HOUR)
+                    .setParameter("symbol", symbol != null ? symbol : StockPriceSearchAggregate.ALL_SYMBOLS)
+                    .setParameter("periodStart", dateFrom)
+                    .setParameter("periodEnd", aggregateTo)
+                    .getResultList());
+            rawFrom = rawRetentionStart;
+        }
+        if (!rawFrom.before(dateTo)) {
+            return buckets;
+        }
+
+        // the searches are read as counts of each time elapsed, which are far fewer than the searches
+        // without a symbol, a call for many symbols is counted once, by the first search it stored
+        Query query = entityManager.createNativeQuery(FIND_LATENCY_HISTOGRAM
+                + (symbol != null ? "AND symbol = ?4 " : "AND first_of_call = TRUE ") + GROUP_LATENCY_HISTOGRAM)
+                .setParameter(1, bucketSize.getDateFormat())
+                .setParameter(2, rawFrom, TemporalType.TIMESTAMP)
+                .setParameter(3, dateTo, TemporalType.TIMESTAMP);
+        if (symbol != null) {
+            query.setParameter(4, symbol);
+        }
+        List<?> rows = query.getResultList();
+        LatencyHistogram histogram = null;
+        for (Object result : rows) {
+            Object[] row = (Object[]) result;
+            Date bucketStart = toBucketStart(row[0]);
+            if (histogram == null || !histogram.start.equals(bucketStart)) {
+                if (histogram != null) {
+                    buckets.add(histogram.toBucket());
+                }
+                histogram = new LatencyHistogram(bucketStart);
+            }
+            histogram.add(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+        }
+        if (histogram != null) {
+            buckets.add(histogram.toBucket());
+        }
+        return buckets;
+    }
+
+    /**
+     * Converts the bucket start read by a native query to a date. The type
+     * read depends on the version of the JDBC driver.
+     *
+     * @param bucketStart the bucket start
+     * @return the date
+     */
+    private static Date toBucketStart(Object bucketStart) {
+        if (bucketStart instanceof LocalDateTime) {
+            return Date.from(((LocalDateTime) bucketStart).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return new Date(((Date) bucketStart).getTime());
+    }
+
+    /**
+     * Returns the nearest rank of a percentile, the one-based position in
+     * ascending order of the value at or below which the percentile of the
+     * values falls.
+     *
+     * @param percentile the percentile as a fraction
+     * @param count the number of values
+     * @return the rank
+     */
+    private static long nearestRank(double percentile, long count) {
+        return Math.max(1, (long) Math.ceil(percentile * count));
+    }
+
+    @Override
+    public Date findOldestStockPriceSearchDate() {
+        return entityManager.createNamedQuery("StockPriceSearch.findOldestSearchDateTime", Date.class)
+                .getSingleResult();
+    }
+
+    @Override
+    public boolean rollUpStockPriceSearchEvents(Date dateOccurred) {
+
+        Date dayAfter = dayAfter(dateOccurred);
+        try {
+            long dailyAggregates = entityManager.createNamedQuery("StockPriceSearchAggregate.countByPeriod",
+                    Long.class)
+                    .setParameter("granularity", StockPriceSearchAggregate.DAY)
+                    .setParameter("periodStart", dateOccurred)
+                    .setParameter("periodEnd", dayAfter)
+                    .getSingleResult();
+            if (dailyAggregates > 0) {
+                return true;
+            }
+
+            // only the columns aggregated are read, ordered by symbol and time
+            List<Object[]> rows = entityManager.createNamedQuery("StockPriceSearch.findRollUpValues", Object[].class)
+                    .setParameter("searchDateTime", dateOccurred)
+                    .setParameter("dayAfter", dayAfter)
+                    .getResultList();
+            Map<StockPriceSearchAggregatePK, PeriodAccumulator> accumulators = new HashMap<>();
+            for (Object[] row : rows) {
+                String symbol = (String) row[0];
+                Date searchDateTime = (Date) row[1];
+                long timeElapsed = (Long) row[2];
+                BigDecimal price = (BigDecimal) row[3];
+                boolean firstOfCall = (Boolean) row[4];
+                accumulators.computeIfAbsent(new StockPriceSearchAggregatePK(StockPriceSearchAggregate.DAY, symbol,
+                        dateOccurred), key -> new PeriodAccumulator()).add(timeElapsed, price);
+                accumulators.computeIfAbsent(new StockPriceSearchAggregatePK(StockPriceSearchAggregate.HOUR, symbol,
+                        startOfHour(searchDateTime)), key -> new PeriodAccumulator()).add(timeElapsed, price);
+
+                // the aggregates of every symbol keep the latency percentiles, which cannot be combined later,
+                // and count a call for many symbols once
+                if (!firstOfCall) {
+                    continue;
+                }
+                accumulators.computeIfAbsent(new StockPriceSearchAggregatePK(StockPriceSearchAggregate.DAY,
+                        StockPriceSearchAggregate.ALL_SYMBOLS, dateOccurred), key -> new PeriodAccumulator())
+                        .add(timeElapsed, null);
+                accumulators.computeIfAbsent(new StockPriceSearchAggregatePK(StockPriceSearchAggregate.HOUR,
+                        StockPriceSearchAggregate.ALL_SYMBOLS, startOfHour(searchDateTime)),
+                        key -> new PeriodAccumulator()).add(timeElapsed, null);
+            }
+            accumulators.forEach((key, accumulator) -> entityManager.persist(accumulator.toAggregate(key)));
+            entityManager.flush();
+            logger.info(MessageFormat.format("{0} stock price searches rolled up into {1} aggregates.",
+                    rows.size(), accumulators.size()));
+            return true;
+        } catch (Exception e) {
+            logger.error(MessageFormat.format("SimpleStockSearchService: An Exception occurred in the rollUpStockPriceSearchEvents method: {0}",
+                    e.getMessage()), e);
+            context.setRollbackOnly();
+        }
+        return false;
+    }
+
+    @Override
+    public int purgeStockPriceSearchEvents(Date dateOccurred, int maxResults) {
+
+        try {
+            return entityManager.createNativeQuery(PURGE_STOCK_PRICE_SEARCHES)
+                    .setParameter(1, dateOccurred, TemporalType.TIMESTAMP)
+                    .setParameter(2, dayAfter(dateOccurred), TemporalType.TIMESTAMP)
+                    .setParameter(3, maxResults)
+                    .executeUpdate();
+        } catch (Exception e) {
+            logger.error(MessageFormat.format("SimpleStockSearchService: An Exception occurred in the purgeStockPriceSearchEvents method: {0}",
+                    e.getMessage()), e);
+            context.setRollbackOnly();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the date one day after the given date.
+     *
+     * @param date the date
+     * @return the date one day later
+     */
+    private static Date dayAfter(Date date) {
+        Calendar dayAfter = Calendar.getInstance();
+        dayAfter.setTime(date);
+        dayAfter.add(Calendar.DATE, 1);
+        return dayAfter.getTime();
+    }
+
+    /**
+     * Returns the start of the hour of the given date and time.
+     *
+     * @param date the date and time
+     * @return the date and time truncated to the hour
+     */
+    private static Date startOfHour(Date date) {
+        Calendar hour = Calendar.getInstance();
+        hour.setTime(date);
+        hour.set(Calendar.MINUTE, 0);
+        hour.set(Calendar.SECOND, 0);
+        hour.set(Calendar.MILLISECOND, 0);
+        return hour.getTime();
+    }
+
     @Override
     public boolean storeStockPriceSearchEvent(StockPriceSearchEvent stockPriceSearchEvent) {
 
         try {
-            StockPriceSearch stockPriceSearch = new StockPriceSearch();
-            stockPriceSearch.setStockPriceId(null);
-            Date searchDate = Date.from(stockPriceSearchEvent.getTimeSearched().atZone(ZoneId.systemDefault()).toInstant());
-            stockPriceSearch.setSearchDateTime(searchDate);
-            stockPriceSearch.setTimeElapsed(stockPriceSearchEvent.getTimeElapsed());
-            populateStockPriceValues(stockPriceSearchEvent, stockPriceSearch);
-            entityManager.persist(stockPriceSearch);
+            persistStockPriceSearchEvent(stockPriceSearchEvent);
             entityManager.flush();
             return true;
         } catch (ValidationException ve) {
@@ -144,106 +457,88 @@ public class SimpleStockSearchService implements StockSearchService {
     }
 
     /**
-     * Populates the new stock price search entity with the values contained in
-     * the stock price search event.
+     * Persists the stock price search entities of the event without flushing
+     * them. An event without price data is not stored, nor is price data
+     * without a symbol, since a stock price search requires a symbol and a
+     * price.
      *
-     * @param stockPriceSearchEvent the stock price search event
-     * @param stockPriceSearch the stock price search entity
+     * @param stockPriceSearchEvent the StockPriceSearchEvent object
      */
-    private void populateStockPriceValues(StockPriceSearchEvent stockPriceSearchEvent, StockPriceSearch stockPriceSearch) {
+    private void persistStockPriceSearchEvent(StockPriceSearchEvent stockPriceSearchEvent) {
 
+        Date searchDate = Date.from(stockPriceSearchEvent.getTimeSearched().atZone(ZoneId.systemDefault()).toInstant());
         List<StockPrice> stockPriceList = stockPriceSearchEvent.getStockPriceSearchResult().getStockPriceData();
-        StockPrice stockPriceData = null;
-        if (stockPriceList != null && !stockPriceList.isEmpty()) {
-            stockPriceData = stockPriceList.get(0);
+        if (stockPriceList == null || stockPriceList.isEmpty()) {
+            logger.warn(MessageFormat.format("SimpleStockSearchService: The stock price search of {0} returned "
+                    + "no price data and is not stored.", searchDate));
+            return;
         }
-        if (stockPriceData != null) {
-            Stock stock = entityManager.find(Stock.class, stockPriceData.getSymbol());
-            if (stock == null) {
-                stock = storeStock(stockPriceData.getSymbol(), stockPriceData.getName());
+
+        // a search for many symbols stores one row for each price returned, the first standing for the call
+        boolean firstOfCall = true;
+        for (StockPrice stockPriceData : stockPriceList) {
+            if (stockPriceData.getSymbol() == null) {
+                logger.warn(MessageFormat.format("SimpleStockSearchService: A stock price of the search of {0} "
+                        + "has no symbol and is not stored.", searchDate));
+                continue;
             }
-            stockPriceSearch.setChangePct(new BigDecimal(stockPriceData.getChangePct()));
-            stockPriceSearch.setCloseYesterday(new BigDecimal(stockPriceData.getCloseYesterday()));
-            stockPriceSearch.setCurrency(stockPriceData.getCurrency());
-            stockPriceSearch.setDayChange(new BigDecimal(stockPriceData.getDayChange()));
-            stockPriceSearch.setDayHigh(new BigDecimal(stockPriceData.getDayHigh()));
-            stockPriceSearch.setDayLow(new BigDecimal(stockPriceData.getDayLow()));
-            stockPriceSearch.setEps(new BigDecimal(stockPriceData.getEps()));
-            stockPriceSearch.setGmtOffset(Long.valueOf(stockPriceData.getGmtOffset()));
-            stockPriceSearch.setLastTradeTime(stockPriceData.getLastTradeTime());
-            stockPriceSearch.setMarketCap(Long.valueOf(stockPriceData.getMarketCap()));
-            stockPriceSearch.setPe(stockPriceData.getPe());
-            stockPriceSearch.setPrice(new BigDecimal(stockPriceData.getPrice()));
-            stockPriceSearch.setPriceOpen(new BigDecimal(stockPriceData.getPriceOpen()));
-            stockPriceSearch.setShares(Long.valueOf(stockPriceData.getShares()));
-            stockPriceSearch.setStockExchangeLong(stockPriceData.getStockExchangeLong());
-            stockPriceSearch.setStockExchangeShort(stockPriceData.getStockExchangeShort());
-            stockPriceSearch.setSymbol(stock);
-            stockPriceSearch.setTimeElapsed(stockPriceSearchEvent.getTimeElapsed());
-            stockPriceSearch.setTimezone(stockPriceData.getTimezone());
-            stockPriceSearch.setTimezoneName(stockPriceData.getTimezoneName());
-            stockPriceSearch.setVolume(Long.valueOf(stockPriceData.getVolume()));
-            stockPriceSearch.setVolumeAvg(Double.valueOf(stockPriceData.getVolumeAvg()));
+            entityManager.persist(createStockPriceSearch(searchDate, stockPriceSearchEvent.getTimeElapsed(),
+                    firstOfCall, stockPriceData));
+            firstOfCall = false;
         }
     }
 
     /**
-     * Saves a new stock in the database.
+     * Creates a new stock price search entity with the values contained in the
+     * stock price data.
      *
-     * @param symbol the stock symbol
-     * @param name the stock name
-     * @return the new stock entity
+     * @param searchDate the date and time of the search
+     * @param timeElapsed the time taken to complete the search
+     * @param firstOfCall true if this is the first search stored from the
+     * call to the web service
+     * @param stockPriceData the stock price data
+     * @return the new stock price search entity
      */
-    private Stock storeStock(String symbol, String name) {
-        Stock stock = new Stock();
-        stock.setSymbol(symbol);
-        stock.setName(name);
-        entityManager.persist(stock);
-        entityManager.flush();
-        return stock;
+    private StockPriceSearch createStockPriceSearch(Date searchDate, long timeElapsed, boolean firstOfCall,
+            StockPrice stockPriceData) {
+
+        StockPriceSearch stockPriceSearch = new StockPriceSearch();
+        stockPriceSearch.setStockPriceId(null);
+        stockPriceSearch.setSearchDateTime(searchDate);
+        stockPriceSearch.setTimeElapsed(timeElapsed);
+        stockPriceSearch.setFirstOfCall(firstOfCall);
+        Stock stock = stockRegistry.getStock(stockPriceData.getSymbol(), stockPriceData.getName());
+        stockPriceSearch.setChangePct(toPrice(stockPriceData.getChangePct()));
+        stockPriceSearch.setCloseYesterday(toPrice(stockPriceData.getCloseYesterday()));
+        stockPriceSearch.setCurrency(stockPriceData.getCurrency());
+        stockPriceSearch.setDayChange(toPrice(stockPriceData.getDayChange()));
+        stockPriceSearch.setDayHigh(toPrice(stockPriceData.getDayHigh()));
+        stockPriceSearch.setDayLow(toPrice(stockPriceData.getDayLow()));
+        stockPriceSearch.setEps(toPrice(stockPriceData.getEps()));
+        stockPriceSearch.setGmtOffset(FixedPoint.toLong(stockPriceData.getGmtOffset()));
+        stockPriceSearch.setLastTradeTime(stockPriceData.getLastTradeTime());
+        stockPriceSearch.setMarketCap(FixedPoint.toLong(stockPriceData.getMarketCap()));
+        stockPriceSearch.setPe(stockPriceData.getPe());
+        stockPriceSearch.setPrice(toPrice(stockPriceData.getPrice()));
+        stockPriceSearch.setPriceOpen(toPrice(stockPriceData.getPriceOpen()));
+        stockPriceSearch.setShares(FixedPoint.toLong(stockPriceData.getShares()));
+        stockPriceSearch.setStockExchangeLong(stockPriceData.getStockExchangeLong());
+        stockPriceSearch.setStockExchangeShort(stockPriceData.getStockExchangeShort());
+        stockPriceSearch.setSymbol(stock);
+        stockPriceSearch.setTimezone(stockPriceData.getTimezone());
+        stockPriceSearch.setTimezoneName(stockPriceData.getTimezoneName());
+        stockPriceSearch.setVolume(FixedPoint.toLong(stockPriceData.getVolume()));
+        stockPriceSearch.setVolumeAvg(FixedPoint.toDouble(stockPriceData.getVolumeAvg(), 0));
+        return stockPriceSearch;
     }
 
     @Override
     public boolean storeHistoricalStockPriceSearchEvent(HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent) {
 
-        DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofPattern(DATE_FORMAT);
-
         try {
-            StockHistorySearch stockHistorySearch = new StockHistorySearch();
-            stockHistorySearch.setStockHistorySearchId(null);
-            Date searchDate = Date.from(historicalStockPriceSearchEvent.getTimeSearched().atZone(ZoneId.systemDefault()).toInstant());
-            stockHistorySearch.setSearchDateTime(searchDate);
-            entityManager.persist(stockHistorySearch);
-            entityManager.flush();
+            persistHistoricalStockPriceSearchEvent(historicalStockPriceSearchEvent);
 
-            HistoricalStockPriceSearchResult historicalStockPriceSearchResult
-                    = historicalStockPriceSearchEvent.getHistoricalStockPriceSearchResult();
-            Map<String, HistoricalStockPrice> results = historicalStockPriceSearchResult.getHistory();
-            List<StockHistoryResult> stockHistoryResultList = new ArrayList<>();
-            stockHistorySearch.setStockHistoryResultList(stockHistoryResultList);
-
-            // each day in history is stored
-            results.keySet().forEach(historicalStockPriceKey -> {
-                HistoricalStockPrice historicalStockPrice = results.get(historicalStockPriceKey);
-
-                StockHistoryResultPK historyResultKey = new StockHistoryResultPK();
-                historyResultKey.setSymbol(historicalStockPriceSearchResult.getName());
-                LocalDateTime localDateTime = LocalDateTime.from(LocalDate
-                        .parse(historicalStockPriceKey, dateTimeFormatter).atStartOfDay());
-                Date historyDate = Date.from(localDateTime.atZone(ZoneId.systemDefault()).toInstant());
-                historyResultKey.setHistoryDate(historyDate);
-
-                StockHistoryResult historyResultEntity = entityManager.find(StockHistoryResult.class, historyResultKey);
-                if (historyResultEntity == null) {
-                    historyResultEntity = storeStockhistoryResult(historyResultKey, historicalStockPrice);
-                }
-                List<StockHistorySearch> searchList = historyResultEntity.getStockHistorySearchList();
-                if (searchList == null) {
-                    searchList = new ArrayList<>();
-                }
-                searchList.add(stockHistorySearch);
-                stockHistoryResultList.add(historyResultEntity);
-            });
+            // the inserts are written together in JDBC batches by this single flush
             entityManager.flush();
             return true;
         } catch (ConstraintViolationException e) {
@@ -262,32 +557,361 @@ public class SimpleStockSearchService implements StockSearchService {
         return false;
     }
 
+    @Override
+    public boolean storeSearchEvents(List<StockPriceSearchEvent> stockPriceSearchEvents,
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents) {
+
+        try {
+            for (StockPriceSearchEvent stockPriceSearchEvent : stockPriceSearchEvents) {
+                persistStockPriceSearchEvent(stockPriceSearchEvent);
+            }
+            for (HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent : historicalStockPriceSearchEvents) {
+                persistHistoricalStockPriceSearchEvent(historicalStockPriceSearchEvent);
+            }
+
+            // the inserts of every event are written together in JDBC batches by this single flush
+            entityManager.flush();
+            return true;
+        } catch (ConstraintViolationException e) {
+            logger.error("SimpleStockSearchService: A ConstraintViolationException occurred in the storeSearchEvents method.");
+            e.getConstraintViolations().forEach(err -> logger.error(err.toString()));
+            context.setRollbackOnly();
+        } catch (ValidationException ve) {
+            logger.error("SimpleStockSearchService: A ValidationException occurred in the storeSearchEvents method.", ve);
+            context.setRollbackOnly();
+        } catch (Exception e) {
+            logger.error(MessageFormat.format("SimpleStockSearchService: An Exception occurred in the storeSearchEvents method: {0}",
+                    e.getMessage()), e);
+            context.setRollbackOnly();
+        }
+        return false;
+    }
+
+    /**
+     * Converts a price in cents to the BigDecimal held by the entities.
+     *
+     * @param price the price in cents
+     * @return the price, or null if the price is not available
+     */
+    private static BigDecimal toPrice(long price) {
+        return FixedPoint.toBigDecimal(price, FixedPoint.PRICE_SCALE);
+    }
+
+    /**
+     * Persists the stock history search entity of the event and the days of
+     * its history without flushing them. The days already stored are read
+     * with a single query and only linked to the new search. The stock of the
+     * history is taken from the stock registry, which stores it if it is not
+     * yet known. An event whose history has no symbol is not stored.
+     *
+     * @param historicalStockPriceSearchEvent the
+     * HistoricalStockPriceSearchEvent object
+     */
+    private void persistHistoricalStockPriceSearchEvent(HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent) {
+
+        Date searchDate = Date.from(historicalStockPriceSearchEvent.getTimeSearched().atZone(ZoneId.systemDefault()).toInstant());
+        HistoricalStockPriceSeries historicalStockPriceSeries
+                = historicalStockPriceSearchEvent.getHistoricalStockPriceSeries();
+        if (historicalStockPriceSeries == null || historicalStockPriceSeries.getName() == null) {
+            logger.warn(MessageFormat.format("SimpleStockSearchService: The stock history search of {0} has no "
+                    + "symbol and is not stored.", searchDate));
+            return;
+        }
+
+        StockHistorySearch stockHistorySearch = new StockHistorySearch();
+        stockHistorySearch.setStockHistorySearchId(null);
+        stockHistorySearch.setSearchDateTime(searchDate);
+        stockHistorySearch.setTimeElapsed(historicalStockPriceSearchEvent.getTimeElapsed());
+
+        // the summary of the results is kept with the search so that searches are listed from this table alone
+        stockHistorySearch.setSymbol(historicalStockPriceSeries.getName());
+        stockHistorySearch.setBarCount(historicalStockPriceSeries.size());
+        if (!historicalStockPriceSeries.isEmpty()) {
+            stockHistorySearch.setFirstDate(toDate(historicalStockPriceSeries.getDate(0)));
+            stockHistorySearch.setLastDate(toDate(historicalStockPriceSeries.getDate(historicalStockPriceSeries.size() - 1)));
+        }
+        entityManager.persist(stockHistorySearch);
+
+        List<StockHistoryResult> stockHistoryResultList = new ArrayList<>(historicalStockPriceSeries.size());
+        stockHistorySearch.setStockHistoryResultList(stockHistoryResultList);
+
+        if (!historicalStockPriceSeries.isEmpty()) {
+            String symbol = historicalStockPriceSeries.getName();
+            // the history of a new symbol may arrive before its price, so the stock is created if missing
+            Stock stock = stockRegistry.getStock(symbol, null);
+            Map<LocalDate, StockHistoryResult> existingResults = findStockHistoryResults(symbol,
+                    toDate(historicalStockPriceSeries.getDate(0)),
+                    toDate(historicalStockPriceSeries.getDate(historicalStockPriceSeries.size() - 1)));
+
+            // each day in history is stored, the days already known are only linked to the search
+            for (int i = 0; i < historicalStockPriceSeries.size(); i++) {
+
+                LocalDate historyDate = historicalStockPriceSeries.getDate(i);
+                StockHistoryResult historyResultEntity = existingResults.get(historyDate);
+                if (historyResultEntity == null) {
+                    historyResultEntity = createStockHistoryResult(
+                            new StockHistoryResultPK(symbol, toDate(historyDate)),
+                            stock, historicalStockPriceSeries, i);
+                    historyResultEntity.setStockHistorySearchList(new ArrayList<>());
+                    historyResultEntity.getStockHistorySearchList().add(stockHistorySearch);
+                    entityManager.persist(historyResultEntity);
+                } else {
+                    historyResultEntity.getStockHistorySearchList().add(stockHistorySearch);
+                }
+                stockHistoryResultList.add(historyResultEntity);
+            }
+        }
+    }
+
+    /**
+     * Finds the stored history results of the symbol between the two dates
+     * with a single query.
+     *
+     * @param symbol the stock symbol
+     * @param dateFrom the first date
+     * @param dateTo the last date
+     * @return the stored history results keyed by date
+     */
+    private Map<LocalDate, StockHistoryResult> findStockHistoryResults(String symbol, Date dateFrom, Date dateTo) {
+
+        List<StockHistoryResult> stockHistoryResults = entityManager
+                .createNamedQuery("StockHistoryResult.findBySymbolAndHistoryDateRange", StockHistoryResult.class)
+                .setParameter("symbol", symbol)
+                .setParameter("dateFrom", dateFrom, TemporalType.DATE)
+                .setParameter("dateTo", dateTo, TemporalType.DATE)
+                .getResultList();
+        Map<LocalDate, StockHistoryResult> resultsByDate = new HashMap<>(stockHistoryResults.size() * 2);
+        stockHistoryResults.forEach(result -> resultsByDate.put(
+                toLocalDate(result.getStockHistoryResultPK().getHistoryDate()), result));
+        return resultsByDate;
+    }
+
+    /**
+     * Converts the local date to the date at the start of that day.
+     *
+     * @param localDate the local date
+     * @return the date
+     */
+    private static Date toDate(LocalDate localDate) {
+        return Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Converts the date to a local date. Dates read from DATE columns are
+     * java.sql.Date instances, which do not support toInstant.
+     *
+     * @param date the date
+     * @return the local date
+     */
+    private static LocalDate toLocalDate(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
     /**
-     * Creates and saves a new stock history result with the search data
-     * provided.
+     * Creates a new stock history result with the search data provided. The
+     * result is not persisted by this method.
      *
      * @param historyResultKey the stock history result key
-     * @param historicalStockPrice the search data
+     * @param stock the stock of the history
+     * @param historicalStockPriceSeries the search data
+     * @param index the index of the day in the search data
      * @return the new entity
-     * @throws NumberFormatException
      */
-    private StockHistoryResult storeStockhistoryResult(StockHistoryResultPK historyResultKey,
-            HistoricalStockPrice historicalStockPrice) throws NumberFormatException {
+    private StockHistoryResult createStockHistoryResult(StockHistoryResultPK historyResultKey, Stock stock,
+            HistoricalStockPriceSeries historicalStockPriceSeries, int index) {
 
         StockHistoryResult historyResultEntity = new StockHistoryResult();
-        Stock stock = entityManager.find(Stock.class, historyResultKey.getSymbol());
-        if (stock == null) {
-            throw new ValidationException("Parent entity, Stock, does not exists for this history result.");
-        }
         historyResultEntity.setStock(stock);
         historyResultEntity.setStockHistoryResultPK(historyResultKey);
-        historyResultEntity.setClose(new BigDecimal(historicalStockPrice.getClose()));
-        historyResultEntity.setHigh(new BigDecimal(historicalStockPrice.getHigh()));
-        historyResultEntity.setLow(new BigDecimal(historicalStockPrice.getLow()));
-        historyResultEntity.setOpen(new BigDecimal(historicalStockPrice.getOpen()));
-        historyResultEntity.setVolume(Long.valueOf(historicalStockPrice.getVolume()));
-        entityManager.persist(historyResultEntity);
-        entityManager.flush();
+        historyResultEntity.setClose(toPrice(historicalStockPriceSeries.getClose(index)));
+        historyResultEntity.setHigh(toPrice(historicalStockPriceSeries.getHigh(index)));
+        historyResultEntity.setLow(toPrice(historicalStockPriceSeries.getLow(index)));
+        historyResultEntity.setOpen(toPrice(historicalStockPriceSeries.getOpen(index)));
+        historyResultEntity.setVolume(FixedPoint.toLong(historicalStockPriceSeries.getVolume(index)));
         return historyResultEntity;
     }
+
+    /**
+     * This class accumulates the stock price searches of one symbol in one
+     * period. The searches must be added in the order they occurred. The
+     * searches of every symbol are added without a price, one for each call to
+     * the web service.
+     */
+    private static class PeriodAccumulator {
+
+        /**
+         * The times elapsed of the searches
+         */
+        private long[] timesElapsed = new long[16];
+
+        /**
+         * The number of searches added
+         */
+        private int count;
+
+        /**
+         * The sum of the times elapsed
+         */
+        private long totalTimeElapsed;
+
+        /**
+         * The price of the first search
+         */
+        private BigDecimal firstPrice;
+
+        /**
+         * The price of the last search
+         */
+        private BigDecimal lastPrice;
+
+        /**
+         * The lowest price
+         */
+        private BigDecimal minPrice;
+
+        /**
+         * The highest price
+         */
+        private BigDecimal maxPrice;
+
+        /**
+         * Adds a search to the period.
+         *
+         * @param timeElapsed the time elapsed in the search
+         * @param price the price found, or null if prices are not accumulated
+         */
+        void add(long timeElapsed, BigDecimal price) {
+            if (count == timesElapsed.length) {
+                timesElapsed = Arrays.copyOf(timesElapsed, count * 2);
+            }
+            timesElapsed[count++] = timeElapsed;
+            totalTimeElapsed += timeElapsed;
+            if (price == null) {
+                return;
+            }
+            if (firstPrice == null) {
+                firstPrice = price;
+            }
+            lastPrice = price;
+            if (minPrice == null || price.compareTo(minPrice) < 0) {
+                minPrice = price;
+            }
+            if (maxPrice == null || price.compareTo(maxPrice) > 0) {
+                maxPrice = price;
+            }
+        }
+
+        /**
+         * Creates the aggregate of the searches added. The percentiles of the
+         * time elapsed are taken by the nearest rank.
+         *
+         * @param key the aggregate key
+         * @return the new aggregate entity
+         */
+        StockPriceSearchAggregate toAggregate(StockPriceSearchAggregatePK key) {
+            Arrays.sort(timesElapsed, 0, count);
+            StockPriceSearchAggregate aggregate = new StockPriceSearchAggregate(key);
+            aggregate.setSearchCount(count);
+            aggregate.setAvgTimeElapsed((double) totalTimeElapsed / count);
+            aggregate.setP50TimeElapsed(timesElapsed[(int) nearestRank(0.50, count) - 1]);
+            aggregate.setP95TimeElapsed(timesElapsed[(int) nearestRank(0.95, count) - 1]);
+            aggregate.setP99TimeElapsed(timesElapsed[(int) nearestRank(0.99, count) - 1]);
+            aggregate.setFirstPrice(firstPrice);
+            aggregate.setLastPrice(lastPrice);
+            aggregate.setMinPrice(minPrice);
+            aggregate.setMaxPrice(maxPrice);
+            return aggregate;
+        }
+    }
+
+    /**
+     * This class holds the number of searches of each time elapsed in one time
+     * bucket. The times elapsed must be added in ascending order.
+     */
+    private static class LatencyHistogram {
+
+        /**
+         * The start of the bucket
+         */
+        private final Date start;
+
+        /**
+         * The distinct times elapsed
+         */
+        private long[] timesElapsed = new long[64];
+
+        /**
+         * The number of searches of each time elapsed
+         */
+        private long[] counts = new long[64];
+
+        /**
+         * The number of distinct times elapsed added
+         */
+        private int size;
+
+        /**
+         * The number of searches
+         */
+        private long count;
+
+        /**
+         * The sum of the times elapsed of the searches
+         */
+        private double totalTimeElapsed;
+
+        /**
+         * Sets the start of the bucket.
+         *
+         * @param start the start of the bucket
+         */
+        LatencyHistogram(Date start) {
+            this.start = start;
+        }
+
+        /**
+         * Adds the searches of a time elapsed.
+         *
+         * @param timeElapsed the time elapsed
+         * @param searches the number of searches
+         */
+        void add(long timeElapsed, long searches) {
+            if (size == timesElapsed.length) {
+                timesElapsed = Arrays.copyOf(timesElapsed, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            timesElapsed[size] = timeElapsed;
+            counts[size++] = searches;
+            count += searches;
+            totalTimeElapsed += (double) timeElapsed * searches;
+        }
+
+        /**
+         * Creates the latency bucket of the searches added.
+         *
+         * @return the latency bucket
+         */
+        LatencyBucket toBucket() {
+            return new LatencyBucket(start, count, totalTimeElapsed / count, percentile(0.50), percentile(0.95),
+                    percentile(0.99));
+        }
+
+        /**
+         * Returns the time elapsed at the nearest rank of the percentile.
+         *
+         * @param percentile the percentile as a fraction
+         * @return the time elapsed
+         */
+        private long percentile(double percentile) {
+            long rank = nearestRank(percentile, count);
+            long searches = 0;
+            for (int i = 0; i < size; i++) {
+                searches += counts[i];
+                if (searches >= rank) {
+                    return timesElapsed[i];
+                }
+            }
+            return timesElapsed[size - 1];
+        }
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.ejb;
+
+import com.daniel.opmonitor.entity.Stock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * This singleton remembers the stock symbols known to be stored in the
+ * database, so that storing a search for a known symbol never needs to check
+ * for or create its stock. An unknown symbol is inserted with an insert that is
+ * ignored if the symbol already exists, which is safe when several message
+ * listeners store the same new symbol at once. A symbol is remembered only
+ * after the transaction inserting it has committed. A stock committed by
+ * another transaction after the caller's transaction began is not seen by a
+ * consistent read at the repeatable read isolation level, so such a stock is
+ * read again with a locking read, which sees the latest committed row.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class StockRegistry {
+
+    /**
+     * The statement inserting a stock unless its symbol already exists
+     */
+    private static final String INSERT_STOCK = "INSERT IGNORE INTO Stock (symbol, name) VALUES (?1, ?2)";
+
+    /**
+     * The entity manager, shared with the caller's transaction
+     */
+    @PersistenceContext(unitName = "OperationMonitor-ejbPU")
+    private EntityManager entityManager;
+
+    /**
+     * The transaction synchronization registry
+     */
+    @Resource
+    private TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+
+    /**
+     * The symbols known to be stored in the database
+     */
+    private final Set<String> registeredSymbols = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Returns the stock with the given symbol, storing it first if the symbol
+     * is not yet known. The stock of a known symbol is read from the shared
+     * entity cache.
+     *
+     * @param symbol the stock symbol
+     * @param name the stock name, used only if the stock is stored
+     * @return the stock entity
+     * @throws NullPointerException if the symbol is null
+     */
+    public Stock getStock(String symbol, String name) {
+
+        if (symbol == null) {
+            throw new NullPointerException("The stock symbol was null.");
+        }
+        if (!registeredSymbols.contains(symbol)) {
+            entityManager.createNativeQuery(INSERT_STOCK)
+                    .setParameter(1, symbol)
+                    .setParameter(2, name != null && !name.isEmpty() ? name : symbol)
+                    .executeUpdate();
+            transactionSynchronizationRegistry.registerInterposedSynchronization(new Synchronization() {
+
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        registeredSymbols.add(symbol);
+                    }
+                }
+            });
+        }
+        Stock stock = entityManager.find(Stock.class, symbol);
+        return stock != null ? stock : entityManager.find(Stock.class, symbol, LockModeType.PESSIMISTIC_READ);
+    }
+}
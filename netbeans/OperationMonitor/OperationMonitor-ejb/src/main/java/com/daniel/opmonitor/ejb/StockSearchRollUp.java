@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.ejb;
+
+import java.text.MessageFormat;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.EJB;
+import javax.ejb.LocalBean;
+import javax.ejb.Schedule;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton rolls up the stock price searches older than the raw search
+ * retention into hourly and daily aggregates for each symbol, and then purges
+ * them. Every night, each day before the retention is rolled up in its own
+ * transaction and its searches are deleted in chunks, each in its own
+ * transaction, so that no lock on the search table is held for long. A day
+ * already rolled up is only purged, so a roll-up interrupted by a failure is
+ * completed the next night.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class StockSearchRollUp {
+
+    /**
+     * The number of days the raw stock price searches are kept is a property
+     * set in GlassFish System Properties with this key. Zero keeps every search
+     * and disables the roll-up.
+     */
+    public static final String RAW_RETENTION_DAYS = "operation_monitor_raw_retention_days";
+
+    /**
+     * The number of searches deleted in one transaction is a property set in
+     * GlassFish System Properties with this key.
+     */
+    public static final String PURGE_CHUNK_SIZE = "operation_monitor_purge_chunk_size";
+
+    /**
+     * The raw retention used when the property is not set
+     */
+    private static final int DEFAULT_RAW_RETENTION_DAYS = 0;
+
+    /**
+     * The purge chunk size used when the property is not set
+     */
+    private static final int DEFAULT_PURGE_CHUNK_SIZE = 1000;
+
+    /**
+     * The stock search service
+     */
+    @EJB
+    private StockSearchService stockSearchService;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(StockSearchRollUp.class);
+
+    /**
+     * Returns the first day whose raw stock price searches are kept. The
+     * searches of earlier days are found only in the aggregates.
+     *
+     * @return the start of the first day kept, or null if every search is kept
+     */
+    public static Date getRawRetentionStart() {
+        LocalDate firstDayKept = findFirstDayKept();
+        return firstDayKept == null ? null
+                : Date.from(firstDayKept.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Rolls up and purges every day of stock price searches before the raw
+     * retention.
+     */
+    @Schedule(hour = "2", minute = "30", persistent = false)
+    public void rollUp() {
+
+        LocalDate firstDayKept = findFirstDayKept();
+        if (firstDayKept == null) {
+            return;
+        }
+        int chunkSize = Math.max(1, Integer.getInteger(PURGE_CHUNK_SIZE, DEFAULT_PURGE_CHUNK_SIZE));
+        try {
+            Date oldest = stockSearchService.findOldestStockPriceSearchDate();
+            if (oldest == null) {
+                return;
+            }
+            LocalDate day = Instant.ofEpochMilli(oldest.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+            for (; day.isBefore(firstDayKept); day = day.plusDays(1)) {
+                Date dayStart = Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+                if (!stockSearchService.rollUpStockPriceSearchEvents(dayStart)) {
+                    logger.error(MessageFormat.format("The stock price searches of {0} could not be rolled up, "
+                            + "the roll-up stops until the next night.", day));
+                    return;
+                }
+                long purged = 0;
+                int deleted;
+                do {
+                    deleted = stockSearchService.purgeStockPriceSearchEvents(dayStart, chunkSize);
+                    purged += deleted;
+                } while (deleted == chunkSize);
+                logger.info(MessageFormat.format("{0} stock price searches of {1} purged.", purged, day));
+            }
+        } catch (Exception e) {
+            logger.error(MessageFormat.format("The stock price searches could not be rolled up: {0}",
+                    e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Finds the first day whose raw stock price searches are kept.
+     *
+     * @return the first day kept, or null if every search is kept
+     */
+    private static LocalDate findFirstDayKept() {
+        int retentionDays = Math.max(0, Integer.getInteger(RAW_RETENTION_DAYS, DEFAULT_RAW_RETENTION_DAYS));
+        return retentionDays == 0 ? null : LocalDate.now().minusDays(retentionDays);
+    }
+}
@@ -17,6 +17,10 @@ package com.daniel.opmonitor.ejb;
 
 import com.daniel.opmonitor.entity.StockPriceSearch;
 import com.daniel.opmonitor.entity.StockHistorySearch;
+import com.daniel.opmonitor.entity.StockPriceSearchAggregate;
+import com.daniel.opmonitor.model.BucketSize;
+import com.daniel.opmonitor.model.LatencyBucket;
+import com.daniel.opmonitor.model.StockHistorySearchSummary;
 import com.daniel.search.history.HistoricalStockPriceSearchEvent;
 import com.daniel.search.price.StockPriceSearchEvent;
 import java.util.Date;
@@ -32,22 +36,131 @@ import javax.ejb.Local;
 public interface StockSearchService {
 
     /**
-     * This method retrieves the list of stock price search events occurring on
-     * the given date.
+     * This method retrieves one page of the stock price search events occurring
+     * on the given date.
      *
      * @param dateOccurred the date of the search event
-     * @return the list of all StockPriceSearch entities
+     * @param symbol the stock symbol of the search events, or null for every
+     * symbol
+     * @param firstResult the position of the first search event of the page
+     * @param maxResults the maximum number of search events of the page
+     * @param sortProperty the property the search events are sorted by, one of
+     * symbol, price, searchDateTime or timeElapsed
+     * @param ascending the indication of ascending or descending order
+     * @return the list of StockPriceSearch entities of the page
      */
-    public List<StockPriceSearch> findStockPriceSearchEvents(Date dateOccurred);
+    public List<StockPriceSearch> findStockPriceSearchEvents(Date dateOccurred, String symbol, int firstResult,
+            int maxResults, String sortProperty, boolean ascending);
 
     /**
-     * This method retrieves the list of stock history events occurring on the
-     * given date.
+     * This method counts the stock price search events occurring on the given
+     * date.
+     *
+     * @param dateOccurred the date of the search event
+     * @param symbol the stock symbol of the search events, or null for every
+     * symbol
+     * @return the number of StockPriceSearch entities
+     */
+    public long countStockPriceSearchEvents(Date dateOccurred, String symbol);
+
+    /**
+     * This method retrieves the stock price search event with the given
+     * identifier.
+     *
+     * @param stockPriceId the identifier
+     * @return the StockPriceSearch entity, or null if it does not exist
+     */
+    public StockPriceSearch findStockPriceSearchEvent(Long stockPriceId);
+
+    /**
+     * This method retrieves the summaries of one page of the stock history
+     * events occurring on the given date. The summaries are read from the
+     * search table alone.
+     *
+     * @param dateOccurred the date of the history search event
+     * @param symbol the stock symbol of the search events, or null for every
+     * symbol
+     * @param firstResult the position of the first search event of the page
+     * @param maxResults the maximum number of search events of the page
+     * @param sortProperty the property the search events are sorted by, one of
+     * symbol, searchDateTime, timeElapsed or barCount
+     * @param ascending the indication of ascending or descending order
+     * @return the list of StockHistorySearchSummary objects of the page
+     */
+    public List<StockHistorySearchSummary> findStockHistorySearchEvents(Date dateOccurred, String symbol,
+            int firstResult, int maxResults, String sortProperty, boolean ascending);
+
+    /**
+     * This method counts the stock history events occurring on the given date.
      *
      * @param dateOccurred the date of the history search event
-     * @return the list of all StockHistorySearch entities
+     * @param symbol the stock symbol of the search events, or null for every
+     * symbol
+     * @return the number of StockHistorySearch entities
+     */
+    public long countStockHistorySearchEvents(Date dateOccurred, String symbol);
+
+    /**
+     * This method retrieves the stock history search event with the given
+     * identifier together with its history results.
+     *
+     * @param stockHistorySearchId the identifier
+     * @return the StockHistorySearch entity, or null if it does not exist
+     */
+    public StockHistorySearch findStockHistorySearchEvent(Long stockHistorySearchId);
+
+    /**
+     * This method retrieves the hourly aggregates of the stock price search
+     * events rolled up for the given date.
+     *
+     * @param dateOccurred the date of the search events
+     * @return the list of hourly StockPriceSearchAggregate entities
      */
-    public List<StockHistorySearch> findStockHistorySearchEvents(Date dateOccurred);
+    public List<StockPriceSearchAggregate> findStockPriceSearchAggregates(Date dateOccurred);
+
+    /**
+     * This method retrieves the latency of the stock price search events in the
+     * given period, in buckets of the given size. The period before the raw
+     * search retention is read from the rolled up aggregates, in hourly buckets
+     * when smaller buckets are requested. Buckets without searches are not
+     * returned.
+     *
+     * @param bucketSize the size of the buckets
+     * @param dateFrom the start of the period
+     * @param dateTo the end of the period, which is excluded
+     * @param symbol the stock symbol of the search events, or null for every
+     * symbol
+     * @return the list of buckets in order of time
+     */
+    public List<LatencyBucket> findLatencyBuckets(BucketSize bucketSize, Date dateFrom, Date dateTo, String symbol);
+
+    /**
+     * This method retrieves the date and time of the oldest stored stock price
+     * search event.
+     *
+     * @return the date and time, or null if no search event is stored
+     */
+    public Date findOldestStockPriceSearchDate();
+
+    /**
+     * This method rolls up the stock price search events of the given date into
+     * hourly and daily aggregates for each symbol. A date already rolled up is
+     * not rolled up again.
+     *
+     * @param dateOccurred the date of the search events
+     * @return the indication of operation success or failure
+     */
+    public boolean rollUpStockPriceSearchEvents(Date dateOccurred);
+
+    /**
+     * This method deletes up to the given number of stock price search events
+     * of the given date.
+     *
+     * @param dateOccurred the date of the search events
+     * @param maxResults the maximum number of search events deleted
+     * @return the number of search events deleted
+     */
+    public int purgeStockPriceSearchEvents(Date dateOccurred, int maxResults);
 
     /**
      * This method saves data for the given StockPriceSearchEvent object to the
@@ -67,4 +180,17 @@ public interface StockSearchService {
      * @return the indication of operation success or failure
      */
     public boolean storeHistoricalStockPriceSearchEvent(HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent);
+
+    /**
+     * This method saves data for all of the given search events to the
+     * database in one operation. If any event cannot be saved, none of the
+     * events are saved.
+     *
+     * @param stockPriceSearchEvents the StockPriceSearchEvent objects
+     * @param historicalStockPriceSearchEvents the
+     * HistoricalStockPriceSearchEvent objects
+     * @return the indication of operation success or failure
+     */
+    public boolean storeSearchEvents(List<StockPriceSearchEvent> stockPriceSearchEvents,
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents);
 }
@@ -19,6 +19,7 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import java.io.Serializable;
 import java.util.List;
 import javax.persistence.Basic;
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
@@ -33,11 +34,13 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
 /**
- * This entity class represents a stock price.
+ * This entity class represents a stock price. Stocks are reference data that
+ * do not change once stored, so they are kept in the shared entity cache.
  *
  * @author Bryan Daniel
  */
 @Entity
+@Cacheable
 @Table(name = "Stock")
 @XmlRootElement
 @NamedQueries({
@@ -43,6 +43,8 @@ import javax.xml.bind.annotation.XmlTransient;
 @NamedQueries({
     @NamedQuery(name = "StockHistoryResult.findAll", query = "SELECT s FROM StockHistoryResult s")
     , @NamedQuery(name = "StockHistoryResult.findBySymbol", query = "SELECT s FROM StockHistoryResult s WHERE s.stockHistoryResultPK.symbol = :symbol")
+    , @NamedQuery(name = "StockHistoryResult.findBySymbolAndHistoryDateRange", query = "SELECT s FROM StockHistoryResult s "
+            + "WHERE s.stockHistoryResultPK.symbol = :symbol AND s.stockHistoryResultPK.historyDate BETWEEN :dateFrom AND :dateTo")
     , @NamedQuery(name = "StockHistoryResult.findByHistoryDate", query = "SELECT s FROM StockHistoryResult s WHERE s.stockHistoryResultPK.historyDate = :historyDate")
     , @NamedQuery(name = "StockHistoryResult.findByOpen", query = "SELECT s FROM StockHistoryResult s WHERE s.open = :open")
     , @NamedQuery(name = "StockHistoryResult.findByClose", query = "SELECT s FROM StockHistoryResult s WHERE s.close = :close")
@@ -32,6 +32,7 @@ import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlTransient;
 
@@ -48,7 +49,9 @@ import javax.xml.bind.annotation.XmlTransient;
     , @NamedQuery(name = "StockHistorySearch.findByStockHistorySearchId", query = "SELECT s FROM StockHistorySearch s "
             + "WHERE s.stockHistorySearchId = :stockHistorySearchId")
     , @NamedQuery(name = "StockHistorySearch.findBySearchDateTime", query = "SELECT s FROM StockHistorySearch s "
-            + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter ORDER BY s.searchDateTime")})
+            + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter ORDER BY s.searchDateTime")
+    , @NamedQuery(name = "StockHistorySearch.findByIdWithResults", query = "SELECT DISTINCT s FROM StockHistorySearch s "
+            + "LEFT JOIN FETCH s.stockHistoryResultList WHERE s.stockHistorySearchId = :stockHistorySearchId")})
 public class StockHistorySearch implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -62,7 +65,21 @@ public class StockHistorySearch implements Serializable {
     @Column(name = "search_date_time")
     @Temporal(TemporalType.TIMESTAMP)
     private Date searchDateTime;
-    @ManyToMany(mappedBy = "stockHistorySearchList", fetch = FetchType.EAGER)
+    @Size(max = 5)
+    @Column(name = "symbol")
+    private String symbol;
+    @Column(name = "time_elapsed")
+    private Long timeElapsed;
+    @Basic(optional = false)
+    @Column(name = "bar_count")
+    private int barCount;
+    @Column(name = "first_date")
+    @Temporal(TemporalType.DATE)
+    private Date firstDate;
+    @Column(name = "last_date")
+    @Temporal(TemporalType.DATE)
+    private Date lastDate;
+    @ManyToMany(mappedBy = "stockHistorySearchList", fetch = FetchType.LAZY)
     private List<StockHistoryResult> stockHistoryResultList;
 
     /**
@@ -127,6 +144,96 @@ public class StockHistorySearch implements Serializable {
         this.searchDateTime = searchDateTime;
     }
 
+    /**
+     * Gets the value of symbol.
+     *
+     * @return the value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Sets the value of symbol
+     *
+     * @param symbol the symbol to set
+     */
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Gets the value of timeElapsed.
+     *
+     * @return the value of timeElapsed
+     */
+    public Long getTimeElapsed() {
+        return timeElapsed;
+    }
+
+    /**
+     * Sets the value of timeElapsed
+     *
+     * @param timeElapsed the timeElapsed to set
+     */
+    public void setTimeElapsed(Long timeElapsed) {
+        this.timeElapsed = timeElapsed;
+    }
+
+    /**
+     * Gets the value of barCount.
+     *
+     * @return the value of barCount
+     */
+    public int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * Sets the value of barCount
+     *
+     * @param barCount the barCount to set
+     */
+    public void setBarCount(int barCount) {
+        this.barCount = barCount;
+    }
+
+    /**
+     * Gets the value of firstDate.
+     *
+     * @return the value of firstDate
+     */
+    public Date getFirstDate() {
+        return firstDate;
+    }
+
+    /**
+     * Sets the value of firstDate
+     *
+     * @param firstDate the firstDate to set
+     */
+    public void setFirstDate(Date firstDate) {
+        this.firstDate = firstDate;
+    }
+
+    /**
+     * Gets the value of lastDate.
+     *
+     * @return the value of lastDate
+     */
+    public Date getLastDate() {
+        return lastDate;
+    }
+
+    /**
+     * Sets the value of lastDate
+     *
+     * @param lastDate the lastDate to set
+     */
+    public void setLastDate(Date lastDate) {
+        this.lastDate = lastDate;
+    }
+
     @XmlTransient
     public List<StockHistoryResult> getStockHistoryResultList() {
         return stockHistoryResultList;
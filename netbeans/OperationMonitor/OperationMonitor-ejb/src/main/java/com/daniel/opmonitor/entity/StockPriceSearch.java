@@ -94,7 +94,13 @@ import javax.xml.bind.annotation.XmlRootElement;
     , @NamedQuery(name = "StockPriceSearch.findBySearchDateTime", query = "SELECT s FROM StockPriceSearch s "
             + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter ORDER BY s.searchDateTime")
     , @NamedQuery(name = "StockPriceSearch.findByTimeElapsed", query = "SELECT s FROM StockPriceSearch s "
-            + "WHERE s.timeElapsed = :timeElapsed")})
+            + "WHERE s.timeElapsed = :timeElapsed")
+    , @NamedQuery(name = "StockPriceSearch.findOldestSearchDateTime", query = "SELECT MIN(s.searchDateTime) "
+            + "FROM StockPriceSearch s")
+    , @NamedQuery(name = "StockPriceSearch.findRollUpValues", query = "SELECT s.symbol.symbol, s.searchDateTime, "
+            + "s.timeElapsed, s.price, s.firstOfCall FROM StockPriceSearch s "
+            + "WHERE s.searchDateTime >= :searchDateTime AND s.searchDateTime < :dayAfter "
+            + "ORDER BY s.symbol.symbol, s.searchDateTime")})
 public class StockPriceSearch implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -165,6 +171,10 @@ public class StockPriceSearch implements Serializable {
     @NotNull
     @Column(name = "time_elapsed")
     private Long timeElapsed;
+    @Basic(optional = false)
+    @NotNull
+    @Column(name = "first_of_call")
+    private Boolean firstOfCall;
     @JoinColumn(name = "symbol", referencedColumnName = "symbol")
     @ManyToOne(optional = false)
     private Stock symbol;
@@ -650,6 +660,26 @@ public class StockPriceSearch implements Serializable {
         this.timeElapsed = timeElapsed;
     }
 
+    /**
+     * Gets the value of firstOfCall, which is true for the first search stored
+     * from a call to the stock web service. A call for many symbols stores a
+     * search for each symbol, all with the time elapsed of the whole call.
+     *
+     * @return the value of firstOfCall
+     */
+    public Boolean getFirstOfCall() {
+        return firstOfCall;
+    }
+
+    /**
+     * Sets the value of firstOfCall.
+     *
+     * @param firstOfCall the firstOfCall to set
+     */
+    public void setFirstOfCall(Boolean firstOfCall) {
+        this.firstOfCall = firstOfCall;
+    }
+
     /**
      * Gets the value of symbol.
      *
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.xml.bind.annotation.XmlRootElement;
+
+/**
+ * This entity class represents the stock price searches of one symbol within
+ * an hour or a day, rolled up from the searches once they are older than the
+ * raw search retention. The aggregates with the symbol ALL_SYMBOLS hold the
+ * searches of every symbol and have no prices.
+ *
+ * @author Bryan Daniel
+ */
+@Entity
+@Table(name = "StockPriceSearchAggregate")
+@XmlRootElement
+@NamedQueries({
+    @NamedQuery(name = "StockPriceSearchAggregate.findByPeriod", query = "SELECT s FROM StockPriceSearchAggregate s "
+            + "WHERE s.stockPriceSearchAggregatePK.granularity = :granularity "
+            + "AND s.stockPriceSearchAggregatePK.periodStart >= :periodStart "
+            + "AND s.stockPriceSearchAggregatePK.periodStart < :periodEnd "
+            + "AND s.stockPriceSearchAggregatePK.symbol <> '*' "
+            + "ORDER BY s.stockPriceSearchAggregatePK.periodStart, s.stockPriceSearchAggregatePK.symbol")
+    , @NamedQuery(name = "StockPriceSearchAggregate.findLatencyBuckets", query = "SELECT NEW "
+            + "com.daniel.opmonitor.model.LatencyBucket(s.stockPriceSearchAggregatePK.periodStart, s.searchCount, "
+            + "s.avgTimeElapsed, s.p50TimeElapsed, s.p95TimeElapsed, s.p99TimeElapsed) "
+            + "FROM StockPriceSearchAggregate s "
+            + "WHERE s.stockPriceSearchAggregatePK.granularity = :granularity "
+            + "AND s.stockPriceSearchAggregatePK.symbol = :symbol "
+            + "AND s.stockPriceSearchAggregatePK.periodStart >= :periodStart "
+            + "AND s.stockPriceSearchAggregatePK.periodStart < :periodEnd "
+            + "ORDER BY s.stockPriceSearchAggregatePK.periodStart")
+    , @NamedQuery(name = "StockPriceSearchAggregate.countByPeriod", query = "SELECT COUNT(s) FROM StockPriceSearchAggregate s "
+            + "WHERE s.stockPriceSearchAggregatePK.granularity = :granularity "
+            + "AND s.stockPriceSearchAggregatePK.periodStart >= :periodStart "
+            + "AND s.stockPriceSearchAggregatePK.periodStart < :periodEnd")})
+public class StockPriceSearchAggregate implements Serializable {
+
+    /**
+     * The granularity of an aggregate of one hour
+     */
+    public static final String HOUR = "HOUR";
+
+    /**
+     * The granularity of an aggregate of one day
+     */
+    public static final String DAY = "DAY";
+
+    /**
+     * The symbol of the aggregates of every symbol
+     */
+    public static final String ALL_SYMBOLS = "*";
+
+    private static final long serialVersionUID = 1L;
+    @EmbeddedId
+    protected StockPriceSearchAggregatePK stockPriceSearchAggregatePK;
+    @Basic(optional = false)
+    @Column(name = "search_count")
+    private long searchCount;
+    @Column(name = "avg_time_elapsed")
+    private Double avgTimeElapsed;
+    @Column(name = "p50_time_elapsed")
+    private Long p50TimeElapsed;
+    @Column(name = "p95_time_elapsed")
+    private Long p95TimeElapsed;
+    @Column(name = "p99_time_elapsed")
+    private Long p99TimeElapsed;
+    @Column(name = "first_price")
+    private BigDecimal firstPrice;
+    @Column(name = "last_price")
+    private BigDecimal lastPrice;
+    @Column(name = "min_price")
+    private BigDecimal minPrice;
+    @Column(name = "max_price")
+    private BigDecimal maxPrice;
+
+    /**
+     * Default constructor
+     */
+    public StockPriceSearchAggregate() {
+    }
+
+    /**
+     * Sets the primary key value.
+     *
+     * @param stockPriceSearchAggregatePK the primary key
+     */
+    public StockPriceSearchAggregate(StockPriceSearchAggregatePK stockPriceSearchAggregatePK) {
+        this.stockPriceSearchAggregatePK = stockPriceSearchAggregatePK;
+    }
+
+    /**
+     * Gets the value of the primary key.
+     *
+     * @return the primary key
+     */
+    public StockPriceSearchAggregatePK getStockPriceSearchAggregatePK() {
+        return stockPriceSearchAggregatePK;
+    }
+
+    /**
+     * Sets the value of the primary key.
+     *
+     * @param stockPriceSearchAggregatePK the primary key to set
+     */
+    public void setStockPriceSearchAggregatePK(StockPriceSearchAggregatePK stockPriceSearchAggregatePK) {
+        this.stockPriceSearchAggregatePK = stockPriceSearchAggregatePK;
+    }
+
+    /**
+     * Gets the value of searchCount.
+     *
+     * @return the value of searchCount
+     */
+    public long getSearchCount() {
+        return searchCount;
+    }
+
+    /**
+     * Sets the value of searchCount.
+     *
+     * @param searchCount the searchCount to set
+     */
+    public void setSearchCount(long searchCount) {
+        this.searchCount = searchCount;
+    }
+
+    /**
+     * Gets the value of avgTimeElapsed.
+     *
+     * @return the value of avgTimeElapsed
+     */
+    public Double getAvgTimeElapsed() {
+        return avgTimeElapsed;
+    }
+
+    /**
+     * Sets the value of avgTimeElapsed.
+     *
+     * @param avgTimeElapsed the avgTimeElapsed to set
+     */
+    public void setAvgTimeElapsed(Double avgTimeElapsed) {
+        this.avgTimeElapsed = avgTimeElapsed;
+    }
+
+    /**
+     * Gets the value of p50TimeElapsed.
+     *
+     * @return the value of p50TimeElapsed
+     */
+    public Long getP50TimeElapsed() {
+        return p50TimeElapsed;
+    }
+
+    /**
+     * Sets the value of p50TimeElapsed.
+     *
+     * @param p50TimeElapsed the p50TimeElapsed to set
+     */
+    public void setP50TimeElapsed(Long p50TimeElapsed) {
+        this.p50TimeElapsed = p50TimeElapsed;
+    }
+
+    /**
+     * Gets the value of p95TimeElapsed.
+     *
+     * @return the value of p95TimeElapsed
+     */
+    public Long getP95TimeElapsed() {
+        return p95TimeElapsed;
+    }
+
+    /**
+     * Sets the value of p95TimeElapsed.
+     *
+     * @param p95TimeElapsed the p95TimeElapsed to set
+     */
+    public void setP95TimeElapsed(Long p95TimeElapsed) {
+        this.p95TimeElapsed = p95TimeElapsed;
+    }
+
+    /**
+     * Gets the value of p99TimeElapsed.
+     *
+     * @return the value of p99TimeElapsed
+     */
+    public Long getP99TimeElapsed() {
+        return p99TimeElapsed;
+    }
+
+    /**
+     * Sets the value of p99TimeElapsed.
+     *
+     * @param p99TimeElapsed the p99TimeElapsed to set
+     */
+    public void setP99TimeElapsed(Long p99TimeElapsed) {
+        this.p99TimeElapsed = p99TimeElapsed;
+    }
+
+    /**
+     * Gets the value of firstPrice.
+     *
+     * @return the value of firstPrice
+     */
+    public BigDecimal getFirstPrice() {
+        return firstPrice;
+    }
+
+    /**
+     * Sets the value of firstPrice.
+     *
+     * @param firstPrice the firstPrice to set
+     */
+    public void setFirstPrice(BigDecimal firstPrice) {
+        this.firstPrice = firstPrice;
+    }
+
+    /**
+     * Gets the value of lastPrice.
+     *
+     * @return the value of lastPrice
+     */
+    public BigDecimal getLastPrice() {
+        return lastPrice;
+    }
+
+    /**
+     * Sets the value of lastPrice.
+     *
+     * @param lastPrice the lastPrice to set
+     */
+    public void setLastPrice(BigDecimal lastPrice) {
+        this.lastPrice = lastPrice;
+    }
+
+    /**
+     * Gets the value of minPrice.
+     *
+     * @return the value of minPrice
+     */
+    public BigDecimal getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * Sets the value of minPrice.
+     *
+     * @param minPrice the minPrice to set
+     */
+    public void setMinPrice(BigDecimal minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    /**
+     * Gets the value of maxPrice.
+     *
+     * @return the value of maxPrice
+     */
+    public BigDecimal getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * Sets the value of maxPrice.
+     *
+     * @param maxPrice the maxPrice to set
+     */
+    public void setMaxPrice(BigDecimal maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        hash += (stockPriceSearchAggregatePK != null ? stockPriceSearchAggregatePK.hashCode() : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof StockPriceSearchAggregate)) {
+            return false;
+        }
+        StockPriceSearchAggregate other = (StockPriceSearchAggregate) object;
+        if ((this.stockPriceSearchAggregatePK == null && other.stockPriceSearchAggregatePK != null)
+                || (this.stockPriceSearchAggregatePK != null
+                && !this.stockPriceSearchAggregatePK.equals(other.stockPriceSearchAggregatePK))) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "com.daniel.opmonitor.entity.StockPriceSearchAggregate[ stockPriceSearchAggregatePK="
+                + stockPriceSearchAggregatePK + " ]";
+    }
+
+}
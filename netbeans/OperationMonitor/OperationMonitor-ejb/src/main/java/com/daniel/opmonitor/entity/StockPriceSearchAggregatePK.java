@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * This entity class represents the primary key for a StockPriceSearchAggregate
+ * entity.
+ *
+ * @author Bryan Daniel
+ */
+@Embeddable
+public class StockPriceSearchAggregatePK implements Serializable {
+
+    @Basic(optional = false)
+    @NotNull
+    @Size(min = 1, max = 4)
+    @Column(name = "granularity")
+    private String granularity;
+    @Basic(optional = false)
+    @NotNull
+    @Size(min = 1, max = 5)
+    @Column(name = "symbol")
+    private String symbol;
+    @Basic(optional = false)
+    @NotNull
+    @Column(name = "period_start")
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date periodStart;
+
+    /**
+     * Default constructor
+     */
+    public StockPriceSearchAggregatePK() {
+    }
+
+    /**
+     * Sets the value of granularity, symbol and period start.
+     *
+     * @param granularity the granularity of the period
+     * @param symbol the stock symbol
+     * @param periodStart the start of the period
+     */
+    public StockPriceSearchAggregatePK(String granularity, String symbol, Date periodStart) {
+        this.granularity = granularity;
+        this.symbol = symbol;
+        this.periodStart = periodStart;
+    }
+
+    /**
+     * Gets the value of granularity.
+     *
+     * @return the value of granularity
+     */
+    public String getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Sets the value of granularity.
+     *
+     * @param granularity the granularity to set
+     */
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    /**
+     * Gets the value of symbol.
+     *
+     * @return the value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Sets the value of symbol.
+     *
+     * @param symbol the symbol to set
+     */
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * Gets the value of periodStart.
+     *
+     * @return the value of periodStart
+     */
+    public Date getPeriodStart() {
+        return periodStart;
+    }
+
+    /**
+     * Sets the value of periodStart.
+     *
+     * @param periodStart the periodStart to set
+     */
+    public void setPeriodStart(Date periodStart) {
+        this.periodStart = periodStart;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        hash += (granularity != null ? granularity.hashCode() : 0);
+        hash += (symbol != null ? symbol.hashCode() : 0);
+        hash += (periodStart != null ? periodStart.hashCode() : 0);
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof StockPriceSearchAggregatePK)) {
+            return false;
+        }
+        StockPriceSearchAggregatePK other = (StockPriceSearchAggregatePK) object;
+        if ((this.granularity == null && other.granularity != null)
+                || (this.granularity != null && !this.granularity.equals(other.granularity))) {
+            return false;
+        }
+        if ((this.symbol == null && other.symbol != null) || (this.symbol != null && !this.symbol.equals(other.symbol))) {
+            return false;
+        }
+        if ((this.periodStart == null && other.periodStart != null)
+                || (this.periodStart != null && !this.periodStart.equals(other.periodStart))) {
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "com.daniel.opmonitor.entity.StockPriceSearchAggregatePK[ granularity=" + granularity + ", symbol="
+                + symbol + ", periodStart=" + periodStart + " ]";
+    }
+
+}
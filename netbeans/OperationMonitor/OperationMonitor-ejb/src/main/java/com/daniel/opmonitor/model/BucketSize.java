@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.model;
+
+/**
+ * This enumeration holds the sizes of the time buckets latency is aggregated
+ * into. Each size holds the MySQL date format truncating a date and time to
+ * the start of its bucket.
+ *
+ * @author Bryan Daniel
+ */
+public enum BucketSize {
+    MINUTE("%Y-%m-%d %H:%i:00", 60000L),
+    HOUR("%Y-%m-%d %H:00:00", 3600000L),
+    DAY("%Y-%m-%d", 86400000L);
+
+    /**
+     * The MySQL date format of the start of a bucket
+     */
+    private final String dateFormat;
+
+    /**
+     * The length of a bucket in milliseconds
+     */
+    private final long length;
+
+    /**
+     * This private constructor sets the date format and length.
+     *
+     * @param dateFormat the MySQL date format
+     * @param length the length in milliseconds
+     */
+    private BucketSize(String dateFormat, long length) {
+        this.dateFormat = dateFormat;
+        this.length = length;
+    }
+
+    /**
+     * Get the value of dateFormat
+     *
+     * @return the value of dateFormat
+     */
+    public String getDateFormat() {
+        return dateFormat;
+    }
+
+    /**
+     * Get the value of length
+     *
+     * @return the value of length
+     */
+    public long getLength() {
+        return length;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * This class holds the latency of the stock price searches within one time
+ * bucket. A percentile is null if it is not known, which is the case for days
+ * rolled up before the percentile was kept.
+ *
+ * @author Bryan Daniel
+ */
+public class LatencyBucket implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The start of the bucket
+     */
+    private final Date start;
+
+    /**
+     * The number of searches
+     */
+    private final long count;
+
+    /**
+     * The mean time elapsed in milliseconds
+     */
+    private final Double mean;
+
+    /**
+     * The median time elapsed in milliseconds
+     */
+    private final Long p50;
+
+    /**
+     * The 95th percentile of the time elapsed in milliseconds
+     */
+    private final Long p95;
+
+    /**
+     * The 99th percentile of the time elapsed in milliseconds
+     */
+    private final Long p99;
+
+    /**
+     * Sets the values of the bucket.
+     *
+     * @param start the start of the bucket
+     * @param count the number of searches
+     * @param mean the mean time elapsed
+     * @param p50 the median time elapsed
+     * @param p95 the 95th percentile of the time elapsed
+     * @param p99 the 99th percentile of the time elapsed
+     */
+    public LatencyBucket(Date start, long count, Double mean, Long p50, Long p95, Long p99) {
+        this.start = start;
+        this.count = count;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p95 = p95;
+        this.p99 = p99;
+    }
+
+    /**
+     * Gets the value of start.
+     *
+     * @return the value of start
+     */
+    public Date getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the value of count.
+     *
+     * @return the value of count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the value of mean.
+     *
+     * @return the value of mean
+     */
+    public Double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the value of p50.
+     *
+     * @return the value of p50
+     */
+    public Long getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the value of p95.
+     *
+     * @return the value of p95
+     */
+    public Long getP95() {
+        return p95;
+    }
+
+    /**
+     * Gets the value of p99.
+     *
+     * @return the value of p99
+     */
+    public Long getP99() {
+        return p99;
+    }
+}
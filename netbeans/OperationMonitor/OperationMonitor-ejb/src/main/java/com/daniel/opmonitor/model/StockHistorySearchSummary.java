@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.model;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * This class holds the values of a stock history search shown in a list of
+ * searches. It is read by a projection of the summary columns of the search
+ * table, so listing searches does not load their history results.
+ *
+ * @author Bryan Daniel
+ */
+public class StockHistorySearchSummary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The stock history search identifier
+     */
+    private final Long stockHistorySearchId;
+
+    /**
+     * The date and time of the search
+     */
+    private final Date searchDateTime;
+
+    /**
+     * The stock symbol
+     */
+    private final String symbol;
+
+    /**
+     * The time taken to complete the search, or null if it is not known
+     */
+    private final Long timeElapsed;
+
+    /**
+     * The number of days of history found
+     */
+    private final int barCount;
+
+    /**
+     * The first date of history found, or null if none was found
+     */
+    private final Date firstDate;
+
+    /**
+     * The last date of history found, or null if none was found
+     */
+    private final Date lastDate;
+
+    /**
+     * Sets the values of the summary.
+     *
+     * @param stockHistorySearchId the stock history search identifier
+     * @param searchDateTime the date and time of the search
+     * @param symbol the stock symbol
+     * @param timeElapsed the time taken to complete the search
+     * @param barCount the number of days of history found
+     * @param firstDate the first date of history found
+     * @param lastDate the last date of history found
+     */
+    public StockHistorySearchSummary(Long stockHistorySearchId, Date searchDateTime, String symbol,
+            Long timeElapsed, int barCount, Date firstDate, Date lastDate) {
+        this.stockHistorySearchId = stockHistorySearchId;
+        this.searchDateTime = searchDateTime;
+        this.symbol = symbol;
+        this.timeElapsed = timeElapsed;
+        this.barCount = barCount;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+    }
+
+    /**
+     * Gets the value of stockHistorySearchId.
+     *
+     * @return the value of stockHistorySearchId
+     */
+    public Long getStockHistorySearchId() {
+        return stockHistorySearchId;
+    }
+
+    /**
+     * Gets the value of searchDateTime.
+     *
+     * @return the value of searchDateTime
+     */
+    public Date getSearchDateTime() {
+        return searchDateTime;
+    }
+
+    /**
+     * Gets the value of symbol.
+     *
+     * @return the value of symbol
+     */
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Gets the value of timeElapsed.
+     *
+     * @return the value of timeElapsed
+     */
+    public Long getTimeElapsed() {
+        return timeElapsed;
+    }
+
+    /**
+     * Gets the value of barCount.
+     *
+     * @return the value of barCount
+     */
+    public int getBarCount() {
+        return barCount;
+    }
+
+    /**
+     * Gets the value of firstDate.
+     *
+     * @return the value of firstDate
+     */
+    public Date getFirstDate() {
+        return firstDate;
+    }
+
+    /**
+     * Gets the value of lastDate.
+     *
+     * @return the value of lastDate
+     */
+    public Date getLastDate() {
+        return lastDate;
+    }
+}
@@ -15,25 +15,28 @@
  */
 package com.daniel.opmonitor.web;
 
+import com.daniel.opmonitor.ejb.StockSearchService;
 import com.daniel.opmonitor.entity.StockHistoryResult;
 import com.daniel.opmonitor.entity.StockHistorySearch;
 import com.daniel.opmonitor.entity.StockPriceSearch;
 import javax.inject.Named;
-import javax.enterprise.context.SessionScoped;
+import javax.enterprise.context.RequestScoped;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import javax.ejb.EJB;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 /**
  * This managed bean holds the information and functionality to support the
- * event details page.
+ * event details page. The event displayed is loaded for each request from the
+ * identifier in the page parameters.
  *
  * @author Bryan Daniel
  */
 @Named(value = "detailsBean")
-@SessionScoped
+@RequestScoped
 public class DetailsBean implements Serializable {
 
     /**
@@ -41,6 +44,22 @@ public class DetailsBean implements Serializable {
      */
     private static final long serialVersionUID = 2829701574790099787L;
 
+    /**
+     * The stock search data service
+     */
+    @EJB
+    private StockSearchService stockSearchService;
+
+    /**
+     * The identifier of the stock price search event to display
+     */
+    private Long priceSearchId;
+
+    /**
+     * The identifier of the stock history search event to display
+     */
+    private Long historySearchId;
+
     /**
      * The selected stock price data search event
      */
@@ -57,31 +76,54 @@ public class DetailsBean implements Serializable {
     private List<StockHistoryResult> historyResults;
 
     /**
-     * This method clears any stored history search event and returns the
-     * details page target.
+     * This method loads the event with the identifier given in the page
+     * parameters.
+     */
+    public void loadEvent() {
+        if (priceSearchId != null) {
+            setSelectedStockPriceSearchEvent(stockSearchService.findStockPriceSearchEvent(priceSearchId));
+        } else if (historySearchId != null) {
+            setSelectedStockHistorySearchEvent(stockSearchService.findStockHistorySearchEvent(historySearchId));
+            if (selectedStockHistorySearchEvent != null) {
+                historyResults = new ArrayList<>(selectedStockHistorySearchEvent.getStockHistoryResultList());
+            }
+        }
+    }
+
+    /**
+     * Get the value of priceSearchId
      *
-     * @return the target for the details page
+     * @return the value of priceSearchId
      */
-    public String viewSearchEvent() {
-        setSelectedStockHistorySearchEvent(null);
-        setHistoryResults(null);
-        return "/monitor/details";
+    public Long getPriceSearchId() {
+        return priceSearchId;
     }
 
     /**
-     * This method clears any stored search event and returns the details page
-     * target.
+     * Set the value of priceSearchId
      *
-     * @return the target for the details page
+     * @param priceSearchId new value of priceSearchId
      */
-    public String viewHistorySearchEvent() {
-        setSelectedStockPriceSearchEvent(null);
-        historyResults = new ArrayList<>();
+    public void setPriceSearchId(Long priceSearchId) {
+        this.priceSearchId = priceSearchId;
+    }
 
-        selectedStockHistorySearchEvent.getStockHistoryResultList().forEach((result) -> {
-            historyResults.add(result);
-        });
-        return "/monitor/details";
+    /**
+     * Get the value of historySearchId
+     *
+     * @return the value of historySearchId
+     */
+    public Long getHistorySearchId() {
+        return historySearchId;
+    }
+
+    /**
+     * Set the value of historySearchId
+     *
+     * @param historySearchId new value of historySearchId
+     */
+    public void setHistorySearchId(Long historySearchId) {
+        this.historySearchId = historySearchId;
     }
 
     /**
@@ -15,10 +15,11 @@
  */
 package com.daniel.opmonitor.web;
 
+import com.daniel.opmonitor.ejb.StockSearchRollUp;
 import com.daniel.opmonitor.ejb.StockSearchService;
-import com.daniel.opmonitor.entity.StockHistorySearch;
-import com.daniel.opmonitor.entity.StockPriceSearch;
+import com.daniel.opmonitor.entity.StockPriceSearchAggregate;
 import java.io.Serializable;
+import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
 import javax.ejb.EJB;
@@ -89,14 +90,21 @@ public class MonitorBean implements Serializable {
     private StockSearchService stockSearchService;
 
     /**
-     * The list of stock price search events
+     * The number of stock price search events of the selected date, which are
+     * paged into the page by the monitor resource
      */
-    private List<StockPriceSearch> stockPriceSearchEvents;
+    private long stockPriceSearchCount;
 
     /**
-     * The list of stock history search events
+     * The list of hourly stock price search aggregates
      */
-    private List<StockHistorySearch> stockHistorySearchEvents;
+    private List<StockPriceSearchAggregate> stockPriceSearchAggregates;
+
+    /**
+     * The number of stock history search events of the selected date, which
+     * are paged into the page by the monitor resource
+     */
+    private long stockHistorySearchCount;
 
     /**
      * The selected event type
@@ -113,20 +121,31 @@ public class MonitorBean implements Serializable {
      */
     public void search() {
 
-        setStockPriceSearchEvents(null);
-        setStockHistorySearchEvents(null);
+        setStockPriceSearchCount(0);
+        setStockPriceSearchAggregates(null);
+        setStockHistorySearchCount(0);
         switch (selectedEventType) {
             case SEARCH:
-                findStockPriceSearchEvents();
-                if (getStockPriceSearchEvents() == null || getStockPriceSearchEvents().isEmpty()) {
+                Date rawRetentionStart = StockSearchRollUp.getRawRetentionStart();
+                if (rawRetentionStart != null && selectedDate.before(rawRetentionStart)) {
+                    findStockPriceSearchAggregates();
+                    if (getStockPriceSearchAggregates() == null || getStockPriceSearchAggregates().isEmpty()) {
+                        FacesMessage message = new FacesMessage("No stock price search aggregates were found for the selected date.");
+                        message.setSeverity(FacesMessage.SEVERITY_ERROR);
+                        FacesContext.getCurrentInstance().addMessage(null, message);
+                    }
+                    break;
+                }
+                countStockPriceSearchEvents();
+                if (getStockPriceSearchCount() == 0) {
                     FacesMessage message = new FacesMessage("No stock price searches were found for the selected date.");
                     message.setSeverity(FacesMessage.SEVERITY_ERROR);
                     FacesContext.getCurrentInstance().addMessage(null, message);
                 }
                 break;
             case HISTORY:
-                findStockHistorySearchEvents();
-                if (getStockHistorySearchEvents() == null || getStockHistorySearchEvents().isEmpty()) {
+                countStockHistorySearchEvents();
+                if (getStockHistorySearchCount() == 0) {
                     FacesMessage message = new FacesMessage("No stock price history searches were found for the selected date.");
                     message.setSeverity(FacesMessage.SEVERITY_ERROR);
                     FacesContext.getCurrentInstance().addMessage(null, message);
@@ -138,17 +157,25 @@ public class MonitorBean implements Serializable {
     }
 
     /**
-     * This method finds all stock price search events for the selected date.
+     * This method counts the stock price search events for the selected date.
+     */
+    public void countStockPriceSearchEvents() {
+        setStockPriceSearchCount(stockSearchService.countStockPriceSearchEvents(selectedDate, null));
+    }
+
+    /**
+     * This method finds the hourly stock price search aggregates for the
+     * selected date, which is before the raw search retention.
      */
-    public void findStockPriceSearchEvents() {
-        setStockPriceSearchEvents(stockSearchService.findStockPriceSearchEvents(selectedDate));
+    public void findStockPriceSearchAggregates() {
+        setStockPriceSearchAggregates(stockSearchService.findStockPriceSearchAggregates(selectedDate));
     }
 
     /**
-     * This method finds all stock history events for the selected date.
+     * This method counts the stock history events for the selected date.
      */
-    public void findStockHistorySearchEvents() {
-        setStockHistorySearchEvents(stockSearchService.findStockHistorySearchEvents(selectedDate));
+    public void countStockHistorySearchEvents() {
+        setStockHistorySearchCount(stockSearchService.countStockHistorySearchEvents(selectedDate, null));
     }
 
     /**
@@ -178,39 +205,57 @@ public class MonitorBean implements Serializable {
     }
 
     /**
-     * Get the value of stockPriceSearchEvents
+     * Get the value of stockPriceSearchCount
      *
-     * @return the value of stockPriceSearchEvents
+     * @return the value of stockPriceSearchCount
      */
-    public List<StockPriceSearch> getStockPriceSearchEvents() {
-        return stockPriceSearchEvents;
+    public long getStockPriceSearchCount() {
+        return stockPriceSearchCount;
     }
 
     /**
-     * Set the value of stockPriceSearchEvents
+     * Set the value of stockPriceSearchCount
      *
-     * @param stockPriceSearchEvents new value of stockPriceSearchEvents
+     * @param stockPriceSearchCount new value of stockPriceSearchCount
      */
-    public void setStockPriceSearchEvents(List<StockPriceSearch> stockPriceSearchEvents) {
-        this.stockPriceSearchEvents = stockPriceSearchEvents;
+    public void setStockPriceSearchCount(long stockPriceSearchCount) {
+        this.stockPriceSearchCount = stockPriceSearchCount;
     }
 
     /**
-     * Get the value of stockHistorySearchEvents
+     * Get the value of stockPriceSearchAggregates
      *
-     * @return the value of stockHistorySearchEvents
+     * @return the value of stockPriceSearchAggregates
      */
-    public List<StockHistorySearch> getStockHistorySearchEvents() {
-        return stockHistorySearchEvents;
+    public List<StockPriceSearchAggregate> getStockPriceSearchAggregates() {
+        return stockPriceSearchAggregates;
     }
 
     /**
-     * Set the value of stockHistorySearchEvents
+     * Set the value of stockPriceSearchAggregates
      *
-     * @param stockHistorySearchEvents new value of stockHistorySearchEvents
+     * @param stockPriceSearchAggregates new value of stockPriceSearchAggregates
      */
-    public void setStockHistorySearchEvents(List<StockHistorySearch> stockHistorySearchEvents) {
-        this.stockHistorySearchEvents = stockHistorySearchEvents;
+    public void setStockPriceSearchAggregates(List<StockPriceSearchAggregate> stockPriceSearchAggregates) {
+        this.stockPriceSearchAggregates = stockPriceSearchAggregates;
+    }
+
+    /**
+     * Get the value of stockHistorySearchCount
+     *
+     * @return the value of stockHistorySearchCount
+     */
+    public long getStockHistorySearchCount() {
+        return stockHistorySearchCount;
+    }
+
+    /**
+     * Set the value of stockHistorySearchCount
+     *
+     * @param stockHistorySearchCount new value of stockHistorySearchCount
+     */
+    public void setStockHistorySearchCount(long stockHistorySearchCount) {
+        this.stockHistorySearchCount = stockHistorySearchCount;
     }
 
     /**
@@ -240,6 +285,16 @@ public class MonitorBean implements Serializable {
         return selectedDate;
     }
 
+    /**
+     * Get the selected date in the format of the monitor resource date
+     * parameter
+     *
+     * @return the selected date formatted as yyyy-MM-dd
+     */
+    public String getSelectedDateParameter() {
+        return selectedDate == null ? null : new SimpleDateFormat("yyyy-MM-dd").format(selectedDate);
+    }
+
     /**
      * Set the value of selectedDate
      *
@@ -0,0 +1,349 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.web.api;
+
+import com.daniel.opmonitor.ejb.StockSearchService;
+import com.daniel.opmonitor.entity.StockPriceSearch;
+import com.daniel.opmonitor.model.BucketSize;
+import com.daniel.opmonitor.model.LatencyBucket;
+import com.daniel.opmonitor.model.StockHistorySearchSummary;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import javax.ejb.EJB;
+import javax.enterprise.context.RequestScoped;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.UriInfo;
+
+/**
+ * This resource provides the pages of the monitor event tables in the format
+ * of DataTables server-side processing. Only the page of events displayed is
+ * read from the database, sorted by the column ordered in the table. The
+ * search value of the table filters the events by stock symbol.
+ *
+ * @author Bryan Daniel
+ */
+@Path("monitor")
+@RequestScoped
+@Produces(MediaType.APPLICATION_JSON)
+public class MonitorResource {
+
+    /**
+     * The largest page returned
+     */
+    private static final int MAX_PAGE_LENGTH = 100;
+
+    /**
+     * The format of the search date and time of an event
+     */
+    private static final String DATE_TIME_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    /**
+     * The format of the history dates of an event
+     */
+    private static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    /**
+     * The format of the start of a latency bucket
+     */
+    private static final String BUCKET_START_FORMAT = "yyyy-MM-dd HH:mm";
+
+    /**
+     * The largest number of latency buckets of a period
+     */
+    private static final long MAX_LATENCY_BUCKETS = 10000;
+
+    /**
+     * The stock search data service
+     */
+    @EJB
+    private StockSearchService stockSearchService;
+
+    /**
+     * The request URI information
+     */
+    @Context
+    private UriInfo uriInfo;
+
+    /**
+     * Returns one page of the stock price search events of the date.
+     *
+     * @param date the date of the search events in the format yyyy-MM-dd
+     * @param draw the draw counter of the table
+     * @param start the position of the first event of the page
+     * @param length the number of events of the page
+     * @return the page of events
+     */
+    @GET
+    @Path("price-searches")
+    public JsonObject getStockPriceSearchEvents(@QueryParam("date") String date, @QueryParam("draw") int draw,
+            @QueryParam("start") int start, @QueryParam("length") @DefaultValue("10") int length) {
+
+        Date dateOccurred = parseDate(date);
+        String symbol = getSymbol();
+        long total = stockSearchService.countStockPriceSearchEvents(dateOccurred, null);
+        long filtered = symbol == null ? total : stockSearchService.countStockPriceSearchEvents(dateOccurred, symbol);
+        List<StockPriceSearch> stockPriceSearches = stockSearchService.findStockPriceSearchEvents(dateOccurred,
+                symbol, Math.max(0, start), pageLength(length), getSortProperty(), isAscending());
+
+        SimpleDateFormat dateTimeFormat = new SimpleDateFormat(DATE_TIME_FORMAT);
+        JsonArrayBuilder data = Json.createArrayBuilder();
+        if (stockPriceSearches != null) {
+            stockPriceSearches.forEach(search -> {
+                JsonObjectBuilder row = Json.createObjectBuilder()
+                        .add("id", search.getStockPriceId())
+                        .add("searchDateTime", dateTimeFormat.format(search.getSearchDateTime()))
+                        .add("timeElapsed", search.getTimeElapsed());
+                addOrNull(row, "symbol", search.getSymbol() != null ? search.getSymbol().getSymbol() : null);
+                addOrNull(row, "price", search.getPrice() != null ? search.getPrice().toPlainString() : null);
+                data.add(row);
+            });
+        }
+        return page(draw, total, filtered, data);
+    }
+
+    /**
+     * Returns one page of the stock history search events of the date.
+     *
+     * @param date the date of the search events in the format yyyy-MM-dd
+     * @param draw the draw counter of the table
+     * @param start the position of the first event of the page
+     * @param length the number of events of the page
+     * @return the page of events
+     */
+    @GET
+    @Path("history-searches")
+    public JsonObject getStockHistorySearchEvents(@QueryParam("date") String date, @QueryParam("draw") int draw,
+            @QueryParam("start") int start, @QueryParam("length") @DefaultValue("10") int length) {
+
+        Date dateOccurred = parseDate(date);
+        String symbol = getSymbol();
+        long total = stockSearchService.countStockHistorySearchEvents(dateOccurred, null);
+        long filtered = symbol == null ? total : stockSearchService.countStockHistorySearchEvents(dateOccurred, symbol);
+        List<StockHistorySearchSummary> stockHistorySearches = stockSearchService.findStockHistorySearchEvents(
+                dateOccurred, symbol, Math.max(0, start), pageLength(length), getSortProperty(), isAscending());
+
+        SimpleDateFormat dateTimeFormat = new SimpleDateFormat(DATE_TIME_FORMAT);
+        SimpleDateFormat dateFormat = new SimpleDateFormat(DATE_FORMAT);
+        JsonArrayBuilder data = Json.createArrayBuilder();
+        if (stockHistorySearches != null) {
+            stockHistorySearches.forEach(search -> {
+                JsonObjectBuilder row = Json.createObjectBuilder()
+                        .add("id", search.getStockHistorySearchId())
+                        .add("searchDateTime", dateTimeFormat.format(search.getSearchDateTime()))
+                        .add("barCount", search.getBarCount());
+                addOrNull(row, "symbol", search.getSymbol());
+                addOrNull(row, "timeElapsed", search.getTimeElapsed() != null
+                        ? search.getTimeElapsed().toString() : null);
+                addOrNull(row, "firstDate", search.getFirstDate() != null
+                        ? dateFormat.format(search.getFirstDate()) : null);
+                addOrNull(row, "lastDate", search.getLastDate() != null
+                        ? dateFormat.format(search.getLastDate()) : null);
+                data.add(row);
+            });
+        }
+        return page(draw, total, filtered, data);
+    }
+
+    /**
+     * Returns the latency of the stock price search events from the first date
+     * to the last date, in buckets of the given size.
+     *
+     * @param from the first date in the format yyyy-MM-dd
+     * @param to the last date in the format yyyy-MM-dd
+     * @param bucket the bucket size, one of MINUTE, HOUR or DAY
+     * @param symbol the stock symbol, or empty for every symbol
+     * @return the latency buckets
+     */
+    @GET
+    @Path("latency")
+    public JsonObject getLatency(@QueryParam("from") String from, @QueryParam("to") String to,
+            @QueryParam("bucket") @DefaultValue("HOUR") String bucket, @QueryParam("symbol") String symbol) {
+
+        BucketSize bucketSize;
+        try {
+            bucketSize = BucketSize.valueOf(bucket);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("The bucket must be MINUTE, HOUR or DAY.", e);
+        }
+        Date dateFrom = parseDate(from);
+        Calendar dayAfterTo = Calendar.getInstance();
+        dayAfterTo.setTime(parseDate(to));
+        dayAfterTo.add(Calendar.DATE, 1);
+        Date dateTo = dayAfterTo.getTime();
+        if (!dateFrom.before(dateTo)) {
+            throw new BadRequestException("The first date must not be after the last date.");
+        }
+        if ((dateTo.getTime() - dateFrom.getTime()) / bucketSize.getLength() > MAX_LATENCY_BUCKETS) {
+            throw new BadRequestException("The period has too many buckets, choose larger buckets.");
+        }
+
+        List<LatencyBucket> buckets = stockSearchService.findLatencyBuckets(bucketSize, dateFrom, dateTo,
+                symbol == null || symbol.trim().isEmpty() ? null : symbol.trim().toUpperCase());
+        SimpleDateFormat bucketStartFormat = new SimpleDateFormat(BUCKET_START_FORMAT);
+        JsonArrayBuilder data = Json.createArrayBuilder();
+        buckets.forEach(latencyBucket -> {
+            JsonObjectBuilder row = Json.createObjectBuilder()
+                    .add("start", bucketStartFormat.format(latencyBucket.getStart()))
+                    .add("count", latencyBucket.getCount());
+            addOrNull(row, "mean", latencyBucket.getMean());
+            addOrNull(row, "p50", latencyBucket.getP50());
+            addOrNull(row, "p95", latencyBucket.getP95());
+            addOrNull(row, "p99", latencyBucket.getP99());
+            data.add(row);
+        });
+        return Json.createObjectBuilder().add("buckets", data).build();
+    }
+
+    /**
+     * Parses the date of the events.
+     *
+     * @param date the date in the format yyyy-MM-dd
+     * @return the start of the date
+     * @throws BadRequestException if the date is missing or invalid
+     */
+    private static Date parseDate(String date) {
+        if (date == null) {
+            throw new BadRequestException("The date is required.");
+        }
+        try {
+            return Date.from(LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("The date must be in the format yyyy-MM-dd.", e);
+        }
+    }
+
+    /**
+     * Limits the page length requested, which is negative when the table
+     * requests every event.
+     *
+     * @param length the page length requested
+     * @return the page length
+     */
+    private static int pageLength(int length) {
+        return length <= 0 ? MAX_PAGE_LENGTH : Math.min(length, MAX_PAGE_LENGTH);
+    }
+
+    /**
+     * Returns the name of the data property of the column the table is
+     * ordered by.
+     *
+     * @return the property name, or null if the table is not ordered
+     */
+    private String getSortProperty() {
+        MultivaluedMap<String, String> parameters = uriInfo.getQueryParameters();
+        String column = parameters.getFirst("order[0][column]");
+        return column == null ? null : parameters.getFirst("columns[" + column + "][data]");
+    }
+
+    /**
+     * Returns the stock symbol searched for in the table.
+     *
+     * @return the symbol in upper case, or null if the table is not searched
+     */
+    private String getSymbol() {
+        String search = uriInfo.getQueryParameters().getFirst("search[value]");
+        return search == null || search.trim().isEmpty() ? null : search.trim().toUpperCase();
+    }
+
+    /**
+     * Returns the indication of ascending order of the table.
+     *
+     * @return true unless the table is ordered descending
+     */
+    private boolean isAscending() {
+        return !"desc".equals(uriInfo.getQueryParameters().getFirst("order[0][dir]"));
+    }
+
+    /**
+     * Adds the value to the JSON object, or a null if there is no value.
+     *
+     * @param builder the JSON object builder
+     * @param name the name of the value
+     * @param value the value, which may be null
+     */
+    private static void addOrNull(JsonObjectBuilder builder, String name, String value) {
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    }
+
+    /**
+     * Adds the number to the JSON object, or a null if there is no number.
+     *
+     * @param builder the JSON object builder
+     * @param name the name of the number
+     * @param value the number, which may be null
+     */
+    private static void addOrNull(JsonObjectBuilder builder, String name, Double value) {
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    }
+
+    /**
+     * Adds the number to the JSON object, or a null if there is no number.
+     *
+     * @param builder the JSON object builder
+     * @param name the name of the number
+     * @param value the number, which may be null
+     */
+    private static void addOrNull(JsonObjectBuilder builder, String name, Long value) {
+        if (value == null) {
+            builder.addNull(name);
+        } else {
+            builder.add(name, value);
+        }
+    }
+
+    /**
+     * Creates the page in the format of DataTables server-side processing.
+     *
+     * @param draw the draw counter of the table
+     * @param total the number of events of the date
+     * @param filtered the number of events of the date and searched symbol
+     * @param data the events of the page
+     * @return the page
+     */
+    private static JsonObject page(int draw, long total, long filtered, JsonArrayBuilder data) {
+        return Json.createObjectBuilder()
+                .add("draw", draw)
+                .add("recordsTotal", total)
+                .add("recordsFiltered", filtered)
+                .add("data", data)
+                .build();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.opmonitor.web.live;
+
+import com.daniel.opmonitor.ejb.SearchEventBroadcaster;
+import java.text.MessageFormat;
+import java.util.function.Consumer;
+import javax.ejb.EJB;
+import javax.websocket.OnClose;
+import javax.websocket.OnError;
+import javax.websocket.OnOpen;
+import javax.websocket.Session;
+import javax.websocket.server.ServerEndpoint;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This WebSocket endpoint pushes the frames of stored search events to the
+ * live operations view of the monitor page. Each session subscribes to the
+ * search event broadcaster when it opens and is unsubscribed when it closes or
+ * fails. Frames are sent asynchronously, so a slow browser never holds up the
+ * broadcaster. The endpoint is under the monitor path, so the handshake is
+ * protected by the same security constraint as the monitor pages.
+ *
+ * @author Bryan Daniel
+ */
+@ServerEndpoint("/monitor/live")
+public class LiveEventEndpoint {
+
+    /**
+     * The key of the session user property holding the subscriber of the
+     * session
+     */
+    private static final String SUBSCRIBER = "liveEventSubscriber";
+
+    /**
+     * The broadcaster of stored search events
+     */
+    @EJB
+    private SearchEventBroadcaster searchEventBroadcaster;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(LiveEventEndpoint.class);
+
+    /**
+     * Subscribes the opened session to the frames of stored search events.
+     *
+     * @param session the session
+     */
+    @OnOpen
+    public void open(Session session) {
+        Consumer<String> subscriber = frame -> session.getAsyncRemote().sendText(frame);
+        session.getUserProperties().put(SUBSCRIBER, subscriber);
+        searchEventBroadcaster.subscribe(subscriber);
+    }
+
+    /**
+     * Unsubscribes the closed session.
+     *
+     * @param session the session
+     */
+    @OnClose
+    public void close(Session session) {
+        unsubscribe(session);
+    }
+
+    /**
+     * Logs the failure and unsubscribes the session.
+     *
+     * @param session the session
+     * @param throwable the failure
+     */
+    @OnError
+    public void error(Session session, Throwable throwable) {
+        logger.warn(MessageFormat.format("The live event session {0} failed: {1}", session.getId(),
+                throwable.getMessage()));
+        unsubscribe(session);
+    }
+
+    /**
+     * Removes the subscriber of the session from the broadcaster.
+     *
+     * @param session the session
+     */
+    @SuppressWarnings("unchecked")
+    private void unsubscribe(Session session) {
+        Object subscriber = session.getUserProperties().remove(SUBSCRIBER);
+        if (subscriber != null) {
+            searchEventBroadcaster.unsubscribe((Consumer<String>) subscriber);
+        }
+    }
+}
@@ -16,6 +16,133 @@
 var priceSearchResult = null;
 var historyResults = null;
 
+/**
+ * The tables paged by the monitor resource, by table id. The data of a column
+ * names the property the resource sorts by, and the tables are first sorted
+ * by the date searched column. The search box filters the rows by symbol.
+ */
+var pagedTables = {
+    searchEventTable: {dateColumn: 2, columns: [
+        {data: "symbol"},
+        {data: "price", render: function (price) {
+                return price === null ? "" : "$" + price;
+            }},
+        {data: "searchDateTime"},
+        {data: "timeElapsed"},
+        {data: "id", orderable: false, render: function (id) {
+                return detailsLink("priceSearchId", id);
+            }}
+    ]},
+    historyEventTable: {dateColumn: 1, columns: [
+        {data: "symbol"},
+        {data: "searchDateTime"},
+        {data: "timeElapsed"},
+        {data: "barCount"},
+        {data: "firstDate", orderable: false, render: function (firstDate, type, row) {
+                return firstDate === null ? "" : firstDate + " to " + row.lastDate;
+            }},
+        {data: "id", orderable: false, render: function (id) {
+                return detailsLink("historySearchId", id);
+            }}
+    ]}
+};
+
+/**
+ * This method creates the link to the details page of an event.
+ * @param {string} parameter the name of the event identifier parameter
+ * @param {number} id the event identifier
+ * @returns {string} the link
+ */
+function detailsLink(parameter, id) {
+    return '<a class="button ui-button" style="font-size:0.95em;" href="details.xhtml?'
+            + parameter + '=' + id + '">View Event</a>';
+}
+
+/**
+ * This method requests the latency of the period entered in the latency form
+ * and draws it in the latency chart. The percentiles are drawn as lines and
+ * the number of searches as bars on a second axis.
+ * @returns {undefined}
+ */
+function drawLatencyChart() {
+    var form = $("#latencyForm");
+    $.getJSON(form.data("source"), {
+        from: $("#latencyFrom").val(),
+        to: $("#latencyTo").val(),
+        bucket: $("#latencyBucket").val(),
+        symbol: $("#latencySymbol").val()
+    }).done(function (response) {
+        if (response.buckets.length === 0) {
+            $("#message").text("No stock price searches were found for the selected period.").show();
+            $("#latencyChart").empty();
+            return;
+        }
+        $("#message").hide();
+        var data = new google.visualization.DataTable();
+        data.addColumn("string", "Time");
+        data.addColumn("number", "Searches");
+        data.addColumn("number", "Mean ms");
+        data.addColumn("number", "Median ms");
+        data.addColumn("number", "95th Percentile ms");
+        data.addColumn("number", "99th Percentile ms");
+        response.buckets.forEach(function (bucket) {
+            data.addRow([bucket.start, bucket.count, bucket.mean, bucket.p50, bucket.p95, bucket.p99]);
+        });
+        new google.visualization.ComboChart(document.getElementById("latencyChart")).draw(data, {
+            seriesType: "line",
+            series: {0: {type: "bars", targetAxisIndex: 1, color: "#cccccc"}},
+            vAxes: {0: {title: "Time Elapsed in ms"}, 1: {title: "Searches"}},
+            interpolateNulls: true,
+            legend: {position: "bottom"}
+        });
+    }).fail(function () {
+        $("#message").text("The latency could not be loaded for the selected period and interval.").show();
+    });
+}
+
+/**
+ * The number of rows kept in the live event table
+ */
+var liveEventRows = 50;
+
+/**
+ * This method opens the WebSocket of the live event table and adds the events
+ * of every frame received to the top of the table, keeping the most recent
+ * rows. The connection is opened again a few seconds after it closes.
+ * @returns {undefined}
+ */
+function connectLiveEvents() {
+    var table = $("#liveEventTable");
+    var protocol = window.location.protocol === "https:" ? "wss://" : "ws://";
+    var socket = new WebSocket(protocol + window.location.host + table.data("source"));
+    socket.onopen = function () {
+        $("#liveStatus").text("(connected)");
+    };
+    socket.onmessage = function (message) {
+        var frame = JSON.parse(message.data);
+        var body = table.find("tbody");
+        frame.events.forEach(function (event) {
+            var row = $("<tr>");
+            row.append($("<td>").text(event.type === "price" ? "Stock Price" : "Stock History"));
+            row.append($("<td>").text(event.symbol === null ? "" : event.symbol));
+            row.append($("<td>").text(event.price === undefined || event.price === null
+                    ? "" : "$" + Number(event.price).toFixed(2)));
+            row.append($("<td>").text(event.barCount === undefined ? "" : event.barCount));
+            row.append($("<td>").text(event.searchDateTime));
+            row.append($("<td>").text(event.timeElapsed));
+            body.prepend(row);
+        });
+        body.find("tr").slice(liveEventRows).remove();
+        if (frame.dropped > 0) {
+            $("#liveStatus").text("(" + frame.dropped + " events skipped)");
+        }
+    };
+    socket.onclose = function () {
+        $("#liveStatus").text("(disconnected)");
+        setTimeout(connectLiveEvents, 5000);
+    };
+}
+
 /**
  * This method opens the user details dialog.
  * @param {type} username
@@ -44,6 +171,30 @@ $(document).ready(function () {
             {responsivePriority: 3, targets: 3}
         ]
     });
+    $(".pagedEventTable").each(function () {
+        var table = pagedTables[this.id];
+        $(this).DataTable({
+            destroy: true,
+            responsive: true,
+            serverSide: true,
+            processing: true,
+            searchDelay: 500,
+            language: {search: "Symbol:"},
+            ajax: $(this).data("source"),
+            columns: table.columns,
+            order: [[table.dateColumn, "asc"]]
+        });
+    });
+    if ($("#liveEventTable").length && window.WebSocket) {
+        connectLiveEvents();
+    }
+    if ($("#latencyChart").length) {
+        google.charts.load("current", {packages: ["corechart"]});
+        $("#latencyForm").submit(function (event) {
+            event.preventDefault();
+            google.charts.setOnLoadCallback(drawLatencyChart);
+        });
+    }
     $(".dialog").dialog({
         autoOpen: false,
         show: {
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.benchmarks;
+
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark compares the JSON handling of one search message with a new
+ * ObjectMapper built for every call, as the stocks inquisitor and the event
+ * handler used to do, against the readers and writers cached by the
+ * StocksSearchCodec. The stock price result is read as it arrives from the web
+ * service, and the search events are written as they are sent to the
+ * operation queue. Run with the GC profiler to see the bytes allocated per
+ * message:
+ * <pre>
+ * java -jar target/benchmarks.jar CodecBenchmark -prof gc
+ * </pre>
+ *
+ * @author Bryan Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    /**
+     * The JSON of the stock price result
+     */
+    private String priceResultJson;
+
+    /**
+     * The stock price search event
+     */
+    private StockPriceSearchEvent priceEvent;
+
+    /**
+     * The stock history search event
+     */
+    private HistoricalStockPriceSearchEvent historyEvent;
+
+    /**
+     * Reads the sample messages.
+     *
+     * @throws IOException if the sample messages cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        priceResultJson = SampleMessages.readPriceResultJson();
+        priceEvent = SampleMessages.createPriceEvent();
+        historyEvent = SampleMessages.createHistoryEvent();
+    }
+
+    /**
+     * Reads the stock price result with a new mapper.
+     *
+     * @return the stock price result
+     * @throws IOException if the JSON cannot be read
+     */
+    @Benchmark
+    public StockPriceSearchResult readPriceResultWithNewMapper() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        return mapper.readValue(priceResultJson, StockPriceSearchResult.class);
+    }
+
+    /**
+     * Reads the stock price result with the cached reader.
+     *
+     * @return the stock price result
+     * @throws IOException if the JSON cannot be read
+     */
+    @Benchmark
+    public StockPriceSearchResult readPriceResultWithCachedReader() throws IOException {
+        return StocksSearchCodec.getInstance().getPriceResultReader().readValue(priceResultJson);
+    }
+
+    /**
+     * Writes the stock price search event with a new mapper.
+     *
+     * @return the JSON of the event
+     * @throws IOException if the event cannot be written
+     */
+    @Benchmark
+    public String writePriceEventWithNewMapper() throws IOException {
+        return createEventMapper().writeValueAsString(priceEvent);
+    }
+
+    /**
+     * Writes the stock price search event with the cached writer.
+     *
+     * @return the JSON of the event
+     * @throws IOException if the event cannot be written
+     */
+    @Benchmark
+    public String writePriceEventWithCachedWriter() throws IOException {
+        return StocksSearchCodec.getInstance().getPriceEventWriter().writeValueAsString(priceEvent);
+    }
+
+    /**
+     * Writes the stock history search event with a new mapper.
+     *
+     * @return the JSON of the event
+     * @throws IOException if the event cannot be written
+     */
+    @Benchmark
+    public String writeHistoryEventWithNewMapper() throws IOException {
+        return createEventMapper().writeValueAsString(historyEvent);
+    }
+
+    /**
+     * Writes the stock history search event with the cached writer.
+     *
+     * @return the JSON of the event
+     * @throws IOException if the event cannot be written
+     */
+    @Benchmark
+    public String writeHistoryEventWithCachedWriter() throws IOException {
+        return StocksSearchCodec.getInstance().getHistoryEventWriter().writeValueAsString(historyEvent);
+    }
+
+    /**
+     * Creates the mapper the event handler used to build for every event.
+     *
+     * @return the new mapper
+     */
+    private static ObjectMapper createEventMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+}
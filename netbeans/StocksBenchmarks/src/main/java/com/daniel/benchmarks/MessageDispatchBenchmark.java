@@ -0,0 +1,206 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.benchmarks;
+
+import com.daniel.search.batch.SearchEventBatch;
+import com.daniel.search.codec.SearchMessageType;
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures the CPU time the operation message listener spends
+ * on one message, comparing the JSON tree built to find the type of the
+ * message and then read into the event, as the listener used to do, against
+ * the type taken from the message type property and against the type detected
+ * by streaming the top-level field names, each followed by a single read of
+ * the body. A batch message holds eight price events and two history events.
+ * <pre>
+ * java -jar target/benchmarks.jar MessageDispatchBenchmark -prof gc
+ * </pre>
+ *
+ * @author Bryan Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageDispatchBenchmark {
+
+    /**
+     * The name of the field holding the events of a batch of price events
+     */
+    private static final String PRICE_BATCH_NODE = "stock_price_search_events";
+
+    /**
+     * The name of the field holding the events of a batch of history events
+     */
+    private static final String HISTORY_BATCH_NODE = "stock_history_search_events";
+
+    /**
+     * The name of the field holding the result of a history event
+     */
+    private static final String HISTORY_NODE = "stock_history_search_result";
+
+    /**
+     * The name of the field holding the result of a price event
+     */
+    private static final String PRICE_NODE = "stock_price_search_result";
+
+    /**
+     * The number of price events in the batch message
+     */
+    private static final int BATCH_PRICE_EVENTS = 8;
+
+    /**
+     * The number of history events in the batch message
+     */
+    private static final int BATCH_HISTORY_EVENTS = 2;
+
+    /**
+     * The type of the message dispatched
+     */
+    @Param({"PRICE", "HISTORY", "BATCH"})
+    private SearchMessageType messageType;
+
+    /**
+     * The body of the message
+     */
+    private String messageJson;
+
+    /**
+     * The value of the message type property of the message
+     */
+    private String messageTypeProperty;
+
+    /**
+     * Writes the message of the type dispatched.
+     *
+     * @throws IOException if the message cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+
+        StocksSearchCodec codec = StocksSearchCodec.getInstance();
+        switch (messageType) {
+            case PRICE:
+                messageJson = codec.getPriceEventWriter().writeValueAsString(SampleMessages.createPriceEvent());
+                break;
+            case HISTORY:
+                messageJson = codec.getHistoryEventWriter().writeValueAsString(SampleMessages.createHistoryEvent());
+                break;
+            default:
+                List<StockPriceSearchEvent> stockPriceSearchEvents = new ArrayList<>();
+                for (int i = 0; i < BATCH_PRICE_EVENTS; i++) {
+                    stockPriceSearchEvents.add(SampleMessages.createPriceEvent());
+                }
+                List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents = new ArrayList<>();
+                for (int i = 0; i < BATCH_HISTORY_EVENTS; i++) {
+                    historicalStockPriceSearchEvents.add(SampleMessages.createHistoryEvent());
+                }
+                SearchEventBatch searchEventBatch = new SearchEventBatch();
+                searchEventBatch.setStockPriceSearchEvents(stockPriceSearchEvents);
+                searchEventBatch.setHistoricalStockPriceSearchEvents(historicalStockPriceSearchEvents);
+                messageJson = codec.getBatchWriter().writeValueAsString(searchEventBatch);
+        }
+        messageTypeProperty = messageType.getValue();
+    }
+
+    /**
+     * Reads the message into a JSON tree, finds its type from the fields of
+     * the tree and reads the tree into the event.
+     *
+     * @return the event or batch read
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public Object dispatchOnJsonTree() throws IOException {
+
+        StocksSearchCodec codec = StocksSearchCodec.getInstance();
+        JsonNode rootNode = codec.getTreeReader().readTree(messageJson);
+        if (!rootNode.path(PRICE_BATCH_NODE).isMissingNode() || !rootNode.path(HISTORY_BATCH_NODE).isMissingNode()) {
+            return codec.getBatchReader().readValue(rootNode);
+        } else if (!rootNode.path(HISTORY_NODE).isMissingNode()) {
+            return codec.getHistoryEventReader().readValue(rootNode);
+        } else if (!rootNode.path(PRICE_NODE).isMissingNode()) {
+            return codec.getPriceEventReader().readValue(rootNode);
+        }
+        return null;
+    }
+
+    /**
+     * Takes the type of the message from the message type property and reads
+     * the body once.
+     *
+     * @return the event or batch read
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public Object dispatchOnProperty() throws IOException {
+        return read(SearchMessageType.fromValue(messageTypeProperty));
+    }
+
+    /**
+     * Detects the type of the message from its top-level field names and
+     * reads the body once.
+     *
+     * @return the event or batch read
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public Object dispatchOnDetectedType() throws IOException {
+        return read(SearchMessageType.detect(messageJson));
+    }
+
+    /**
+     * Reads the body of the message with the reader for its type, as the
+     * operation message listener does.
+     *
+     * @param type the type of the message
+     * @return the event or batch read
+     * @throws IOException if the message cannot be read
+     */
+    private Object read(SearchMessageType type) throws IOException {
+
+        StocksSearchCodec codec = StocksSearchCodec.getInstance();
+        switch (type) {
+            case BATCH:
+                return codec.getBatchReader().readValue(messageJson);
+            case HISTORY:
+                return codec.getHistoryEventReader().readValue(messageJson);
+            default:
+                return codec.getPriceEventReader().readValue(messageJson);
+        }
+    }
+}
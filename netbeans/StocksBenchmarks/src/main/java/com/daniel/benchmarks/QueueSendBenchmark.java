@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.benchmarks;
+
+import com.daniel.search.codec.SearchMessageType;
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.stocksclient.ejb.OperationQueueProducer;
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSContext;
+import javax.jms.Queue;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This benchmark measures the search events sent to the operation queue per
+ * second, comparing the lookup of the connection factory and queue and the new
+ * JMS context made for every event, as the event handler used to do, against
+ * the OperationQueueProducer with its cached lookup and pooled contexts. The
+ * old path also closes its contexts, which the event handler never did, so
+ * that the benchmark does not exhaust the server.
+ * <p>
+ * The messages are sent to the operation queue of a running Payara server at
+ * the address used by the producer, so the client library of the server must
+ * be added to the class path. The Operation Monitor stores every event sent,
+ * so the benchmark should be run against a test installation:
+ * <pre>
+ * java -cp target/benchmarks.jar:$PAYARA_HOME/glassfish/lib/gf-client.jar org.openjdk.jmh.Main QueueSendBenchmark
+ * </pre>
+ *
+ * @author Bryan Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QueueSendBenchmark {
+
+    /**
+     * The JSON of the stock price search event sent
+     */
+    private String priceEventJson;
+
+    /**
+     * The producer with the cached lookup and pooled contexts
+     */
+    private OperationQueueProducer operationQueueProducer;
+
+    /**
+     * Writes the event sent and creates the producer, sending one event to
+     * fail early if the server cannot be reached.
+     *
+     * @throws IOException if the event cannot be written
+     * @throws NamingException if the operation queue cannot be looked up
+     */
+    @Setup
+    public void setUp() throws IOException, NamingException {
+        priceEventJson = StocksSearchCodec.getInstance().getPriceEventWriter()
+                .writeValueAsString(SampleMessages.createPriceEvent());
+        operationQueueProducer = new OperationQueueProducer();
+        operationQueueProducer.initialize();
+        operationQueueProducer.send(priceEventJson, SearchMessageType.PRICE);
+    }
+
+    /**
+     * Closes the pooled contexts of the producer.
+     */
+    @TearDown
+    public void tearDown() {
+        operationQueueProducer.shutdown();
+    }
+
+    /**
+     * Sends an event after looking up the connection factory and queue and
+     * creating a JMS context.
+     *
+     * @throws NamingException if the operation queue cannot be looked up
+     */
+    @Benchmark
+    public void sendWithLookupPerEvent() throws NamingException {
+
+        Properties properties = new Properties();
+        properties.setProperty(InitialContext.INITIAL_CONTEXT_FACTORY,
+                OperationQueueProducer.INITIAL_CONTEXT_FACTORY_VALUE);
+        properties.setProperty(InitialContext.URL_PKG_PREFIXES, OperationQueueProducer.URL_PKG_PREFIXES_VALUE);
+        properties.setProperty(InitialContext.PROVIDER_URL, OperationQueueProducer.PROVIDER_URL_VALUE);
+        Context context = new InitialContext(properties);
+        try (JMSContext jmsContext = ((ConnectionFactory) context.lookup(
+                OperationQueueProducer.CONNECTION_FACTORY_NAME)).createContext()) {
+            Queue queue = (Queue) context.lookup(OperationQueueProducer.QUEUE_NAME);
+            jmsContext.createProducer().send(queue, priceEventJson);
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Sends an event with the producer.
+     *
+     * @throws NamingException if the operation queue cannot be looked up
+     */
+    @Benchmark
+    public void sendWithPooledProducer() throws NamingException {
+        operationQueueProducer.send(priceEventJson, SearchMessageType.PRICE);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.benchmarks;
+
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * This class supplies the messages used by the benchmarks. The stock price
+ * result is a World Trading Data response for five symbols, and the stock
+ * history is one year of trading days for one symbol.
+ *
+ * @author Bryan Daniel
+ */
+public class SampleMessages {
+
+    /**
+     * The resource holding the stock price result
+     */
+    private static final String PRICE_RESULT_RESOURCE = "stock_price_result.json";
+
+    /**
+     * The number of trading days in the stock history
+     */
+    private static final int HISTORY_DAYS = 252;
+
+    /**
+     * The time taken by the sample searches in milliseconds
+     */
+    private static final long TIME_ELAPSED = 215;
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private SampleMessages() {
+    }
+
+    /**
+     * Reads the JSON of the stock price result as returned by the web service.
+     *
+     * @return the JSON of the stock price result
+     * @throws IOException if the resource cannot be read
+     */
+    public static String readPriceResultJson() throws IOException {
+
+        try (InputStream in = SampleMessages.class.getResourceAsStream(PRICE_RESULT_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("The resource " + PRICE_RESULT_RESOURCE + " was not found.");
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Creates a stock price search event holding the stock price result.
+     *
+     * @return the stock price search event
+     * @throws IOException if the stock price result cannot be read
+     */
+    public static StockPriceSearchEvent createPriceEvent() throws IOException {
+
+        StockPriceSearchResult stockPriceSearchResult = StocksSearchCodec.getInstance().getPriceResultReader()
+                .readValue(readPriceResultJson());
+        StockPriceSearchEvent stockPriceSearchEvent = new StockPriceSearchEvent();
+        stockPriceSearchEvent.setTimeSearched(LocalDateTime.of(2019, 11, 8, 16, 5, 12));
+        stockPriceSearchEvent.setTimeElapsed(TIME_ELAPSED);
+        stockPriceSearchEvent.setStockPriceSearchResult(stockPriceSearchResult);
+        return stockPriceSearchEvent;
+    }
+
+    /**
+     * Creates a stock history search event holding one year of trading days.
+     * The prices drift by a few cents a day from a fixed start.
+     *
+     * @return the stock history search event
+     */
+    public static HistoricalStockPriceSearchEvent createHistoryEvent() {
+
+        HistoricalStockPriceSeries.Builder builder = new HistoricalStockPriceSeries.Builder(HISTORY_DAYS)
+                .setName("AAPL");
+        LocalDate date = LocalDate.of(2018, 11, 8);
+        long close = 20910;
+        for (int day = 0; day < HISTORY_DAYS; date = date.plusDays(1)) {
+            switch (date.getDayOfWeek()) {
+                case SATURDAY:
+                case SUNDAY:
+                    continue;
+                default:
+                    long open = close + (day % 7) - 3;
+                    close = open + (day % 11) - 4;
+                    builder.add((int) date.toEpochDay(), open, close, Math.max(open, close) + 85,
+                            Math.min(open, close) - 92, 25000000L + day * 1733L);
+                    day++;
+            }
+        }
+        HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = new HistoricalStockPriceSearchEvent();
+        historicalStockPriceSearchEvent.setTimeSearched(LocalDateTime.of(2019, 11, 8, 16, 5, 12));
+        historicalStockPriceSearchEvent.setTimeElapsed(TIME_ELAPSED);
+        historicalStockPriceSearchEvent.setHistoricalStockPriceSeries(builder.build());
+        return historicalStockPriceSearchEvent;
+    }
+}
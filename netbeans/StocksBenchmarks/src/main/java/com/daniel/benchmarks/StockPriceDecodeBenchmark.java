@@ -0,0 +1,170 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.benchmarks;
+
+import com.daniel.search.codec.FixedPoint;
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.price.StockPrice;
+import com.daniel.search.price.StockPriceSearchResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This benchmark measures the allocations of one stock price message of five
+ * symbols, comparing the stock prices held as text, as they were before, with
+ * the fixed-point stock prices read by the StockPriceDeserializer. The decode
+ * benchmarks only read the message. The store benchmarks also convert every
+ * price into the values of the stock price search entity, as the Operation
+ * Monitor does when it stores the message: the text with new BigDecimals and
+ * parsed boxed numbers, the fixed-point values with FixedPoint. Both paths
+ * read with a cached reader, so only the stock price model differs.
+ * <pre>
+ * java -jar target/benchmarks.jar StockPriceDecodeBenchmark -prof gc
+ * </pre>
+ *
+ * @author Bryan Daniel
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StockPriceDecodeBenchmark {
+
+    /**
+     * The reader of the stock prices held as text
+     */
+    private final ObjectReader legacyReader = new ObjectMapper().readerFor(LegacyStockPriceSearchResult.class);
+
+    /**
+     * The JSON of the stock price result
+     */
+    private String priceResultJson;
+
+    /**
+     * Reads the sample message.
+     *
+     * @throws IOException if the sample message cannot be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        priceResultJson = SampleMessages.readPriceResultJson();
+    }
+
+    /**
+     * Reads the message into stock prices held as text.
+     *
+     * @return the stock price result
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public LegacyStockPriceSearchResult decodeText() throws IOException {
+        return legacyReader.readValue(priceResultJson);
+    }
+
+    /**
+     * Reads the message into fixed-point stock prices.
+     *
+     * @return the stock price result
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public StockPriceSearchResult decodeFixedPoint() throws IOException {
+        return StocksSearchCodec.getInstance().getPriceResultReader().readValue(priceResultJson);
+    }
+
+    /**
+     * Reads the message into stock prices held as text and converts them into
+     * the entity values.
+     *
+     * @param blackhole the sink of the entity values
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public void storeText(Blackhole blackhole) throws IOException {
+
+        LegacyStockPriceSearchResult result = legacyReader.readValue(priceResultJson);
+        for (LegacyStockPrice stockPrice : result.getStockPriceData()) {
+            blackhole.consume(new BigDecimal(stockPrice.getChangePct()));
+            blackhole.consume(new BigDecimal(stockPrice.getCloseYesterday()));
+            blackhole.consume(new BigDecimal(stockPrice.getDayChange()));
+            blackhole.consume(new BigDecimal(stockPrice.getDayHigh()));
+            blackhole.consume(new BigDecimal(stockPrice.getDayLow()));
+            blackhole.consume(new BigDecimal(stockPrice.getEps()));
+            blackhole.consume(Long.valueOf(stockPrice.getGmtOffset()));
+            blackhole.consume(Long.valueOf(stockPrice.getMarketCap()));
+            blackhole.consume(new BigDecimal(stockPrice.getPrice()));
+            blackhole.consume(new BigDecimal(stockPrice.getPriceOpen()));
+            blackhole.consume(Long.valueOf(stockPrice.getShares()));
+            blackhole.consume(Long.valueOf(stockPrice.getVolume()));
+            blackhole.consume(Double.valueOf(stockPrice.getVolumeAvg()));
+        }
+    }
+
+    /**
+     * Reads the message into fixed-point stock prices and converts them into
+     * the entity values.
+     *
+     * @param blackhole the sink of the entity values
+     * @throws IOException if the message cannot be read
+     */
+    @Benchmark
+    public void storeFixedPoint(Blackhole blackhole) throws IOException {
+
+        StockPriceSearchResult result = StocksSearchCodec.getInstance().getPriceResultReader()
+                .readValue(priceResultJson);
+        for (StockPrice stockPrice : result.getStockPriceData()) {
+            blackhole.consume(toPrice(stockPrice.getChangePct()));
+            blackhole.consume(toPrice(stockPrice.getCloseYesterday()));
+            blackhole.consume(toPrice(stockPrice.getDayChange()));
+            blackhole.consume(toPrice(stockPrice.getDayHigh()));
+            blackhole.consume(toPrice(stockPrice.getDayLow()));
+            blackhole.consume(toPrice(stockPrice.getEps()));
+            blackhole.consume(FixedPoint.toLong(stockPrice.getGmtOffset()));
+            blackhole.consume(FixedPoint.toLong(stockPrice.getMarketCap()));
+            blackhole.consume(toPrice(stockPrice.getPrice()));
+            blackhole.consume(toPrice(stockPrice.getPriceOpen()));
+            blackhole.consume(FixedPoint.toLong(stockPrice.getShares()));
+            blackhole.consume(FixedPoint.toLong(stockPrice.getVolume()));
+            blackhole.consume(FixedPoint.toDouble(stockPrice.getVolumeAvg(), 0));
+        }
+    }
+
+    /**
+     * Converts a price in cents to the BigDecimal held by the entities.
+     *
+     * @param price the price in cents
+     * @return the price, or null if the price is not available
+     */
+    private static BigDecimal toPrice(long price) {
+        return FixedPoint.toBigDecimal(price, FixedPoint.PRICE_SCALE);
+    }
+}
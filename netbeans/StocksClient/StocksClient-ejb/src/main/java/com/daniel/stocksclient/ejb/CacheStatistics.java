@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * This class holds the statistics of a search cache at one point in time.
+ *
+ * @author Bryan Daniel
+ */
+@JsonPropertyOrder({
+    "size",
+    "max_entries",
+    "time_to_live",
+    "hits",
+    "misses",
+    "coalesced",
+    "evictions",
+    "expirations"
+})
+public class CacheStatistics {
+
+    /**
+     * The number of entries
+     */
+    @JsonProperty("size")
+    private final int size;
+
+    /**
+     * The maximum number of entries
+     */
+    @JsonProperty("max_entries")
+    private final int maxEntries;
+
+    /**
+     * The time to live of an entry in milliseconds
+     */
+    @JsonProperty("time_to_live")
+    private final long timeToLive;
+
+    /**
+     * The number of requests answered from the cache
+     */
+    @JsonProperty("hits")
+    private final long hits;
+
+    /**
+     * The number of requests not answered from the cache
+     */
+    @JsonProperty("misses")
+    private final long misses;
+
+    /**
+     * The number of missed requests that shared a load already in progress
+     */
+    @JsonProperty("coalesced")
+    private final long coalesced;
+
+    /**
+     * The number of entries evicted to respect the maximum number of entries
+     */
+    @JsonProperty("evictions")
+    private final long evictions;
+
+    /**
+     * The number of entries removed because their time to live had passed
+     */
+    @JsonProperty("expirations")
+    private final long expirations;
+
+    /**
+     * This constructor sets the value of every statistic.
+     *
+     * @param size the number of entries
+     * @param maxEntries the maximum number of entries
+     * @param timeToLive the time to live of an entry in milliseconds
+     * @param hits the number of hits
+     * @param misses the number of misses
+     * @param coalesced the number of coalesced misses
+     * @param evictions the number of evictions
+     * @param expirations the number of expirations
+     */
+    public CacheStatistics(int size, int maxEntries, long timeToLive, long hits, long misses, long coalesced,
+            long evictions, long expirations) {
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.expirations = expirations;
+    }
+
+    /**
+     * Gets the value of size.
+     *
+     * @return the value of size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the value of maxEntries.
+     *
+     * @return the value of maxEntries
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Gets the value of timeToLive.
+     *
+     * @return the value of timeToLive
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Gets the value of hits.
+     *
+     * @return the value of hits
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the value of misses.
+     *
+     * @return the value of misses
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the value of coalesced.
+     *
+     * @return the value of coalesced
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    /**
+     * Gets the value of evictions.
+     *
+     * @return the value of evictions
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Gets the value of expirations.
+     *
+     * @return the value of expirations
+     */
+    public long getExpirations() {
+        return expirations;
+    }
+}
@@ -17,28 +17,19 @@ package com.daniel.stocksclient.ejb;
 
 import com.daniel.search.history.HistoricalStockPriceSearchEvent;
 import com.daniel.search.price.StockPriceSearchEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import java.util.Properties;
 import javax.ejb.Asynchronous;
+import javax.ejb.EJB;
+import javax.ejb.EJBException;
 import javax.ejb.Stateless;
 import javax.ejb.LocalBean;
 import javax.enterprise.event.Observes;
-import javax.jms.ConnectionFactory;
-import javax.jms.JMSContext;
-import javax.jms.JMSException;
-import javax.jms.Queue;
-import javax.naming.Context;
-import javax.naming.InitialContext;
-import javax.naming.NamingException;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 /**
- * This class observes search events in the stocks client and produces a message
- * for each event. The messaging in this class is configured for a remote queue.
+ * This class observes search events in the stocks client and hands each event
+ * to the search event batcher, which sends the events to the remote queue in
+ * batches.
  *
  * @author Bryan Daniel
  */
@@ -47,29 +38,10 @@ import org.apache.log4j.Logger;
 public class EventHandler {
 
     /**
-     * The value for the initial context factory
+     * The batcher of search events for the operation queue
      */
-    public static final String INITIAL_CONTEXT_FACTORY_VALUE = "com.sun.enterprise.naming.SerialInitContextFactory";
-
-    /**
-     * The value for URL package prefixes
-     */
-    public static final String URL_PKG_PREFIXES_VALUE = "sun.enterprise.naming";
-
-    /**
-     * The value for the provider URL
-     */
-    public static final String PROVIDER_URL_VALUE = "iiop://localhost:3700";
-
-    /**
-     * The Java Message Service context
-     */
-    public static final String CONNECTION_FACTORY_NAME = "OperationQueueConnectionFactory";
-
-    /**
-     * The message queue name
-     */
-    public static final String QUEUE_NAME = "OperationQueue";
+    @EJB
+    private SearchEventBatcher searchEventBatcher;
 
     /**
      * The logger for this class
@@ -86,9 +58,9 @@ public class EventHandler {
     public void handleSearchEvent(@Observes StockPriceSearchEvent searchEvent) {
 
         try {
-            produceSearchEventMessage(searchEvent);
-        } catch (JsonProcessingException | JMSException | NamingException ex) {
-            logger.error("An exception occurred in produceSearchEventMessage method.", ex);
+            searchEventBatcher.add(searchEvent);
+        } catch (EJBException ex) {
+            logger.error("An exception occurred in handleSearchEvent method.", ex);
         }
     }
 
@@ -102,47 +74,9 @@ public class EventHandler {
     public void handleSearchEvent(@Observes HistoricalStockPriceSearchEvent searchEvent) {
 
         try {
-            produceSearchEventMessage(searchEvent);
-        } catch (JsonProcessingException | JMSException | NamingException ex) {
-            logger.error("An exception occurred in produceSearchEventMessage method.", ex);
+            searchEventBatcher.add(searchEvent);
+        } catch (EJBException ex) {
+            logger.error("An exception occurred in handleSearchEvent method.", ex);
         }
     }
-
-    /**
-     * This method handles search events by producing a message containing the
-     * event data and sending it to the operation queue.
-     *
-     * @param searchEvent the search event message to send
-     * @throws JMSException
-     * @throws NamingException
-     * @throws JsonProcessingException
-     */
-    private void produceSearchEventMessage(Object searchEvent)
-            throws JMSException, NamingException, JsonProcessingException {
-
-        Context context = createInitialContext();
-        JMSContext jmsContext = ((ConnectionFactory) context.lookup(CONNECTION_FACTORY_NAME)).createContext();
-        Queue queue = (Queue) context.lookup(QUEUE_NAME);
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        jmsContext.createProducer().send(queue, mapper.writeValueAsString(searchEvent));
-    }
-
-    /**
-     * This method creates the properties for the Java Message Service and
-     * returns the context created with these properties.
-     *
-     * @return the InitialContext object
-     * @throws JMSException
-     * @throws NamingException
-     */
-    private Context createInitialContext() throws JMSException, NamingException {
-
-        Properties properties = new Properties();
-        properties.setProperty(InitialContext.INITIAL_CONTEXT_FACTORY, INITIAL_CONTEXT_FACTORY_VALUE);
-        properties.setProperty(InitialContext.URL_PKG_PREFIXES, URL_PKG_PREFIXES_VALUE);
-        properties.setProperty(InitialContext.PROVIDER_URL, PROVIDER_URL_VALUE);
-        return new InitialContext(properties);
-    }
 }
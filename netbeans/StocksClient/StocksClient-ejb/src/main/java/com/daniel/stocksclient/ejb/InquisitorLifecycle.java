@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.client.StocksInquisitor;
+import com.daniel.search.metrics.LatencyMetrics;
+import java.lang.management.ManagementFactory;
+import java.text.MessageFormat;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton ties the lifetime of the StocksInquisitor client to the
+ * lifetime of the application so that its pooled connections are released
+ * when the application is undeployed. The latency metrics of the client are
+ * registered in the platform MBean server for the same lifetime.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@Startup
+public class InquisitorLifecycle {
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(InquisitorLifecycle.class);
+
+    /**
+     * This method registers the latency metrics MXBean when the application
+     * starts, replacing any left registered by an earlier deployment.
+     */
+    @PostConstruct
+    public void initialize() {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(LatencyMetrics.OBJECT_NAME);
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+            mBeanServer.registerMBean(LatencyMetrics.getInstance(), objectName);
+        } catch (JMException e) {
+            logger.warn(MessageFormat.format("The latency metrics MXBean could not be registered: {0}",
+                    e.getMessage()));
+        }
+    }
+
+    /**
+     * This method closes the StocksInquisitor client and unregisters the
+     * latency metrics MXBean before the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        StocksInquisitor.shutdown();
+        logger.info("The StocksInquisitor client was shut down.");
+        try {
+            ObjectName objectName = new ObjectName(LatencyMetrics.OBJECT_NAME);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            logger.warn(MessageFormat.format("The latency metrics MXBean could not be unregistered: {0}",
+                    e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.codec.SearchMessageType;
+import java.text.MessageFormat;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.jms.ConnectionFactory;
+import javax.jms.JMSContext;
+import javax.jms.JMSRuntimeException;
+import javax.jms.Queue;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton sends messages to the remote operation queue. The connection
+ * factory and queue are looked up once and kept, and the JMS contexts created
+ * from the factory are kept in a pool and reused by later sends. If a send
+ * fails, the pool and the looked up objects are discarded and the send is
+ * retried once with new ones, so that the producer reconnects after the remote
+ * server restarts.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class OperationQueueProducer {
+
+    /**
+     * The value for the initial context factory
+     */
+    public static final String INITIAL_CONTEXT_FACTORY_VALUE = "com.sun.enterprise.naming.SerialInitContextFactory";
+
+    /**
+     * The value for URL package prefixes
+     */
+    public static final String URL_PKG_PREFIXES_VALUE = "sun.enterprise.naming";
+
+    /**
+     * The value for the provider URL
+     */
+    public static final String PROVIDER_URL_VALUE = "iiop://localhost:3700";
+
+    /**
+     * The Java Message Service context
+     */
+    public static final String CONNECTION_FACTORY_NAME = "OperationQueueConnectionFactory";
+
+    /**
+     * The message queue name
+     */
+    public static final String QUEUE_NAME = "OperationQueue";
+
+    /**
+     * The maximum number of idle JMS contexts kept is a property set in
+     * GlassFish System Properties with this key.
+     */
+    public static final String CONTEXT_POOL_SIZE = "stocks_client_jms_context_pool_size";
+
+    /**
+     * The maximum number of idle JMS contexts used when the property is not
+     * set
+     */
+    private static final int DEFAULT_CONTEXT_POOL_SIZE = 4;
+
+    /**
+     * The looked up connection factory
+     */
+    private ConnectionFactory connectionFactory;
+
+    /**
+     * The looked up queue
+     */
+    private Queue queue;
+
+    /**
+     * The idle JMS contexts
+     */
+    private BlockingQueue<JMSContext> idleContexts;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(OperationQueueProducer.class);
+
+    /**
+     * Creates the pool of idle JMS contexts.
+     */
+    @PostConstruct
+    public void initialize() {
+        idleContexts = new ArrayBlockingQueue<>(Math.max(1,
+                Integer.getInteger(CONTEXT_POOL_SIZE, DEFAULT_CONTEXT_POOL_SIZE)));
+    }
+
+    /**
+     * Closes the idle JMS contexts before the application is stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        closeIdleContexts();
+    }
+
+    /**
+     * Sends the text message to the operation queue, reconnecting once if the
+     * send fails. The type of the message is set in the message type property.
+     *
+     * @param text the text of the message
+     * @param messageType the type of the message
+     * @throws NamingException if the connection factory or queue cannot be
+     * looked up
+     * @throws JMSRuntimeException if the message cannot be sent after
+     * reconnecting
+     */
+    public void send(String text, SearchMessageType messageType) throws NamingException {
+        try {
+            sendWithPooledContext(text, messageType);
+        } catch (JMSRuntimeException e) {
+            logger.warn(MessageFormat.format("Sending to the operation queue failed, reconnecting: {0}",
+                    e.getMessage()));
+            reset();
+            sendWithPooledContext(text, messageType);
+        }
+    }
+
+    /**
+     * Sends the text message with a JMS context taken from the pool, or created
+     * if the pool is empty. The context is returned to the pool after a
+     * successful send and closed after a failed one.
+     *
+     * @param text the text of the message
+     * @param messageType the type of the message
+     * @throws NamingException if the connection factory or queue cannot be
+     * looked up
+     */
+    private void sendWithPooledContext(String text, SearchMessageType messageType) throws NamingException {
+
+        ConnectionFactory factory;
+        Queue destination;
+        synchronized (this) {
+            lookUpDestination();
+            factory = connectionFactory;
+            destination = queue;
+        }
+        JMSContext jmsContext = idleContexts.poll();
+        if (jmsContext == null) {
+            jmsContext = factory.createContext();
+        }
+        try {
+            jmsContext.createProducer().setProperty(SearchMessageType.PROPERTY_NAME, messageType.getValue())
+                    .send(destination, text);
+        } catch (JMSRuntimeException e) {
+            closeQuietly(jmsContext);
+            throw e;
+        }
+        if (!idleContexts.offer(jmsContext)) {
+            closeQuietly(jmsContext);
+        }
+    }
+
+    /**
+     * Looks up the connection factory and the queue if they are not already
+     * known. This is called while holding the lock of this producer.
+     *
+     * @throws NamingException if the lookup fails
+     */
+    private void lookUpDestination() throws NamingException {
+
+        if (connectionFactory != null && queue != null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(InitialContext.INITIAL_CONTEXT_FACTORY, INITIAL_CONTEXT_FACTORY_VALUE);
+        properties.setProperty(InitialContext.URL_PKG_PREFIXES, URL_PKG_PREFIXES_VALUE);
+        properties.setProperty(InitialContext.PROVIDER_URL, PROVIDER_URL_VALUE);
+        Context context = new InitialContext(properties);
+        try {
+            queue = (Queue) context.lookup(QUEUE_NAME);
+            connectionFactory = (ConnectionFactory) context.lookup(CONNECTION_FACTORY_NAME);
+        } finally {
+            context.close();
+        }
+        logger.info("The operation queue connection factory and queue were looked up.");
+    }
+
+    /**
+     * Discards the looked up objects and the idle JMS contexts so that the next
+     * send looks them up again.
+     */
+    private synchronized void reset() {
+        connectionFactory = null;
+        queue = null;
+        closeIdleContexts();
+    }
+
+    /**
+     * Closes every idle JMS context.
+     */
+    private void closeIdleContexts() {
+        JMSContext jmsContext;
+        while ((jmsContext = idleContexts.poll()) != null) {
+            closeQuietly(jmsContext);
+        }
+    }
+
+    /**
+     * Closes the JMS context, logging rather than throwing any failure.
+     *
+     * @param jmsContext the JMS context
+     */
+    private void closeQuietly(JMSContext jmsContext) {
+        try {
+            jmsContext.close();
+        } catch (JMSRuntimeException e) {
+            logger.warn(MessageFormat.format("A JMS context could not be closed: {0}", e.getMessage()));
+        }
+    }
+}
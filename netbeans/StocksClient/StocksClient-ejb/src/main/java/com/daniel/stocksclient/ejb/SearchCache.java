@@ -0,0 +1,254 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class caches search results by key for a fixed time to live. The number
+ * of entries is bounded, and the least recently used entry is evicted when the
+ * bound is exceeded. Concurrent requests for a key that is not cached share a
+ * single load, so only one search is made however many requests arrive while
+ * it is in progress. Null results, and results the cache is told are not worth
+ * keeping, such as empty results, are returned but not cached.
+ *
+ * @param <V> the type of the cached results
+ * @author Bryan Daniel
+ */
+public class SearchCache<V> {
+
+    /**
+     * The time to live of an entry in milliseconds
+     */
+    private final long timeToLive;
+
+    /**
+     * The maximum number of entries
+     */
+    private final int maxEntries;
+
+    /**
+     * The test of whether a result is cached
+     */
+    private final Predicate<V> cacheable;
+
+    /**
+     * The cached entries in order of access, least recent first
+     */
+    private final LinkedHashMap<String, Entry<V>> entries;
+
+    /**
+     * The loads in progress keyed by the key being loaded
+     */
+    private final ConcurrentMap<String, CompletableFuture<V>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * The number of requests answered from the cache
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * The number of requests not answered from the cache
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * The number of missed requests that shared a load already in progress
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * The number of entries evicted to respect the maximum number of entries
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * The number of entries removed because their time to live had passed
+     */
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * This constructor sets the time to live, the maximum number of entries
+     * and the test of whether a result is cached.
+     *
+     * @param timeToLive the time to live of an entry in milliseconds
+     * @param maxEntries the maximum number of entries
+     * @param cacheable the test of whether a non-null result is cached
+     */
+    public SearchCache(long timeToLive, int maxEntries, Predicate<V> cacheable) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.cacheable = cacheable;
+        this.entries = new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                if (size() > SearchCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached result for the key if it is present and live.
+     * Otherwise the result is loaded, unless a load for the key is already in
+     * progress, in which case the future of that load is returned.
+     *
+     * @param key the key, which is not cached if null
+     * @param loader the supplier starting a load of the result
+     * @return the future result
+     */
+    public CompletableFuture<V> get(String key, Supplier<CompletableFuture<V>> loader) {
+
+        if (key == null) {
+            return loader.get();
+        }
+
+        V value = getIfPresent(key);
+        if (value != null) {
+            hits.incrementAndGet();
+            return CompletableFuture.completedFuture(value);
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> existingLoad = loads.putIfAbsent(key, load);
+        if (existingLoad != null) {
+            coalesced.incrementAndGet();
+            return existingLoad;
+        }
+
+        CompletableFuture<V> search;
+        try {
+            search = loader.get();
+        } catch (RuntimeException e) {
+            loads.remove(key, load);
+            load.completeExceptionally(e);
+            return load;
+        }
+        search.whenComplete((result, exception) -> {
+            // the result is cached before the load is removed so that no request can miss both
+            if (exception == null && result != null && cacheable.test(result)) {
+                put(key, result);
+            }
+            loads.remove(key, load);
+            if (exception != null) {
+                load.completeExceptionally(exception);
+            } else {
+                load.complete(result);
+            }
+        });
+        return load;
+    }
+
+    /**
+     * Removes every entry from the cache.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Gets the current statistics of the cache.
+     *
+     * @return the cache statistics
+     */
+    public CacheStatistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStatistics(size, maxEntries, timeToLive, hits.get(), misses.get(), coalesced.get(),
+                evictions.get(), expirations.get());
+    }
+
+    /**
+     * Returns the live value cached for the key, removing the entry if its time
+     * to live has passed.
+     *
+     * @param key the key
+     * @return the value, or null if no live value is cached
+     */
+    private V getIfPresent(String key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expires <= System.currentTimeMillis()) {
+                entries.remove(key);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    /**
+     * Caches the value for the key.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    private void put(String key, V value) {
+        synchronized (entries) {
+            entries.put(key, new Entry<>(value, System.currentTimeMillis() + timeToLive));
+        }
+    }
+
+    /**
+     * A cached value with its expiry time.
+     *
+     * @param <V> the type of the value
+     */
+    private static class Entry<V> {
+
+        /**
+         * The cached value
+         */
+        private final V value;
+
+        /**
+         * The time in milliseconds at which the value expires
+         */
+        private final long expires;
+
+        /**
+         * This constructor sets the value and its expiry time.
+         *
+         * @param value the value
+         * @param expires the expiry time in milliseconds
+         */
+        private Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
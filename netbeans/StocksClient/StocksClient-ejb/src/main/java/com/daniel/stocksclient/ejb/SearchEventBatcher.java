@@ -0,0 +1,384 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.batch.SearchEventBatch;
+import com.daniel.search.codec.SearchMessageType;
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.DependsOn;
+import javax.ejb.EJB;
+import javax.ejb.EJBException;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.ejb.Startup;
+import javax.ejb.Timeout;
+import javax.ejb.TimerConfig;
+import javax.ejb.TimerService;
+import javax.ejb.TransactionAttribute;
+import javax.ejb.TransactionAttributeType;
+import javax.naming.NamingException;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton buffers search events and sends them to the operation queue
+ * in batches. A batch is sent as soon as the buffer holds the batch size, and
+ * whatever is buffered is sent at every flush interval, so no event waits
+ * longer than the interval. A batch of one event is sent as a single event
+ * message, and a larger batch is sent as one message holding every event. If
+ * the buffer is full, events are sent by the thread adding them until there is
+ * room again. A batch that cannot be sent is kept and sent again at the
+ * following flush intervals, up to the configured number of attempts. Events
+ * are dropped, and counted, only when those attempts fail, when the buffer has
+ * no room while sending fails, or when they cannot be written as a message.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@Startup
+@LocalBean
+@DependsOn("OperationQueueProducer")
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+@TransactionAttribute(TransactionAttributeType.NOT_SUPPORTED)
+public class SearchEventBatcher {
+
+    /**
+     * The number of events sent in one message is a property set in GlassFish
+     * System Properties with this key.
+     */
+    public static final String BATCH_SIZE = "stocks_client_event_batch_size";
+
+    /**
+     * The longest time in milliseconds an event is buffered is a property set
+     * in GlassFish System Properties with this key.
+     */
+    public static final String FLUSH_INTERVAL = "stocks_client_event_flush_interval";
+
+    /**
+     * The maximum number of buffered events is a property set in GlassFish
+     * System Properties with this key.
+     */
+    public static final String BUFFER_CAPACITY = "stocks_client_event_buffer_capacity";
+
+    /**
+     * The number of times a batch is sent before its events are dropped is a
+     * property set in GlassFish System Properties with this key.
+     */
+    public static final String SEND_ATTEMPTS = "stocks_client_event_send_attempts";
+
+    /**
+     * The batch size used when the property is not set
+     */
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    /**
+     * The flush interval used when the property is not set
+     */
+    private static final long DEFAULT_FLUSH_INTERVAL = 1000;
+
+    /**
+     * The buffer capacity used when the property is not set
+     */
+    private static final int DEFAULT_BUFFER_CAPACITY = 1000;
+
+    /**
+     * The send attempts used when the property is not set
+     */
+    private static final int DEFAULT_SEND_ATTEMPTS = 5;
+
+    /**
+     * The timer service
+     */
+    @Resource
+    private TimerService timerService;
+
+    /**
+     * The producer for the operation queue
+     */
+    @EJB
+    private OperationQueueProducer operationQueueProducer;
+
+    /**
+     * The number of events sent in one message
+     */
+    private int batchSize;
+
+    /**
+     * The buffered events, either stock price or stock history search events
+     */
+    private BlockingQueue<Object> buffer;
+
+    /**
+     * The number of times a batch is sent before its events are dropped
+     */
+    private int sendAttempts;
+
+    /**
+     * The batch kept after failing to be sent, or null
+     */
+    private List<Object> failedBatch;
+
+    /**
+     * The number of times the kept batch has been sent
+     */
+    private int failedBatchAttempts;
+
+    /**
+     * The number of events dropped since the application started
+     */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(SearchEventBatcher.class);
+
+    /**
+     * Creates the buffer and starts the flush timer.
+     */
+    @PostConstruct
+    public void initialize() {
+        batchSize = Math.max(1, Integer.getInteger(BATCH_SIZE, DEFAULT_BATCH_SIZE));
+        int capacity = Math.max(batchSize, Integer.getInteger(BUFFER_CAPACITY, DEFAULT_BUFFER_CAPACITY));
+        long flushInterval = Math.max(1, Long.getLong(FLUSH_INTERVAL, DEFAULT_FLUSH_INTERVAL));
+        sendAttempts = Math.max(1, Integer.getInteger(SEND_ATTEMPTS, DEFAULT_SEND_ATTEMPTS));
+        buffer = new ArrayBlockingQueue<>(capacity);
+        timerService.createIntervalTimer(flushInterval, flushInterval, new TimerConfig(null, false));
+        logger.info(MessageFormat.format("Search events are sent in batches of {0} at least every {1} ms.",
+                batchSize, flushInterval));
+    }
+
+    /**
+     * Sends the buffered events before the application is stopped. The events
+     * that still cannot be sent are dropped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        int unsent = buffer.size();
+        synchronized (this) {
+            unsent += failedBatch != null ? failedBatch.size() : 0;
+        }
+        if (unsent > 0) {
+            drop(unsent);
+        }
+    }
+
+    /**
+     * Adds the stock price search event to the buffer.
+     *
+     * @param stockPriceSearchEvent the stock price search event
+     */
+    public void add(StockPriceSearchEvent stockPriceSearchEvent) {
+        buffer(stockPriceSearchEvent);
+    }
+
+    /**
+     * Adds the stock history search event to the buffer.
+     *
+     * @param historicalStockPriceSearchEvent the stock history search event
+     */
+    public void add(HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent) {
+        buffer(historicalStockPriceSearchEvent);
+    }
+
+    /**
+     * Sends the kept batch and then everything buffered when the flush
+     * interval elapses. If the kept batch still cannot be sent, the buffer is
+     * left for the next interval.
+     */
+    @Timeout
+    public void flush() {
+        if (!retryFailedBatch()) {
+            return;
+        }
+        while (sendBatch()) {
+            // batches are sent until the buffer is empty
+        }
+    }
+
+    /**
+     * Adds the event to the buffer and sends a batch if the buffer holds at
+     * least the batch size. If the buffer is full, batches are sent until the
+     * event fits. If a batch cannot be sent, the event is dropped unless the
+     * batch taken left room for it.
+     *
+     * @param searchEvent the search event
+     */
+    private void buffer(Object searchEvent) {
+        while (!buffer.offer(searchEvent)) {
+            if (!sendBatch()) {
+                if (!buffer.offer(searchEvent)) {
+                    drop(1);
+                }
+                return;
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            sendBatch();
+        }
+    }
+
+    /**
+     * Takes up to the batch size of events from the buffer and sends them. A
+     * batch that cannot be sent is kept to be sent again.
+     *
+     * @return true if events were taken from the buffer and sent
+     */
+    private boolean sendBatch() {
+
+        List<Object> searchEvents = new ArrayList<>(batchSize);
+        buffer.drainTo(searchEvents, batchSize);
+        if (searchEvents.isEmpty()) {
+            return false;
+        }
+        if (send(searchEvents)) {
+            return true;
+        }
+        keepFailedBatch(searchEvents, 1);
+        return false;
+    }
+
+    /**
+     * Sends the kept batch again. If it fails for the last allowed time, its
+     * events are dropped.
+     *
+     * @return true if there was no kept batch or it was sent
+     */
+    private boolean retryFailedBatch() {
+
+        List<Object> searchEvents;
+        int attempts;
+        synchronized (this) {
+            searchEvents = failedBatch;
+            attempts = failedBatchAttempts;
+            failedBatch = null;
+        }
+        if (searchEvents == null || send(searchEvents)) {
+            return true;
+        }
+        if (attempts + 1 >= sendAttempts) {
+            logger.error(MessageFormat.format("A batch of {0} search events was dropped after {1} attempts.",
+                    searchEvents.size(), attempts + 1));
+            drop(searchEvents.size());
+        } else {
+            keepFailedBatch(searchEvents, attempts + 1);
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the batch that failed to be sent. If another batch is already
+     * kept, the events are returned to the buffer instead, and those that do
+     * not fit are dropped.
+     *
+     * @param searchEvents the events of the batch
+     * @param attempts the number of times the batch has been sent
+     */
+    private void keepFailedBatch(List<Object> searchEvents, int attempts) {
+        synchronized (this) {
+            if (failedBatch == null) {
+                failedBatch = searchEvents;
+                failedBatchAttempts = attempts;
+                return;
+            }
+        }
+        int returned = 0;
+        for (Object searchEvent : searchEvents) {
+            if (buffer.offer(searchEvent)) {
+                returned++;
+            }
+        }
+        if (returned < searchEvents.size()) {
+            drop(searchEvents.size() - returned);
+        }
+    }
+
+    /**
+     * Counts the dropped events.
+     *
+     * @param count the number of events dropped
+     */
+    private void drop(int count) {
+        logger.warn(MessageFormat.format("{0} search events were dropped, {1} since the application started.",
+                count, droppedEvents.addAndGet(count)));
+    }
+
+    /**
+     * Sends the events in one message. Events that cannot be written as a
+     * message are dropped, since sending them again would fail again.
+     *
+     * @param searchEvents the events
+     * @return false if the message could not be sent and may be sent later
+     */
+    private boolean send(List<Object> searchEvents) {
+
+        StocksSearchCodec codec = StocksSearchCodec.getInstance();
+        String message;
+        SearchMessageType messageType;
+        try {
+            if (searchEvents.size() == 1) {
+                Object searchEvent = searchEvents.get(0);
+                if (searchEvent instanceof StockPriceSearchEvent) {
+                    message = codec.getPriceEventWriter().writeValueAsString(searchEvent);
+                    messageType = SearchMessageType.PRICE;
+                } else {
+                    message = codec.getHistoryEventWriter().writeValueAsString(searchEvent);
+                    messageType = SearchMessageType.HISTORY;
+                }
+            } else {
+                SearchEventBatch searchEventBatch = new SearchEventBatch();
+                searchEvents.forEach(searchEvent -> {
+                    if (searchEvent instanceof StockPriceSearchEvent) {
+                        searchEventBatch.getStockPriceSearchEvents().add((StockPriceSearchEvent) searchEvent);
+                    } else {
+                        searchEventBatch.getHistoricalStockPriceSearchEvents()
+                                .add((HistoricalStockPriceSearchEvent) searchEvent);
+                    }
+                });
+                message = codec.getBatchWriter().writeValueAsString(searchEventBatch);
+                messageType = SearchMessageType.BATCH;
+            }
+        } catch (JsonProcessingException ex) {
+            logger.error(MessageFormat.format("A batch of {0} search events could not be written.",
+                    searchEvents.size()), ex);
+            drop(searchEvents.size());
+            return true;
+        }
+        try {
+            operationQueueProducer.send(message, messageType);
+            return true;
+        } catch (NamingException | EJBException ex) {
+            logger.warn(MessageFormat.format("A batch of {0} search events could not be sent and is kept: {1}",
+                    searchEvents.size(), ex.getMessage()));
+            return false;
+        }
+    }
+}
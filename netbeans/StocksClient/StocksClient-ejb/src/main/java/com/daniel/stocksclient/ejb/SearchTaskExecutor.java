@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import java.text.MessageFormat;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton runs stock search tasks on the container-managed executor. The
+ * number of tasks running or waiting to run is bounded, and a task submitted
+ * when the bound is reached is rejected at once rather than queued behind a
+ * saturated web service.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class SearchTaskExecutor {
+
+    /**
+     * The maximum number of pending searches is a property set in GlassFish
+     * System Properties with this key.
+     */
+    public static final String MAX_PENDING_SEARCHES = "stocks_client_max_pending_searches";
+
+    /**
+     * The maximum number of pending searches used when the property is not set
+     */
+    private static final int DEFAULT_MAX_PENDING_SEARCHES = 40;
+
+    /**
+     * The container-managed executor
+     */
+    @Resource
+    private ManagedExecutorService executorService;
+
+    /**
+     * The maximum number of tasks running or waiting to run
+     */
+    private int maxPendingSearches;
+
+    /**
+     * The permits of the tasks running or waiting to run
+     */
+    private Semaphore permits;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(SearchTaskExecutor.class);
+
+    /**
+     * Reads the bound on pending searches.
+     */
+    @PostConstruct
+    public void initialize() {
+        maxPendingSearches = Math.max(1, Integer.getInteger(MAX_PENDING_SEARCHES, DEFAULT_MAX_PENDING_SEARCHES));
+        permits = new Semaphore(maxPendingSearches);
+        logger.info(MessageFormat.format("The search task executor allows {0} pending searches.",
+                maxPendingSearches));
+    }
+
+    /**
+     * Submits the task to the executor. The returned future completes with the
+     * result of the task, or exceptionally with the exception thrown by the
+     * task or with a RejectedExecutionException if the task was not accepted.
+     *
+     * @param <T> the type of the task result
+     * @param task the task
+     * @return the future result of the task
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            execute(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Exception e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Gets an executor that runs commands within the bound on pending searches.
+     * The executor throws RejectedExecutionException directly to its caller,
+     * rather than through the container, when a command is not accepted.
+     *
+     * @return the bounded executor
+     */
+    public Executor getExecutor() {
+        return this::execute;
+    }
+
+    /**
+     * Runs the command on the executor if the bound on pending searches has
+     * not been reached.
+     *
+     * @param command the command
+     * @throws RejectedExecutionException if the bound has been reached or the
+     * executor does not accept the command
+     */
+    private void execute(Runnable command) {
+
+        if (!permits.tryAcquire()) {
+            logger.warn(MessageFormat.format("A stock search was rejected with {0} searches pending.",
+                    maxPendingSearches));
+            throw new RejectedExecutionException(MessageFormat.format(
+                    "The limit of {0} pending stock searches has been reached.", maxPendingSearches));
+        }
+        try {
+            executorService.execute(() -> {
+                try {
+                    command.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+}
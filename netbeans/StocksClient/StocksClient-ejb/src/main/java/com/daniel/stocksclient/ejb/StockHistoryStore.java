@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+
+/**
+ * This singleton remembers the daily prices already retrieved for each stock
+ * symbol, so that a later history search only needs to request the days after
+ * the last one known. One year of history is kept for each symbol, and the
+ * least recently used symbol is forgotten once the maximum number of symbols
+ * is exceeded.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class StockHistoryStore {
+
+    /**
+     * The number of years of history kept for each symbol
+     */
+    public static final int HISTORY_YEARS = 1;
+
+    /**
+     * The known history of each symbol in order of access, least recent first
+     */
+    private Map<String, HistoricalStockPriceSeries> histories;
+
+    /**
+     * Creates the store, bounded by the same maximum number of symbols as the
+     * stock search caches.
+     */
+    @PostConstruct
+    public void initialize() {
+        int maxEntries = Math.max(1, Integer.getInteger(StockSearchCache.MAX_ENTRIES,
+                StockSearchCache.DEFAULT_MAX_ENTRIES));
+        histories = new LinkedHashMap<String, HistoricalStockPriceSeries>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HistoricalStockPriceSeries> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the date from which the history of the symbol must be requested.
+     * This is the day after the last known day, or one year ago if nothing is
+     * known. The current day is always requested again because its prices
+     * change until the market closes.
+     *
+     * @param key the stock search cache key of the symbol
+     * @param today the current date
+     * @return the start date for the history retrieval
+     */
+    public LocalDate getDateFrom(String key, LocalDate today) {
+        LocalDate windowStart = today.minusYears(HISTORY_YEARS);
+        HistoricalStockPriceSeries known;
+        synchronized (histories) {
+            known = histories.get(key);
+        }
+        if (known == null || known.isEmpty()) {
+            return windowStart;
+        }
+        LocalDate dayAfterLast = known.getDate(known.size() - 1).plusDays(1);
+        if (dayAfterLast.isAfter(today)) {
+            return today;
+        }
+        return dayAfterLast.isBefore(windowStart) ? windowStart : dayAfterLast;
+    }
+
+    /**
+     * Merges newly retrieved days into the known history of the symbol, with
+     * the new prices replacing the known prices of the same day, and returns
+     * the merged history within the kept window.
+     *
+     * @param key the stock search cache key of the symbol
+     * @param retrieved the newly retrieved history
+     * @param today the current date
+     * @return the merged history
+     */
+    public HistoricalStockPriceSeries merge(String key, HistoricalStockPriceSeries retrieved, LocalDate today) {
+        synchronized (histories) {
+            HistoricalStockPriceSeries known = histories.get(key);
+            HistoricalStockPriceSeries.Builder builder = new HistoricalStockPriceSeries.Builder();
+            if (known != null) {
+                builder.setName(known.getName()).addAll(known);
+            }
+            if (retrieved.getName() != null) {
+                builder.setName(retrieved.getName());
+            }
+            HistoricalStockPriceSeries merged = builder.addAll(retrieved).build()
+                    .slice(today.minusYears(HISTORY_YEARS), today);
+            histories.put(key, merged);
+            return merged;
+        }
+    }
+}
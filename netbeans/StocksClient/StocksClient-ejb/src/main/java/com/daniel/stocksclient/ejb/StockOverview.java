@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPriceSearchResult;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * This class holds the price and the history of a stock, which are searched
+ * for together to display the stock.
+ *
+ * @author Bryan Daniel
+ */
+@JsonPropertyOrder({
+    "price",
+    "history"
+})
+public class StockOverview {
+
+    /**
+     * The stock price result
+     */
+    @JsonProperty("price")
+    private StockPriceSearchResult price;
+
+    /**
+     * The stock history result
+     */
+    @JsonProperty("history")
+    private HistoricalStockPriceSeries history;
+
+    /**
+     * This default constructor leaves the price and history null.
+     */
+    public StockOverview() {
+    }
+
+    /**
+     * This parameterized constructor sets the price and history.
+     *
+     * @param price the stock price result
+     * @param history the stock history result
+     */
+    public StockOverview(StockPriceSearchResult price, HistoricalStockPriceSeries history) {
+        this.price = price;
+        this.history = history;
+    }
+
+    /**
+     * Gets the value of price.
+     *
+     * @return the value of price
+     */
+    public StockPriceSearchResult getPrice() {
+        return price;
+    }
+
+    /**
+     * Sets the value of price.
+     *
+     * @param price the price to set
+     */
+    public void setPrice(StockPriceSearchResult price) {
+        this.price = price;
+    }
+
+    /**
+     * Gets the value of history.
+     *
+     * @return the value of history
+     */
+    public HistoricalStockPriceSeries getHistory() {
+        return history;
+    }
+
+    /**
+     * Sets the value of history.
+     *
+     * @param history the history to set
+     */
+    public void setHistory(HistoricalStockPriceSeries history) {
+        this.history = history;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.stocksclient.ejb;
+
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPriceSearchResult;
+import java.text.MessageFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import javax.ejb.ConcurrencyManagement;
+import javax.ejb.ConcurrencyManagementType;
+import javax.ejb.LocalBean;
+import javax.ejb.Singleton;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This singleton holds the caches of stock search results shared by all
+ * searches in the stocks client. Quotes change during the trading day and are
+ * kept briefly, while the history of past days never changes and is kept
+ * longer. A quote without price data and an empty history are not cached, so
+ * a failed search is made again by the next request.
+ *
+ * @author Bryan Daniel
+ */
+@Singleton
+@LocalBean
+@ConcurrencyManagement(ConcurrencyManagementType.BEAN)
+public class StockSearchCache {
+
+    /**
+     * The time to live of a cached quote in milliseconds is a property set in
+     * GlassFish System Properties with this key.
+     */
+    public static final String QUOTE_TTL = "stocks_client_quote_ttl";
+
+    /**
+     * The time to live of a cached history in milliseconds is a property set
+     * in GlassFish System Properties with this key.
+     */
+    public static final String HISTORY_TTL = "stocks_client_history_ttl";
+
+    /**
+     * The maximum number of symbols in each cache is a property set in
+     * GlassFish System Properties with this key.
+     */
+    public static final String MAX_ENTRIES = "stocks_client_cache_max_entries";
+
+    /**
+     * The time to live of a cached quote used when the property is not set
+     */
+    private static final long DEFAULT_QUOTE_TTL = 15000;
+
+    /**
+     * The time to live of a cached history used when the property is not set
+     */
+    private static final long DEFAULT_HISTORY_TTL = 900000;
+
+    /**
+     * The maximum number of symbols in each cache used when the property is
+     * not set
+     */
+    static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    /**
+     * The cache of stock price results
+     */
+    private SearchCache<StockPriceSearchResult> quoteCache;
+
+    /**
+     * The cache of stock history results
+     */
+    private SearchCache<HistoricalStockPriceSeries> historyCache;
+
+    /**
+     * The logger for this class
+     */
+    private final Logger logger = LogManager.getLogger(StockSearchCache.class);
+
+    /**
+     * Creates the caches with the settings found in the system properties.
+     */
+    @PostConstruct
+    public void initialize() {
+        long quoteTimeToLive = Long.getLong(QUOTE_TTL, DEFAULT_QUOTE_TTL);
+        long historyTimeToLive = Long.getLong(HISTORY_TTL, DEFAULT_HISTORY_TTL);
+        int maxEntries = Integer.getInteger(MAX_ENTRIES, DEFAULT_MAX_ENTRIES);
+        quoteCache = new SearchCache<>(quoteTimeToLive, maxEntries, stockPriceSearchResult
+                -> stockPriceSearchResult.getStockPriceData() != null
+                && !stockPriceSearchResult.getStockPriceData().isEmpty());
+        historyCache = new SearchCache<>(historyTimeToLive, maxEntries, historicalStockPriceSeries
+                -> !historicalStockPriceSeries.isEmpty());
+        logger.info(MessageFormat.format("Stock search caches created with quote TTL {0} ms, history TTL {1} ms "
+                + "and {2} entries.", quoteTimeToLive, historyTimeToLive, maxEntries));
+    }
+
+    /**
+     * Returns the cache key for the stock symbol.
+     *
+     * @param stockSymbol the stock symbol
+     * @return the key, or null if the symbol is null
+     */
+    public static String toKey(String stockSymbol) {
+        return stockSymbol != null ? stockSymbol.trim().toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Gets the cache of stock price results.
+     *
+     * @return the quote cache
+     */
+    public SearchCache<StockPriceSearchResult> getQuoteCache() {
+        return quoteCache;
+    }
+
+    /**
+     * Gets the cache of stock history results.
+     *
+     * @return the history cache
+     */
+    public SearchCache<HistoricalStockPriceSeries> getHistoryCache() {
+        return historyCache;
+    }
+
+    /**
+     * Gets the current statistics of both caches, keyed by cache name.
+     *
+     * @return the cache statistics
+     */
+    public Map<String, CacheStatistics> getStatistics() {
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("quotes", quoteCache.getStatistics());
+        statistics.put("history", historyCache.getStatistics());
+        return statistics;
+    }
+}
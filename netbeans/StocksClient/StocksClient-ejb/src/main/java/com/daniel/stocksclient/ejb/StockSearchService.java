@@ -15,8 +15,11 @@
  */
 package com.daniel.stocksclient.ejb;
 
-import com.daniel.search.history.HistoricalStockPriceSearchResult;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPriceBatchSearch;
 import com.daniel.search.price.StockPriceSearchResult;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
 import javax.ejb.Local;
 
 /**
@@ -30,19 +33,56 @@ public interface StockSearchService {
 
     /**
      * This method passes the given stock symbol to the stocks web service to
-     * return the price and associated stock information.
+     * return the price and associated stock information. A recent result for
+     * the symbol is returned from the quote cache, and concurrent requests for
+     * the same symbol share one search. The search runs on the search task
+     * executor, and the returned future completes exceptionally with a
+     * RejectedExecutionException if the executor does not accept it, or with
+     * the exception that failed the search.
      *
      * @param stockSymbol the stock symbol
-     * @return the stock price result or null if an exception occurs
+     * @return the future stock price result
      */
-    public StockPriceSearchResult findStockPrice(String stockSymbol);
+    public CompletableFuture<StockPriceSearchResult> findStockPrice(String stockSymbol);
+
+    /**
+     * This method passes the given stock symbols to the stocks web service in
+     * batches to return the prices and associated stock information of every
+     * symbol, along with the reason any symbol failed. The batches run on the
+     * search task executor, and a batch it does not accept is reported as
+     * failed.
+     *
+     * @param stockSymbols the stock symbols
+     * @return the future stock price batch search
+     */
+    public CompletableFuture<StockPriceBatchSearch> findStockPrices(Collection<String> stockSymbols);
 
     /**
      * This method passes the given stock symbol to the stocks web service to
-     * return the historical stock data.
+     * return the last year of historical stock data. Only the days after the
+     * last day already retrieved for the symbol are requested and merged with
+     * the known days. A recent result for the symbol is returned from the
+     * history cache, and concurrent requests for the same symbol share one
+     * search. The search runs on the search task executor, and the returned
+     * future completes exceptionally with a RejectedExecutionException if the
+     * executor does not accept it, or with the exception that failed the
+     * search.
+     *
+     * @param stockSymbol the stock symbol
+     * @return the future stock history result
+     */
+    public CompletableFuture<HistoricalStockPriceSeries> findStockHistory(String stockSymbol);
+
+    /**
+     * This method searches for the price and the history of the given stock
+     * symbol concurrently and returns both together. The returned future
+     * completes exceptionally with a RejectedExecutionException if the search
+     * task executor does not accept one of the searches, or with the exception
+     * that failed the price search if both searches fail.
      *
      * @param stockSymbol the stock symbol
-     * @return the stock history result or null if an exception occurs
+     * @return the future stock overview, whose price or history is null if
+     * only that search failed
      */
-    public HistoricalStockPriceSearchResult findStockHistory(String stockSymbol);
+    public CompletableFuture<StockOverview> findStockOverview(String stockSymbol);
 }
@@ -15,18 +15,20 @@
  */
 package com.daniel.stocksclient.ejb;
 
+import com.daniel.search.price.StockPriceBatchSearch;
 import com.daniel.search.price.StockPriceSearchResult;
-import com.daniel.search.price.StockPriceSearchEvent;
 import com.daniel.search.client.StocksInquisitor;
-import com.daniel.search.history.HistoricalStockPriceSearchEvent;
-import com.daniel.search.history.HistoricalStockPriceSearchResult;
-import java.io.IOException;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.task.StockPriceHistorySearchTask;
+import com.daniel.search.task.StockPriceSearchTask;
 import java.text.MessageFormat;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import javax.ejb.EJB;
 import javax.ejb.Stateless;
-import javax.ws.rs.ProcessingException;
-import javax.ws.rs.WebApplicationException;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -50,40 +52,110 @@ public class StockSearchServiceImpl extends StockSearchTemplate implements Stock
     @EJB
     private EventPropagator eventPropagator;
 
+    /**
+     * The executor running the search tasks
+     */
+    @EJB
+    private SearchTaskExecutor searchTaskExecutor;
+
+    /**
+     * The caches of search results
+     */
+    @EJB
+    private StockSearchCache stockSearchCache;
+
+    /**
+     * The history already retrieved for each symbol
+     */
+    @EJB
+    private StockHistoryStore stockHistoryStore;
+
+    @Override
+    public CompletableFuture<StockPriceSearchResult> findStockPrice(String stockSymbol) {
+
+        return stockSearchCache.getQuoteCache().get(StockSearchCache.toKey(stockSymbol), ()
+                -> searchTaskExecutor.submit(new StockPriceSearchTask(stockSymbol, getApiToken()))
+                        .handle((stockPriceSearchEvent, exception) -> {
+                            if (exception != null) {
+                                throw handleSearchException(exception, stockSymbol, logger);
+                            }
+                            eventPropagator.fireSearchEvent(stockPriceSearchEvent);
+                            logger.info(MessageFormat.format("A stock price search was successfully performed for stock symbol: {0}",
+                                    stockSymbol));
+                            return stockPriceSearchEvent.getStockPriceSearchResult();
+                        }));
+    }
+
     @Override
-    public StockPriceSearchResult findStockPrice(String stockSymbol) {
-
-        String apiToken = getApiToken();
-        StockPriceSearchEvent stockPriceSearchEvent = null;
-        try {
-            StocksInquisitor inquisitor = StocksInquisitor.getInstance();
-            stockPriceSearchEvent = inquisitor.findStockPrice(stockSymbol, apiToken);
-            eventPropagator.fireSearchEvent(stockPriceSearchEvent);
-            logger.info(MessageFormat.format("A stock price search was successfully performed for stock symbol: {0}",
-                    stockSymbol));
-        } catch (ProcessingException | WebApplicationException | NullPointerException | IOException e) {
-            logException(e, stockSymbol, logger);
-        }
-        return stockPriceSearchEvent != null ? stockPriceSearchEvent.getStockPriceSearchResult() : null;
+    public CompletableFuture<StockPriceBatchSearch> findStockPrices(Collection<String> stockSymbols) {
+
+        StocksInquisitor inquisitor = StocksInquisitor.getInstance();
+        return inquisitor.findStockPrices(stockSymbols, getApiToken(), searchTaskExecutor.getExecutor())
+                .thenApply(stockPriceBatchSearch -> {
+                    stockPriceBatchSearch.getStockPriceSearchEvents().forEach(eventPropagator::fireSearchEvent);
+                    logger.info(MessageFormat.format("A stock price search was performed for {0} stock symbols with {1} failures.",
+                            stockPriceBatchSearch.getStockPriceSearchResult().getSymbolsRequested(),
+                            stockPriceBatchSearch.getFailedSymbols().size()));
+                    return stockPriceBatchSearch;
+                });
     }
 
     @Override
-    public HistoricalStockPriceSearchResult findStockHistory(String stockSymbol) {
-        
-        String apiToken = getApiToken();
-        HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = null;
-        try {
-            StocksInquisitor inquisitor = StocksInquisitor.getInstance();
-            LocalDate dateFrom = LocalDate.now().minusYears(1);
-            historicalStockPriceSearchEvent = inquisitor.findStockPriceHistory(stockSymbol, apiToken, dateFrom);
-            eventPropagator.fireSearchEvent(historicalStockPriceSearchEvent);
-            logger.info(MessageFormat.format("A stock history search was successfully performed for stock symbol: {0}",
-                    stockSymbol));
-        } catch (ProcessingException | WebApplicationException | NullPointerException | IOException e) {
-            logException(e, stockSymbol, logger);
-        }
-        return historicalStockPriceSearchEvent != null
-                ? historicalStockPriceSearchEvent.getHistoricalStockPriceSearchResult()
-                : null;
+    public CompletableFuture<HistoricalStockPriceSeries> findStockHistory(String stockSymbol) {
+
+        String key = StockSearchCache.toKey(stockSymbol);
+        return stockSearchCache.getHistoryCache().get(key, () -> {
+            // only the days after the last known day are requested
+            LocalDate today = LocalDate.now();
+            LocalDate dateFrom = stockHistoryStore.getDateFrom(key, today);
+            return searchTaskExecutor.submit(new StockPriceHistorySearchTask(stockSymbol, getApiToken(), dateFrom))
+                    .handle((historicalStockPriceSearchEvent, exception) -> {
+                        if (exception != null) {
+                            throw handleSearchException(exception, stockSymbol, logger);
+                        }
+                        HistoricalStockPriceSeries merged = stockHistoryStore.merge(key,
+                                historicalStockPriceSearchEvent.getHistoricalStockPriceSeries(), today);
+                        // the event carries the whole series returned, as when a full year was requested
+                        historicalStockPriceSearchEvent.setHistoricalStockPriceSeries(merged);
+                        eventPropagator.fireSearchEvent(historicalStockPriceSearchEvent);
+                        logger.info(MessageFormat.format("A stock history search from {1} was successfully performed for stock symbol: {0}",
+                                stockSymbol, dateFrom));
+                        return merged;
+                    });
+        });
+    }
+
+    @Override
+    public CompletableFuture<StockOverview> findStockOverview(String stockSymbol) {
+
+        CompletableFuture<StockPriceSearchResult> price = findStockPrice(stockSymbol);
+        CompletableFuture<HistoricalStockPriceSeries> history = findStockHistory(stockSymbol);
+        return CompletableFuture.allOf(price, history).handle((ignored, exception) -> {
+            // a part that failed is left null, unless both failed or a search was rejected
+            Throwable priceFailure = findFailure(price);
+            Throwable historyFailure = findFailure(history);
+            if (historyFailure instanceof RejectedExecutionException) {
+                throw new CompletionException(historyFailure);
+            }
+            if (priceFailure instanceof RejectedExecutionException
+                    || priceFailure != null && historyFailure != null) {
+                throw new CompletionException(priceFailure);
+            }
+            return new StockOverview(priceFailure == null ? price.join() : null,
+                    historyFailure == null ? history.join() : null);
+        });
+    }
+
+    /**
+     * Returns the cause of the failure of a completed search.
+     *
+     * @param search the completed search
+     * @return the cause of the failure, or null if the search succeeded
+     */
+    private static Throwable findFailure(CompletableFuture<?> search) {
+        Throwable exception = search.handle((result, failure) -> failure).join();
+        return exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
     }
 }
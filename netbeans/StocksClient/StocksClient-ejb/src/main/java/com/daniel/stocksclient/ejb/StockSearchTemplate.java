@@ -17,6 +17,8 @@ package com.daniel.stocksclient.ejb;
 
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import javax.ws.rs.NotFoundException;
 import org.apache.log4j.Logger;
 
@@ -42,6 +44,30 @@ public class StockSearchTemplate {
         return System.getProperty(WORLD_TRADING_API_TOKEN);
     }
 
+    /**
+     * Handles the exception that failed a search task for the given stock
+     * symbol. Any exception other than a rejection is logged, and the exception
+     * is returned wrapped in a CompletionException for the caller to throw, so
+     * that the search completes exceptionally and the cause can be reported.
+     *
+     * @param exception the exception, which may be wrapped in a
+     * CompletionException
+     * @param stockSymbol the stock symbol
+     * @param logger the logger to use
+     * @return the CompletionException to throw
+     */
+    protected CompletionException handleSearchException(Throwable exception, String stockSymbol, Logger logger) {
+        Throwable cause = exception instanceof CompletionException && exception.getCause() != null
+                ? exception.getCause()
+                : exception;
+        if (!(cause instanceof RejectedExecutionException)) {
+            logException(cause, stockSymbol, logger);
+        }
+        return exception instanceof CompletionException
+                ? (CompletionException) exception
+                : new CompletionException(exception);
+    }
+
     /**
      * Logs the exception for the given stock symbol.
      *
@@ -49,7 +75,7 @@ public class StockSearchTemplate {
      * @param stockSymbol the stock symbol
      * @param logger the logger to use
      */
-    protected void logException(Exception exception, String stockSymbol, Logger logger) {
+    protected void logException(Throwable exception, String stockSymbol, Logger logger) {
         if (NotFoundException.class.isInstance(exception)) {
             logger.info(MessageFormat.format("The request for stock symbol, {0}, returned a \"404 Not Found\" response.",
                     stockSymbol));
@@ -15,15 +15,30 @@
  */
 package com.daniel.stocksclient.web;
 
-import com.daniel.search.history.HistoricalStockPriceSearchResult;
-import com.daniel.search.price.StockPriceSearchResult;
+import com.daniel.search.metrics.LatencyMetrics;
+import com.daniel.stocksclient.ejb.StockSearchCache;
 import com.daniel.stocksclient.ejb.StockSearchService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import javax.ejb.EJB;
 import javax.ws.rs.Produces;
 import javax.ws.rs.Path;
 import javax.enterprise.context.RequestScoped;
 import javax.ws.rs.FormParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.NotFoundException;
 import javax.ws.rs.POST;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import org.apache.log4j.LogManager;
@@ -38,12 +53,24 @@ import org.apache.log4j.Logger;
 @RequestScoped
 public class StockSearchResource {
 
+    /**
+     * The number of seconds a client is asked to wait before retrying a
+     * rejected or timed out search
+     */
+    private static final int RETRY_AFTER_SECONDS = 1;
+
     /**
      * The stock price service
      */
     @EJB(beanName = "stockSearchService")
     private StockSearchService stockSearchService;
 
+    /**
+     * The caches of search results
+     */
+    @EJB
+    private StockSearchCache stockSearchCache;
+
     /**
      * The logger for this class
      */
@@ -54,20 +81,41 @@ public class StockSearchResource {
      * find and return the company stock market data.
      *
      * @param stockSymbol the stock symbol
-     * @return the response object
+     * @param asyncResponse the response resumed when the search completes
      */
     @POST
     @Produces({MediaType.APPLICATION_JSON})
     @Path("price")
-    public Response findStockPrice(@FormParam("stockSymbol") String stockSymbol) {
+    public void findStockPrice(@FormParam("stockSymbol") String stockSymbol, @Suspended AsyncResponse asyncResponse) {
 
         Response errorResponse;
         if ((errorResponse = createErrorResponse(stockSymbol)) != null) {
-            return errorResponse;
+            asyncResponse.resume(errorResponse);
+            return;
+        }
+
+        resumeWhenComplete(stockSearchService.findStockPrice(stockSymbol), asyncResponse);
+    }
+
+    /**
+     * This method takes a comma-separated list of stock symbols and invokes the
+     * service to find and return the company stock market data of every symbol.
+     *
+     * @param stockSymbols the comma-separated stock symbols
+     * @param asyncResponse the response resumed when the search completes
+     */
+    @POST
+    @Produces({MediaType.APPLICATION_JSON})
+    @Path("prices")
+    public void findStockPrices(@FormParam("stockSymbols") String stockSymbols, @Suspended AsyncResponse asyncResponse) {
+
+        Response errorResponse;
+        if ((errorResponse = createErrorResponse(stockSymbols)) != null) {
+            asyncResponse.resume(errorResponse);
+            return;
         }
 
-        StockPriceSearchResult stockPriceSearchResult = stockSearchService.findStockPrice(stockSymbol);
-        return Response.ok(StocksClientUtil.toJson(stockPriceSearchResult), "application/json").build();
+        resumeWhenComplete(stockSearchService.findStockPrices(Arrays.asList(stockSymbols.split(","))), asyncResponse);
     }
 
     /**
@@ -75,20 +123,150 @@ public class StockSearchResource {
      * find and return the historical company stock market data.
      *
      * @param stockSymbol the stock symbol
-     * @return the response object
+     * @param asyncResponse the response resumed when the search completes
      */
     @POST
     @Produces({MediaType.APPLICATION_JSON})
     @Path("history")
-    public Response findStockHistory(@FormParam("stockSymbol") String stockSymbol) {
+    public void findStockHistory(@FormParam("stockSymbol") String stockSymbol, @Suspended AsyncResponse asyncResponse) {
 
         Response errorResponse;
         if ((errorResponse = createErrorResponse(stockSymbol)) != null) {
-            return errorResponse;
+            asyncResponse.resume(errorResponse);
+            return;
+        }
+
+        resumeWhenComplete(stockSearchService.findStockHistory(stockSymbol), asyncResponse);
+    }
+
+    /**
+     * This method takes a stock symbol parameter and invokes the service to
+     * find the company stock market data and the historical stock market data
+     * concurrently, returning both in one response.
+     *
+     * @param stockSymbol the stock symbol
+     * @param asyncResponse the response resumed when the search completes
+     */
+    @POST
+    @Produces({MediaType.APPLICATION_JSON})
+    @Path("overview")
+    public void findStockOverview(@FormParam("stockSymbol") String stockSymbol, @Suspended AsyncResponse asyncResponse) {
+
+        Response errorResponse;
+        if ((errorResponse = createErrorResponse(stockSymbol)) != null) {
+            asyncResponse.resume(errorResponse);
+            return;
+        }
+
+        resumeWhenComplete(stockSearchService.findStockOverview(stockSymbol), asyncResponse);
+    }
+
+    /**
+     * This method returns the hit, miss and eviction counts of the quote and
+     * history caches.
+     *
+     * @return the response object
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON})
+    @Path("cache")
+    public Response getCacheStatistics() {
+        return Response.ok(StocksClientUtil.toJson(stockSearchCache.getStatistics()), "application/json").build();
+    }
+
+    /**
+     * This method returns the latency distribution of the connect, time to
+     * first byte, body read, parse and total phases of the calls to each
+     * endpoint of the stock web service.
+     *
+     * @return the response object
+     */
+    @GET
+    @Produces({MediaType.APPLICATION_JSON})
+    @Path("metrics")
+    public Response getLatencyMetrics() {
+        return Response.ok(StocksClientUtil.toJson(LatencyMetrics.getInstance().getSnapshots()),
+                "application/json").build();
+    }
+
+    /**
+     * Resumes the suspended response when the search completes, releasing the
+     * request thread while the search is in progress. If the search was
+     * rejected because too many searches are pending, or if it does not
+     * complete within the response timeout, a "503 Service Unavailable"
+     * response is returned. Any other failure is reported with the response
+     * created by createFailureResponse.
+     *
+     * @param search the future search result
+     * @param asyncResponse the suspended response
+     */
+    private void resumeWhenComplete(CompletableFuture<?> search, AsyncResponse asyncResponse) {
+
+        asyncResponse.setTimeout(StocksClientUtil.getResponseTimeout(), TimeUnit.MILLISECONDS);
+        asyncResponse.setTimeoutHandler(timedOutResponse -> {
+            logger.warn("A stock search did not complete within the response timeout.");
+            timedOutResponse.resume(createUnavailableResponse(
+                    "The stock search did not complete in time. Please try again later."));
+        });
+        search.whenComplete((result, exception) -> {
+            if (exception == null) {
+                asyncResponse.resume(Response.ok(StocksClientUtil.toJson(result), "application/json").build());
+            } else {
+                asyncResponse.resume(createFailureResponse(exception instanceof CompletionException
+                        && exception.getCause() != null ? exception.getCause() : exception));
+            }
+        });
+    }
+
+    /**
+     * Creates the response for a failed search. A search rejected because the
+     * service is busy gets a "503 Service Unavailable" response, a symbol
+     * unknown to the stock web service gets a "404 Not Found" response, a
+     * failed request to the stock web service gets a "502 Bad Gateway"
+     * response, and any other failure gets a "500 Internal Server Error"
+     * response. The search service has already logged the failure.
+     *
+     * @param cause the cause of the failure
+     * @return the response object
+     */
+    private Response createFailureResponse(Throwable cause) {
+
+        if (cause instanceof RejectedExecutionException) {
+            logger.warn(MessageFormat.format("A stock search could not be performed: {0}", cause));
+            return createUnavailableResponse("The stock search service is busy. Please try again later.");
         }
+        Response.Status status;
+        String message;
+        if (cause instanceof NotFoundException) {
+            status = Response.Status.NOT_FOUND;
+            message = "The stock symbol was not found.";
+        } else if (cause instanceof WebApplicationException || cause instanceof ProcessingException
+                || cause instanceof IOException || cause instanceof UncheckedIOException) {
+            status = Response.Status.BAD_GATEWAY;
+            message = "The stock web service could not be reached.";
+        } else {
+            status = Response.Status.INTERNAL_SERVER_ERROR;
+            message = "The stock search failed.";
+        }
+        return Response.status(status).
+                entity(message).
+                type(MediaType.TEXT_PLAIN).
+                build();
+    }
 
-        HistoricalStockPriceSearchResult historicalStockPriceSearchResult = stockSearchService.findStockHistory(stockSymbol);
-        return Response.ok(StocksClientUtil.toJson(historicalStockPriceSearchResult), "application/json").build();
+    /**
+     * Creates a "503 Service Unavailable" response asking the client to retry
+     * the search later.
+     *
+     * @param message the message of the response
+     * @return the response object
+     */
+    private Response createUnavailableResponse(String message) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).
+                header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS).
+                entity(message).
+                type(MediaType.TEXT_PLAIN).
+                build();
     }
 
     /**
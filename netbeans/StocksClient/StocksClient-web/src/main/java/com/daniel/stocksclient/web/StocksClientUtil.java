@@ -15,10 +15,8 @@
  */
 package com.daniel.stocksclient.web;
 
+import com.daniel.search.codec.StocksSearchCodec;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
@@ -29,6 +27,17 @@ import org.apache.log4j.Logger;
  */
 public class StocksClientUtil {
 
+    /**
+     * The response timeout in milliseconds is a property set in GlassFish
+     * System Properties with this key.
+     */
+    public static final String RESPONSE_TIMEOUT = "stocks_client_response_timeout";
+
+    /**
+     * The response timeout in milliseconds used when the property is not set
+     */
+    private static final long DEFAULT_RESPONSE_TIMEOUT = 20000;
+
     /**
      * The logger for this class
      */
@@ -43,13 +52,20 @@ public class StocksClientUtil {
     public static String toJson(Object searchResult) {
         String json = "";
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            mapper.registerModule(new JavaTimeModule());
-            mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-            json = mapper.writeValueAsString(searchResult);
+            json = StocksSearchCodec.getInstance().getWriter().writeValueAsString(searchResult);
         } catch (JsonProcessingException ex) {
             LOGGER.error("A JsonProcessingException occurred in the toJson method.", ex);
         }
         return json;
     }
+
+    /**
+     * Returns the time in milliseconds a suspended search response waits for
+     * its search to complete.
+     *
+     * @return the response timeout
+     */
+    public static long getResponseTimeout() {
+        return Long.getLong(RESPONSE_TIMEOUT, DEFAULT_RESPONSE_TIMEOUT);
+    }
 }
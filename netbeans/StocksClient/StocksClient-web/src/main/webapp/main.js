@@ -11,14 +11,16 @@ $(document).ready(function () {
     google.charts.load('current', {packages: ['corechart', 'line']});
 
     /**
-     * This event handler defines the behavior for the IP address form 
-     * submission.
+     * This event handler defines the behavior for the stock symbol form 
+     * submission. The price and history are requested together and both 
+     * displays are rendered from the one response.
      * @param {type} event
      */
     $("#stockPriceForm").submit(function (event) {
         event.preventDefault();
+        $("#message").hide();
         $.ajax({
-            url: "http://localhost:8080/StocksClient-web/stocks/price",
+            url: "http://localhost:8080/StocksClient-web/stocks/overview",
             type: "POST",
             contentType: "application/x-www-form-urlencoded; charset=UTF-8", // send as JSON
             data: $.param({stockSymbol: $("#symbol").val()}),
@@ -26,59 +28,37 @@ $(document).ready(function () {
                 console.log("Request complete");
             },
             success: function (data) {
-                if (data !== null) {
-                    stockData = data;
+                stockData = data !== null ? data.price : null;
+                historyData = data !== null ? data.history : null;
+                if (stockData) {
                     var stockDisplay = React.createElement(StockDisplay, {data: stockData});
                     ReactDOM.render(
                             stockDisplay,
                             document.getElementById("dataDiv")
                             )
-                    getStockHistory();
                 } else {
-                    $("#message").html("Could not find data for: " + $("#symbol").val());
-                    $("#message").show();
+                    ReactDOM.unmountComponentAtNode(document.getElementById("dataDiv"));
                 }
-            },
-            error: function (request, status, error) {
-                stockData = null;
-                $("#status").html("Error:" + request.responseText);
-                ReactDOM.unmountComponentAtNode(document.getElementById("dataDiv"));
-            }
-        });
-    });
-
-    /**
-     * Retrieves the history for the stock symbol and creates the history line 
-     * chart.
-     */
-    function getStockHistory() {
-        $.ajax({
-            url: "http://localhost:8080/StocksClient-web/stocks/history",
-            type: "POST",
-            contentType: "application/x-www-form-urlencoded; charset=UTF-8", // send as JSON
-            data: $.param({stockSymbol: $("#symbol").val()}),
-            complete: function (data) {
-                console.log("Request complete");
-            },
-            success: function (data) {
-                if (data !== null) {
-                    historyData = data;
-                    ReactDOM.unmountComponentAtNode(document.getElementById("chartDiv"));
+                ReactDOM.unmountComponentAtNode(document.getElementById("chartDiv"));
+                if (historyData) {
                     var historyDisplay = React.createElement(HistoryDisplay, {data: historyData});
                     ReactDOM.render(
                             historyDisplay,
                             document.getElementById("chartDiv")
                             )
-                } else {
+                }
+                if (!stockData || !historyData) {
                     $("#message").html("Could not find data for: " + $("#symbol").val());
                     $("#message").show();
                 }
             },
             error: function (request, status, error) {
+                stockData = null;
                 historyData = null;
                 $("#status").html("Error:" + request.responseText);
+                ReactDOM.unmountComponentAtNode(document.getElementById("dataDiv"));
                 ReactDOM.unmountComponentAtNode(document.getElementById("chartDiv"));
             }
         });
-    }
+    });
 });
\ No newline at end of file
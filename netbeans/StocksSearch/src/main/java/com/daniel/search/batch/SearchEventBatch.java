@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.batch;
+
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.annotation.JsonRootName;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class represents a batch of search events sent together in one message.
+ * The batch holds the stock price search events and the stock history search
+ * events in the order each kind occurred.
+ *
+ * @author Bryan Daniel
+ */
+@JsonRootName(value = "search_event_batch")
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+@JsonPropertyOrder({
+    "stock_price_search_events",
+    "stock_history_search_events"
+})
+public class SearchEventBatch {
+
+    /**
+     * The stock price search events
+     */
+    @JsonProperty("stock_price_search_events")
+    private List<StockPriceSearchEvent> stockPriceSearchEvents = new ArrayList<>();
+
+    /**
+     * The stock history search events
+     */
+    @JsonProperty("stock_history_search_events")
+    private List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents = new ArrayList<>();
+
+    /**
+     * Returns the number of events in the batch.
+     *
+     * @return the number of events
+     */
+    @JsonIgnore
+    public int size() {
+        return stockPriceSearchEvents.size() + historicalStockPriceSearchEvents.size();
+    }
+
+    /**
+     * Gets the value of stockPriceSearchEvents.
+     *
+     * @return the value of stockPriceSearchEvents
+     */
+    public List<StockPriceSearchEvent> getStockPriceSearchEvents() {
+        return stockPriceSearchEvents;
+    }
+
+    /**
+     * Sets the value of stockPriceSearchEvents.
+     *
+     * @param stockPriceSearchEvents the stockPriceSearchEvents to set
+     */
+    public void setStockPriceSearchEvents(List<StockPriceSearchEvent> stockPriceSearchEvents) {
+        this.stockPriceSearchEvents = stockPriceSearchEvents;
+    }
+
+    /**
+     * Gets the value of historicalStockPriceSearchEvents.
+     *
+     * @return the value of historicalStockPriceSearchEvents
+     */
+    public List<HistoricalStockPriceSearchEvent> getHistoricalStockPriceSearchEvents() {
+        return historicalStockPriceSearchEvents;
+    }
+
+    /**
+     * Sets the value of historicalStockPriceSearchEvents.
+     *
+     * @param historicalStockPriceSearchEvents the
+     * historicalStockPriceSearchEvents to set
+     */
+    public void setHistoricalStockPriceSearchEvents(
+            List<HistoricalStockPriceSearchEvent> historicalStockPriceSearchEvents) {
+        this.historicalStockPriceSearchEvents = historicalStockPriceSearchEvents;
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.client;
+
+import java.text.MessageFormat;
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+
+/**
+ * This class holds the connection settings used by the StocksInquisitor web
+ * service client. Each setting may be overridden with a system property of the
+ * same name, which allows the values to be configured in the application
+ * server's System Properties.
+ *
+ * @author Bryan Daniel
+ */
+public class ClientSettings {
+
+    /**
+     * The property name for the maximum number of pooled connections per route
+     */
+    public static final String MAX_CONNECTIONS_PER_ROUTE = "stocks_search_max_connections_per_route";
+
+    /**
+     * The property name for the maximum number of pooled connections in total
+     */
+    public static final String MAX_CONNECTIONS_TOTAL = "stocks_search_max_connections_total";
+
+    /**
+     * The property name for the idle time in milliseconds after which pooled
+     * connections are evicted
+     */
+    public static final String IDLE_TIMEOUT = "stocks_search_idle_timeout";
+
+    /**
+     * The property name for the connect timeout in milliseconds
+     */
+    public static final String CONNECT_TIMEOUT = "stocks_search_connect_timeout";
+
+    /**
+     * The property name for the read timeout in milliseconds
+     */
+    public static final String READ_TIMEOUT = "stocks_search_read_timeout";
+
+    /**
+     * The property name for the maximum number of symbols the web service
+     * accepts in one stock price request
+     */
+    public static final String MAX_SYMBOLS_PER_REQUEST = "stocks_search_max_symbols_per_request";
+
+    /**
+     * The property name for the maximum number of price requests of one
+     * search for many symbols running at once
+     */
+    public static final String MAX_CONCURRENT_BATCHES = "stocks_search_max_concurrent_batches";
+
+    /**
+     * The logger for this class
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ClientSettings.class);
+
+    /**
+     * The maximum number of pooled connections per route
+     */
+    private final int maxConnectionsPerRoute;
+
+    /**
+     * The maximum number of pooled connections in total
+     */
+    private final int maxConnectionsTotal;
+
+    /**
+     * The idle time in milliseconds after which connections are evicted
+     */
+    private final int idleTimeout;
+
+    /**
+     * The connect timeout in milliseconds
+     */
+    private final int connectTimeout;
+
+    /**
+     * The read timeout in milliseconds
+     */
+    private final int readTimeout;
+
+    /**
+     * The maximum number of symbols in one stock price request
+     */
+    private final int maxSymbolsPerRequest;
+
+    /**
+     * The maximum number of price requests of one search running at once
+     */
+    private final int maxConcurrentBatches;
+
+    /**
+     * This constructor sets the value of every setting.
+     *
+     * @param maxConnectionsPerRoute the maximum connections per route
+     * @param maxConnectionsTotal the maximum connections in total
+     * @param idleTimeout the idle eviction time in milliseconds
+     * @param connectTimeout the connect timeout in milliseconds
+     * @param readTimeout the read timeout in milliseconds
+     * @param maxSymbolsPerRequest the maximum symbols in one price request
+     * @param maxConcurrentBatches the maximum price requests of one search
+     * running at once
+     */
+    public ClientSettings(int maxConnectionsPerRoute, int maxConnectionsTotal, int idleTimeout,
+            int connectTimeout, int readTimeout, int maxSymbolsPerRequest, int maxConcurrentBatches) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        this.idleTimeout = idleTimeout;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.maxSymbolsPerRequest = maxSymbolsPerRequest;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    /**
+     * Creates the settings from the system properties, falling back to the
+     * default value of any setting that is not present.
+     *
+     * @return the client settings
+     */
+    public static ClientSettings fromSystemProperties() {
+        return new ClientSettings(
+                getIntProperty(MAX_CONNECTIONS_PER_ROUTE, 20),
+                getIntProperty(MAX_CONNECTIONS_TOTAL, 50),
+                getIntProperty(IDLE_TIMEOUT, 30000),
+                getIntProperty(CONNECT_TIMEOUT, 5000),
+                getIntProperty(READ_TIMEOUT, 15000),
+                getIntProperty(MAX_SYMBOLS_PER_REQUEST, 5),
+                getIntProperty(MAX_CONCURRENT_BATCHES, 4));
+    }
+
+    /**
+     * Reads an integer system property.
+     *
+     * @param name the property name
+     * @param defaultValue the value used if the property is absent or invalid
+     * @return the property value
+     */
+    static int getIntProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warn(MessageFormat.format("The value, {0}, of property {1} is not a number. Using {2}.",
+                    value, name, defaultValue));
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets the value of maxConnectionsPerRoute.
+     *
+     * @return the value of maxConnectionsPerRoute
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Gets the value of maxConnectionsTotal.
+     *
+     * @return the value of maxConnectionsTotal
+     */
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    /**
+     * Gets the value of idleTimeout.
+     *
+     * @return the value of idleTimeout
+     */
+    public int getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Gets the value of connectTimeout.
+     *
+     * @return the value of connectTimeout
+     */
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Gets the value of readTimeout.
+     *
+     * @return the value of readTimeout
+     */
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * Gets the value of maxSymbolsPerRequest.
+     *
+     * @return the value of maxSymbolsPerRequest
+     */
+    public int getMaxSymbolsPerRequest() {
+        return maxSymbolsPerRequest;
+    }
+
+    /**
+     * Gets the value of maxConcurrentBatches.
+     *
+     * @return the value of maxConcurrentBatches
+     */
+    public int getMaxConcurrentBatches() {
+        return maxConcurrentBatches;
+    }
+}
@@ -15,27 +15,58 @@
  */
 package com.daniel.search.client;
 
+import com.daniel.search.codec.StocksSearchCodec;
+import com.daniel.search.history.HistoricalStockPriceHandler;
+import com.daniel.search.history.HistoricalStockPriceParser;
 import com.daniel.search.history.HistoricalStockPriceSearchEvent;
-import com.daniel.search.history.HistoricalStockPriceSearchResult;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.metrics.CallTiming;
+import com.daniel.search.metrics.SearchEndpoint;
+import com.daniel.search.price.StockPrice;
+import com.daniel.search.price.StockPriceBatchSearch;
 import com.daniel.search.price.StockPriceSearchEvent;
 import com.daniel.search.price.StockPriceSearchResult;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.ws.rs.ProcessingException;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.client.Client;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.core.MediaType;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
 
 /**
  * This class contains the functionality to search for and return stock market
- * data. Only one stocks inquisitor is produced to send requests.
+ * data. Only one stocks inquisitor is produced to send requests, and it owns a
+ * single long-lived client backed by a keep-alive connection pool. The connect,
+ * time to first byte, body read and parse phases of every successful call are
+ * recorded in the latency metrics.
  *
  * @author Bryan Daniel
  */
@@ -71,30 +102,89 @@ public class StocksInquisitor {
      */
     public static final String API_TOKEN = "api_token";
 
+    /**
+     * The failure reason of a symbol missing from the stock price data
+     */
+    public static final String SYMBOL_NOT_RETURNED = "No price was returned for the symbol.";
+
     /**
      * The StocksInquisitor instance
      */
     private static StocksInquisitor stocksInquisitor;
 
+    /**
+     * The connection settings
+     */
+    private final ClientSettings settings;
+
+    /**
+     * The pool of connections used by the client
+     */
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    /**
+     * The client shared by all requests
+     */
+    private final Client client;
+
+    /**
+     * The time in milliseconds of the last idle connection eviction
+     */
+    private final AtomicLong lastEviction = new AtomicLong(System.currentTimeMillis());
+
     /*
      * Private constructor - not called from outside this class.
      */
-    private StocksInquisitor() {
+    private StocksInquisitor(ClientSettings settings) {
+        this.settings = settings;
+        connectionManager = new PoolingHttpClientConnectionManager() {
+
+            @Override
+            public void connect(HttpClientConnection managedConn, HttpRoute route, int connectTimeout,
+                    HttpContext context) throws IOException {
+                long connectStarted = System.nanoTime();
+                try {
+                    super.connect(managedConn, route, connectTimeout, context);
+                } finally {
+                    CallTiming.addConnectTime(System.nanoTime() - connectStarted);
+                }
+            }
+        };
+        connectionManager.setMaxTotal(settings.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(settings.getMaxConnectionsPerRoute());
+        ClientConfig clientConfig = new ClientConfig()
+                .connectorProvider(new ApacheConnectorProvider())
+                .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+                .property(ClientProperties.CONNECT_TIMEOUT, settings.getConnectTimeout())
+                .property(ClientProperties.READ_TIMEOUT, settings.getReadTimeout());
+        client = ClientBuilder.newClient(clientConfig);
     }
 
     /**
      * Returns the single instance of StocksInquisitor. If it has not yet been
-     * instantiated, it is instantiated here.
+     * instantiated, it is instantiated here with the settings found in the
+     * system properties.
      *
      * @return the instance of StocksInquisitor
      */
     public static synchronized StocksInquisitor getInstance() {
         if (stocksInquisitor == null) {
-            stocksInquisitor = new StocksInquisitor();
+            stocksInquisitor = new StocksInquisitor(ClientSettings.fromSystemProperties());
         }
         return stocksInquisitor;
     }
 
+    /**
+     * Closes the client of the current instance, releasing all pooled
+     * connections. A later call to getInstance creates a new instance.
+     */
+    public static synchronized void shutdown() {
+        if (stocksInquisitor != null) {
+            stocksInquisitor.client.close();
+            stocksInquisitor = null;
+        }
+    }
+
     /**
      * This method passes the given stock symbol and API token to a web service
      * to return the stock price and associated stock market data wrapped in a
@@ -119,26 +209,154 @@ public class StocksInquisitor {
         LocalDateTime timeSearched = LocalDateTime.ofInstant(Instant.ofEpochMilli(timeStarted),
                 TimeZone.getDefault().toZoneId());
 
-        Client client = ClientBuilder.newClient();
-        String stockPriceString = client.target(SERVICE_URL)
-                .path(PRICE_QUERY)
-                .queryParam(SYMBOL, stockSymbol)
-                .queryParam(API_TOKEN, apiToken)
-                .request(MediaType.APPLICATION_JSON)
-                .get(String.class);
+        evictIdleConnections();
+        StockPriceSearchResult stockPriceSearchResult;
+        long timeElapsed;
+        try (CallTiming callTiming = CallTiming.start(SearchEndpoint.PRICE)) {
+            InputStream priceStream = client.target(SERVICE_URL)
+                    .path(PRICE_QUERY)
+                    .queryParam(SYMBOL, stockSymbol)
+                    .queryParam(API_TOKEN, apiToken)
+                    .request(MediaType.APPLICATION_JSON)
+                    .get(InputStream.class);
+            try (InputStream timedStream = callTiming.headersReceived(priceStream)) {
+                stockPriceSearchResult = StocksSearchCodec.getInstance().getPriceResultReader()
+                        .readValue(timedStream);
+            }
+            timeElapsed = callTiming.finish();
+        }
 
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.registerModule(new JavaTimeModule());
         StockPriceSearchEvent stockPriceSearchEvent = new StockPriceSearchEvent();
-        StockPriceSearchResult stockPriceSearchResult = mapper.readValue(stockPriceString,
-                StockPriceSearchResult.class);
         stockPriceSearchEvent.setTimeSearched(timeSearched);
-        stockPriceSearchEvent.setTimeElapsed(System.currentTimeMillis() - timeStarted);
+        stockPriceSearchEvent.setTimeElapsed(TimeUnit.NANOSECONDS.toMillis(timeElapsed));
         stockPriceSearchEvent.setStockPriceSearchResult(stockPriceSearchResult);
 
         return stockPriceSearchEvent;
     }
 
+    /**
+     * This method searches for the stock prices of many stock symbols. The
+     * symbols are sent to the web service in batches of the configured maximum
+     * size. The batches are shared among at most the configured number of
+     * concurrent batches, and each share is requested one batch after another
+     * by a single task on the given executor, so that a search for many
+     * symbols never takes more than that number of the executor's threads.
+     * The returned future completes once every batch has completed, with the
+     * prices of all batches merged into one result. A symbol is reported as
+     * failed if its batch was rejected by the executor, if its batch could not
+     * be retrieved, or if no price was returned for it.
+     *
+     * @param stockSymbols the stock symbols
+     * @param apiToken the API token
+     * @param executor the executor running the batch requests
+     * @return the future StockPriceBatchSearch object
+     * @throws NullPointerException in case the collection of stock symbols is
+     * null
+     */
+    public CompletableFuture<StockPriceBatchSearch> findStockPrices(Collection<String> stockSymbols, String apiToken,
+            Executor executor) {
+
+        if (stockSymbols == null) {
+            throw new NullPointerException("The stock symbols were null.");
+        }
+
+        // blanks and duplicates are removed so that no symbol is requested twice
+        Set<String> symbols = new LinkedHashSet<>();
+        stockSymbols.stream()
+                .filter(stockSymbol -> stockSymbol != null && !stockSymbol.trim().isEmpty())
+                .forEach(stockSymbol -> symbols.add(stockSymbol.trim().toUpperCase(Locale.ROOT)));
+
+        List<List<String>> batches = new ArrayList<>();
+        int batchSize = Math.max(1, settings.getMaxSymbolsPerRequest());
+        List<String> batch = null;
+        for (String symbol : symbols) {
+            if (batch == null || batch.size() == batchSize) {
+                batch = new ArrayList<>(batchSize);
+                batches.add(batch);
+            }
+            batch.add(symbol);
+        }
+
+        List<CompletableFuture<StockPriceSearchEvent>> searches = new ArrayList<>(batches.size());
+        batches.forEach(batchSymbols -> searches.add(new CompletableFuture<>()));
+        int lanes = Math.min(batches.size(), Math.max(1, settings.getMaxConcurrentBatches()));
+        for (int lane = 0; lane < lanes; lane++) {
+            int firstBatch = lane;
+            try {
+                executor.execute(() -> {
+                    for (int i = firstBatch; i < batches.size(); i += lanes) {
+                        try {
+                            searches.get(i).complete(findStockPrice(String.join(",", batches.get(i)), apiToken));
+                        } catch (IOException | RuntimeException e) {
+                            searches.get(i).completeExceptionally(e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                for (int i = firstBatch; i < batches.size(); i += lanes) {
+                    searches.get(i).completeExceptionally(e);
+                }
+            }
+        }
+
+        return CompletableFuture.allOf(searches.toArray(new CompletableFuture<?>[searches.size()]))
+                .handle((ignored, exception) -> mergeStockPrices(symbols.size(), batches, searches));
+    }
+
+    /**
+     * Merges the completed batches of a search for many stock symbols.
+     *
+     * @param symbolsRequested the number of symbols requested
+     * @param batches the symbols of each batch
+     * @param searches the completed search of each batch
+     * @return the StockPriceBatchSearch object
+     */
+    private StockPriceBatchSearch mergeStockPrices(int symbolsRequested, List<List<String>> batches,
+            List<CompletableFuture<StockPriceSearchEvent>> searches) {
+
+        List<StockPriceSearchEvent> stockPriceSearchEvents = new ArrayList<>(batches.size());
+        List<StockPrice> stockPriceData = new ArrayList<>(symbolsRequested);
+        Map<String, String> failedSymbols = new LinkedHashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            List<String> batchSymbols = batches.get(i);
+            StockPriceSearchEvent stockPriceSearchEvent;
+            try {
+                stockPriceSearchEvent = searches.get(i).join();
+            } catch (CompletionException e) {
+                String reason = String.valueOf(e.getCause() != null ? e.getCause() : e);
+                batchSymbols.forEach(symbol -> failedSymbols.put(symbol, reason));
+                continue;
+            }
+            stockPriceSearchEvents.add(stockPriceSearchEvent);
+
+            Set<String> symbolsReturned = new HashSet<>();
+            List<StockPrice> batchData = stockPriceSearchEvent.getStockPriceSearchResult().getStockPriceData();
+            if (batchData != null) {
+                batchData.forEach(stockPrice -> {
+                    stockPriceData.add(stockPrice);
+                    if (stockPrice.getSymbol() != null) {
+                        symbolsReturned.add(stockPrice.getSymbol().toUpperCase(Locale.ROOT));
+                    }
+                });
+            }
+            batchSymbols.stream()
+                    .filter(symbol -> !symbolsReturned.contains(symbol))
+                    .forEach(symbol -> failedSymbols.put(symbol, SYMBOL_NOT_RETURNED));
+        }
+
+        StockPriceSearchResult stockPriceSearchResult = new StockPriceSearchResult();
+        stockPriceSearchResult.setSymbolsRequested(symbolsRequested);
+        stockPriceSearchResult.setSymbolsReturned(stockPriceData.size());
+        stockPriceSearchResult.setStockPriceData(stockPriceData);
+
+        StockPriceBatchSearch stockPriceBatchSearch = new StockPriceBatchSearch();
+        stockPriceBatchSearch.setStockPriceSearchEvents(stockPriceSearchEvents);
+        stockPriceBatchSearch.setStockPriceSearchResult(stockPriceSearchResult);
+        stockPriceBatchSearch.setFailedSymbols(failedSymbols);
+
+        return stockPriceBatchSearch;
+    }
+
     /**
      * This method passes the given stock symbol and API token to a web service
      * to return the stock price history wrapped in a
@@ -164,24 +382,104 @@ public class StocksInquisitor {
         LocalDateTime timeSearched = LocalDateTime.ofInstant(Instant.ofEpochMilli(timeStarted),
                 TimeZone.getDefault().toZoneId());
 
-        Client client = ClientBuilder.newClient();
-        String stockPriceString = client.target(SERVICE_URL)
+        HistoricalStockPriceSeries historicalStockPriceSeries;
+        long timeElapsed;
+        try (CallTiming callTiming = CallTiming.start(SearchEndpoint.HISTORY)) {
+            try (InputStream historyStream = callTiming.headersReceived(
+                    requestStockPriceHistory(stockSymbol, apiToken, dateFrom))) {
+                historicalStockPriceSeries = StocksSearchCodec.getInstance().getHistorySeriesReader()
+                        .readValue(historyStream);
+            }
+            timeElapsed = callTiming.finish();
+        }
+
+        HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = new HistoricalStockPriceSearchEvent();
+        historicalStockPriceSearchEvent.setTimeSearched(timeSearched);
+        historicalStockPriceSearchEvent.setTimeElapsed(TimeUnit.NANOSECONDS.toMillis(timeElapsed));
+        historicalStockPriceSearchEvent.setHistoricalStockPriceSeries(historicalStockPriceSeries);
+
+        return historicalStockPriceSearchEvent;
+    }
+
+    /**
+     * This method passes the given stock symbol and API token to a web service
+     * and streams the stock price history from the response to the given
+     * handler, one date at a time, without holding the response in memory. The
+     * returned HistoricalStockPriceSearchEvent holds the search time and an
+     * empty series named for the stock symbol.
+     *
+     * @param stockSymbol the stock symbol
+     * @param apiToken the API token
+     * @param dateFrom the start date for the history retrieval
+     * @param handler the handler receiving each dated price
+     * @return the HistoricalStockPriceSearchEvent object
+     * @throws java.io.IOException if an I/O operation fails
+     * @throws ProcessingException in case the request processing or subsequent
+     * I/O operation fails.
+     * @throws WebApplicationException in case the response status code of the
+     * response returned by the server is not successful and the specified
+     * generic response type does not represent Response
+     * @throws NullPointerException in case the stock symbol value is null
+     */
+    public HistoricalStockPriceSearchEvent findStockPriceHistory(String stockSymbol, String apiToken, LocalDate dateFrom,
+            HistoricalStockPriceHandler handler) throws IOException {
+
+        validateInput(stockSymbol);
+
+        long timeStarted = System.currentTimeMillis();
+        LocalDateTime timeSearched = LocalDateTime.ofInstant(Instant.ofEpochMilli(timeStarted),
+                TimeZone.getDefault().toZoneId());
+
+        String name;
+        long timeElapsed;
+        try (CallTiming callTiming = CallTiming.start(SearchEndpoint.HISTORY)) {
+            try (InputStream historyStream = callTiming.headersReceived(
+                    requestStockPriceHistory(stockSymbol, apiToken, dateFrom))) {
+                name = HistoricalStockPriceParser.parse(historyStream, handler);
+            }
+            timeElapsed = callTiming.finish();
+        }
+
+        HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = new HistoricalStockPriceSearchEvent();
+        historicalStockPriceSearchEvent.setTimeSearched(timeSearched);
+        historicalStockPriceSearchEvent.setTimeElapsed(TimeUnit.NANOSECONDS.toMillis(timeElapsed));
+        historicalStockPriceSearchEvent.setHistoricalStockPriceSeries(HistoricalStockPriceSeries.empty(name));
+
+        return historicalStockPriceSearchEvent;
+    }
+
+    /**
+     * Requests the stock price history and returns the response body as a
+     * stream, which the caller must close.
+     *
+     * @param stockSymbol the stock symbol
+     * @param apiToken the API token
+     * @param dateFrom the start date for the history retrieval
+     * @return the stream of the response body
+     */
+    private InputStream requestStockPriceHistory(String stockSymbol, String apiToken, LocalDate dateFrom) {
+        evictIdleConnections();
+        return client.target(SERVICE_URL)
                 .path(HISTORY_QUERY)
                 .queryParam(SYMBOL, stockSymbol)
                 .queryParam(DATE_FROM, dateFrom.toString())
                 .queryParam(API_TOKEN, apiToken)
                 .request(MediaType.APPLICATION_JSON)
-                .get(String.class);
-
-        ObjectMapper mapper = new ObjectMapper();
-        HistoricalStockPriceSearchEvent historicalStockPriceSearchEvent = new HistoricalStockPriceSearchEvent();
-        HistoricalStockPriceSearchResult historicalStockPriceSearchResult = mapper.readValue(stockPriceString,
-                HistoricalStockPriceSearchResult.class);
-        historicalStockPriceSearchEvent.setTimeSearched(timeSearched);
-        historicalStockPriceSearchEvent.setTimeElapsed(System.currentTimeMillis() - timeStarted);
-        historicalStockPriceSearchEvent.setHistoricalStockPriceSearchResult(historicalStockPriceSearchResult);
+                .get(InputStream.class);
+    }
 
-        return historicalStockPriceSearchEvent;
+    /**
+     * Closes expired connections and connections idle for longer than the
+     * configured idle timeout. This runs at most once per half of the idle
+     * timeout, on the thread of whichever request finds it due.
+     */
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        long last = lastEviction.get();
+        if (now - last >= settings.getIdleTimeout() / 2 && lastEviction.compareAndSet(last, now)) {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(settings.getIdleTimeout(), TimeUnit.MILLISECONDS);
+        }
     }
 
     /**
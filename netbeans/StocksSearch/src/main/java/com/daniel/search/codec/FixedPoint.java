@@ -0,0 +1,226 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Contains functions for fixed-point numbers held in a long. A fixed-point
+ * value is the decimal number multiplied by ten to the power of its scale, so
+ * a price of 153.07 at the price scale of 2 is held as 15307 cents.
+ *
+ * @author Bryan Daniel
+ */
+public class FixedPoint {
+
+    /**
+     * The scale of prices, which are held in cents
+     */
+    public static final int PRICE_SCALE = 2;
+
+    /**
+     * The value held when a number is missing or could not be read
+     */
+    public static final long NOT_AVAILABLE = Long.MIN_VALUE;
+
+    /**
+     * The largest number of digits that fits in a long without overflow
+     */
+    private static final int MAX_DIGITS = 18;
+
+    /**
+     * The powers of ten up to the largest supported scale
+     */
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L};
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private FixedPoint() {
+    }
+
+    /**
+     * Parses decimal text into a fixed-point value with the given scale.
+     * Digits beyond the scale are rounded half up.
+     *
+     * @param text the decimal text, which may be null
+     * @param scale the number of decimal places kept
+     * @return the fixed-point value, or NOT_AVAILABLE if the text is not a
+     * decimal number
+     */
+    public static long parse(String text, int scale) {
+        if (text == null) {
+            return NOT_AVAILABLE;
+        }
+        return parse(text.toCharArray(), 0, text.length(), scale);
+    }
+
+    /**
+     * Parses decimal text held in a region of a character array into a
+     * fixed-point value with the given scale, without creating any objects.
+     * Digits beyond the scale are rounded half up.
+     *
+     * @param text the characters holding the decimal text
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @param scale the number of decimal places kept
+     * @return the fixed-point value, or NOT_AVAILABLE if the text is not a
+     * decimal number
+     */
+    public static long parse(char[] text, int offset, int length, int scale) {
+
+        int index = offset;
+        int end = offset + length;
+        while (index < end && text[index] == ' ') {
+            index++;
+        }
+        while (end > index && text[end - 1] == ' ') {
+            end--;
+        }
+        if (index == end) {
+            return NOT_AVAILABLE;
+        }
+
+        boolean negative = false;
+        if (text[index] == '-' || text[index] == '+') {
+            negative = text[index] == '-';
+            index++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        int decimals = -1;
+        boolean roundUp = false;
+        for (; index < end; index++) {
+            char c = text[index];
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                if (decimals < 0 || decimals < scale) {
+                    if (++digits > MAX_DIGITS) {
+                        return NOT_AVAILABLE;
+                    }
+                    value = value * 10 + (c - '0');
+                    if (decimals >= 0) {
+                        decimals++;
+                    }
+                } else if (decimals == scale) {
+                    roundUp = c >= '5';
+                    decimals++;
+                }
+            } else if (c == ',' && decimals < 0) {
+                // thousands separators are ignored
+            } else {
+                return NOT_AVAILABLE;
+            }
+        }
+        if (digits == 0) {
+            return NOT_AVAILABLE;
+        }
+
+        int kept = decimals < 0 ? 0 : Math.min(decimals, scale);
+        value *= POWERS_OF_TEN[scale - kept];
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads the JSON string or number at the current position of the parser
+     * as a fixed-point value, parsing the characters of the parser's buffer so
+     * that no string is created. Any other value is skipped.
+     *
+     * @param parser the parser positioned at the value
+     * @param scale the number of decimal places kept
+     * @return the fixed-point value, or NOT_AVAILABLE
+     * @throws IOException if the value cannot be read
+     */
+    public static long read(JsonParser parser, int scale) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_STRING || token == JsonToken.VALUE_NUMBER_INT
+                || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parse(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), scale);
+        }
+        parser.skipChildren();
+        return NOT_AVAILABLE;
+    }
+
+    /**
+     * Formats a fixed-point value as decimal text with exactly as many decimal
+     * places as the scale.
+     *
+     * @param value the fixed-point value
+     * @param scale the scale of the value
+     * @return the decimal text, or null if the value is NOT_AVAILABLE
+     */
+    public static String format(long value, int scale) {
+        if (value == NOT_AVAILABLE) {
+            return null;
+        }
+        StringBuilder builder = new StringBuilder(24);
+        if (value < 0) {
+            builder.append('-');
+            value = -value;
+        }
+        long unit = POWERS_OF_TEN[scale];
+        builder.append(value / unit);
+        if (scale > 0) {
+            builder.append('.');
+            String fraction = Long.toString(value % unit);
+            for (int i = fraction.length(); i < scale; i++) {
+                builder.append('0');
+            }
+            builder.append(fraction);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Converts a fixed-point value to a BigDecimal.
+     *
+     * @param value the fixed-point value
+     * @param scale the scale of the value
+     * @return the BigDecimal, or null if the value is NOT_AVAILABLE
+     */
+    public static BigDecimal toBigDecimal(long value, int scale) {
+        return value == NOT_AVAILABLE ? null : BigDecimal.valueOf(value, scale);
+    }
+
+    /**
+     * Converts a fixed-point value to a Double.
+     *
+     * @param value the fixed-point value
+     * @param scale the scale of the value
+     * @return the Double, or null if the value is NOT_AVAILABLE
+     */
+    public static Double toDouble(long value, int scale) {
+        return value == NOT_AVAILABLE ? null : (double) value / POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * Converts a whole-number value to a Long.
+     *
+     * @param value the value
+     * @return the Long, or null if the value is NOT_AVAILABLE
+     */
+    public static Long toLong(long value) {
+        return value == NOT_AVAILABLE ? null : value;
+    }
+}
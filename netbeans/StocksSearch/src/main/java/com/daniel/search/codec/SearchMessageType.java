@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+
+/**
+ * This enumeration holds the types of the search event messages sent to the
+ * operation queue. The type of a message is set in the message property named
+ * by PROPERTY_NAME, so that the receiver can choose the reader for the message
+ * without looking at its body.
+ *
+ * @author Bryan Daniel
+ */
+public enum SearchMessageType {
+    PRICE("stock_price_search_event"),
+    HISTORY("stock_history_search_event"),
+    BATCH("search_event_batch");
+
+    /**
+     * The name of the message property holding the message type
+     */
+    public static final String PROPERTY_NAME = "event_type";
+
+    /**
+     * The value of the message property for this type
+     */
+    private final String value;
+
+    /**
+     * This private constructor sets the value of the message property.
+     *
+     * @param value the value
+     */
+    private SearchMessageType(String value) {
+        this.value = value;
+    }
+
+    /**
+     * Get the value of the message property for this type.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the type with the given message property value.
+     *
+     * @param value the message property value, which may be null
+     * @return the type, or null if no type has the value
+     */
+    public static SearchMessageType fromValue(String value) {
+        for (SearchMessageType type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines the type of a message without the message property by reading
+     * the top-level field names of the JSON until one identifies the type. The
+     * values of the other fields are skipped without being read into objects.
+     *
+     * @param json the JSON of the message
+     * @return the type, or null if no field identifies the type
+     * @throws IOException if the JSON cannot be read
+     */
+    public static SearchMessageType detect(String json) throws IOException {
+
+        try (JsonParser parser = StocksSearchCodec.getInstance().getJsonFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                switch (parser.getCurrentName()) {
+                    case "stock_price_search_events":
+                    case "stock_history_search_events":
+                        return BATCH;
+                    case "stock_history_search_result":
+                        return HISTORY;
+                    case "stock_price_search_result":
+                        return PRICE;
+                    default:
+                        parser.nextToken();
+                        parser.skipChildren();
+                }
+            }
+        }
+        return null;
+    }
+}
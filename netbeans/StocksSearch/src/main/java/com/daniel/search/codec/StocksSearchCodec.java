@@ -0,0 +1,289 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.codec;
+
+import com.daniel.search.batch.SearchEventBatch;
+import com.daniel.search.history.HistoricalStockPriceSearchEvent;
+import com.daniel.search.history.HistoricalStockPriceSearchResult;
+import com.daniel.search.history.HistoricalStockPriceSeries;
+import com.daniel.search.price.StockPriceSearchEvent;
+import com.daniel.search.price.StockPriceSearchResult;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * This class holds the JSON readers and writers for the stocks search model.
+ * The underlying mapper is configured once and never changed afterwards, so the
+ * readers and writers are immutable, safe to share between threads, and keep
+ * their serializer caches for the life of the application. Only one codec is
+ * produced.
+ *
+ * @author Bryan Daniel
+ */
+public class StocksSearchCodec {
+
+    /**
+     * The StocksSearchCodec instance
+     */
+    private static final StocksSearchCodec STOCKS_SEARCH_CODEC = new StocksSearchCodec();
+
+    /**
+     * The configured object mapper
+     */
+    private final ObjectMapper mapper;
+
+    /**
+     * The writer for arbitrary objects
+     */
+    private final ObjectWriter writer;
+
+    /**
+     * The reader for JSON trees
+     */
+    private final ObjectReader treeReader;
+
+    /**
+     * The reader for stock price search events
+     */
+    private final ObjectReader priceEventReader;
+
+    /**
+     * The writer for stock price search events
+     */
+    private final ObjectWriter priceEventWriter;
+
+    /**
+     * The reader for stock history search events
+     */
+    private final ObjectReader historyEventReader;
+
+    /**
+     * The writer for stock history search events
+     */
+    private final ObjectWriter historyEventWriter;
+
+    /**
+     * The reader for stock price search results
+     */
+    private final ObjectReader priceResultReader;
+
+    /**
+     * The writer for stock price search results
+     */
+    private final ObjectWriter priceResultWriter;
+
+    /**
+     * The reader for stock history search results
+     */
+    private final ObjectReader historyResultReader;
+
+    /**
+     * The writer for stock history search results
+     */
+    private final ObjectWriter historyResultWriter;
+
+    /**
+     * The reader for columnar stock history series
+     */
+    private final ObjectReader historySeriesReader;
+
+    /**
+     * The writer for columnar stock history series
+     */
+    private final ObjectWriter historySeriesWriter;
+
+    /**
+     * The reader for search event batches
+     */
+    private final ObjectReader batchReader;
+
+    /**
+     * The writer for search event batches
+     */
+    private final ObjectWriter batchWriter;
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private StocksSearchCodec() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        writer = mapper.writer();
+        treeReader = mapper.reader();
+        priceEventReader = mapper.readerFor(StockPriceSearchEvent.class);
+        priceEventWriter = mapper.writerFor(StockPriceSearchEvent.class);
+        historyEventReader = mapper.readerFor(HistoricalStockPriceSearchEvent.class);
+        historyEventWriter = mapper.writerFor(HistoricalStockPriceSearchEvent.class);
+        priceResultReader = mapper.readerFor(StockPriceSearchResult.class);
+        priceResultWriter = mapper.writerFor(StockPriceSearchResult.class);
+        historyResultReader = mapper.readerFor(HistoricalStockPriceSearchResult.class);
+        historyResultWriter = mapper.writerFor(HistoricalStockPriceSearchResult.class);
+        historySeriesReader = mapper.readerFor(HistoricalStockPriceSeries.class);
+        historySeriesWriter = mapper.writerFor(HistoricalStockPriceSeries.class);
+        batchReader = mapper.readerFor(SearchEventBatch.class);
+        batchWriter = mapper.writerFor(SearchEventBatch.class);
+    }
+
+    /**
+     * Returns the single instance of StocksSearchCodec.
+     *
+     * @return the instance of StocksSearchCodec
+     */
+    public static StocksSearchCodec getInstance() {
+        return STOCKS_SEARCH_CODEC;
+    }
+
+    /**
+     * Gets the factory for streaming parsers and generators. The factory is
+     * shared with the readers and writers of this codec.
+     *
+     * @return the JSON factory
+     */
+    public JsonFactory getJsonFactory() {
+        return mapper.getFactory();
+    }
+
+    /**
+     * Gets the writer for objects of any type.
+     *
+     * @return the writer
+     */
+    public ObjectWriter getWriter() {
+        return writer;
+    }
+
+    /**
+     * Gets the reader for JSON trees.
+     *
+     * @return the tree reader
+     */
+    public ObjectReader getTreeReader() {
+        return treeReader;
+    }
+
+    /**
+     * Gets the reader for stock price search events.
+     *
+     * @return the stock price search event reader
+     */
+    public ObjectReader getPriceEventReader() {
+        return priceEventReader;
+    }
+
+    /**
+     * Gets the writer for stock price search events.
+     *
+     * @return the stock price search event writer
+     */
+    public ObjectWriter getPriceEventWriter() {
+        return priceEventWriter;
+    }
+
+    /**
+     * Gets the reader for stock history search events.
+     *
+     * @return the stock history search event reader
+     */
+    public ObjectReader getHistoryEventReader() {
+        return historyEventReader;
+    }
+
+    /**
+     * Gets the writer for stock history search events.
+     *
+     * @return the stock history search event writer
+     */
+    public ObjectWriter getHistoryEventWriter() {
+        return historyEventWriter;
+    }
+
+    /**
+     * Gets the reader for stock price search results.
+     *
+     * @return the stock price search result reader
+     */
+    public ObjectReader getPriceResultReader() {
+        return priceResultReader;
+    }
+
+    /**
+     * Gets the writer for stock price search results.
+     *
+     * @return the stock price search result writer
+     */
+    public ObjectWriter getPriceResultWriter() {
+        return priceResultWriter;
+    }
+
+    /**
+     * Gets the reader for stock history search results.
+     *
+     * @return the stock history search result reader
+     */
+    public ObjectReader getHistoryResultReader() {
+        return historyResultReader;
+    }
+
+    /**
+     * Gets the writer for stock history search results.
+     *
+     * @return the stock history search result writer
+     */
+    public ObjectWriter getHistoryResultWriter() {
+        return historyResultWriter;
+    }
+
+    /**
+     * Gets the reader for columnar stock history series.
+     *
+     * @return the stock history series reader
+     */
+    public ObjectReader getHistorySeriesReader() {
+        return historySeriesReader;
+    }
+
+    /**
+     * Gets the writer for columnar stock history series.
+     *
+     * @return the stock history series writer
+     */
+    public ObjectWriter getHistorySeriesWriter() {
+        return historySeriesWriter;
+    }
+
+    /**
+     * Gets the reader for search event batches.
+     *
+     * @return the search event batch reader
+     */
+    public ObjectReader getBatchReader() {
+        return batchReader;
+    }
+
+    /**
+     * Gets the writer for search event batches.
+     *
+     * @return the search event batch writer
+     */
+    public ObjectWriter getBatchWriter() {
+        return batchWriter;
+    }
+}
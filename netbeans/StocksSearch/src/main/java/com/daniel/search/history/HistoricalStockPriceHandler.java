@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.history;
+
+import java.time.LocalDate;
+
+/**
+ * Receives the dated prices of a stock history one at a time, as each is read
+ * from the response.
+ *
+ * @author Bryan Daniel
+ */
+@FunctionalInterface
+public interface HistoricalStockPriceHandler {
+
+    /**
+     * This method is called once for every date read from a stock history.
+     *
+     * @param date the date of the prices
+     * @param historicalStockPrice the prices for the date
+     */
+    public void handle(LocalDate date, HistoricalStockPrice historicalStockPrice);
+}
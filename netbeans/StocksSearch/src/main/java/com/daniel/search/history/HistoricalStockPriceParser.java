@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.history;
+
+import com.daniel.search.codec.StocksSearchCodec;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+/**
+ * This class reads a stock history response with the Jackson streaming API.
+ * Each dated price is passed to a handler as soon as it is read, so neither the
+ * response text nor the complete history is ever held in memory.
+ *
+ * @author Bryan Daniel
+ */
+public class HistoricalStockPriceParser {
+
+    /**
+     * The name of the stock symbol field
+     */
+    private static final String NAME_FIELD = "name";
+
+    /**
+     * The name of the history field
+     */
+    private static final String HISTORY_FIELD = "history";
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private HistoricalStockPriceParser() {
+    }
+
+    /**
+     * Reads the stock history from the given stream and passes each dated
+     * price to the handler in the order it appears. The stream is not closed.
+     *
+     * @param inputStream the stream containing the stock history JSON
+     * @param handler the handler receiving each dated price
+     * @return the stock symbol named in the history, or null if none is found
+     * @throws IOException if the stream cannot be read or is not valid JSON
+     */
+    public static String parse(InputStream inputStream, HistoricalStockPriceHandler handler) throws IOException {
+
+        String name = null;
+        try (JsonParser parser = StocksSearchCodec.getInstance().getJsonFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (NAME_FIELD.equals(fieldName)) {
+                    name = parser.getValueAsString();
+                } else if (HISTORY_FIELD.equals(fieldName) && token == JsonToken.START_OBJECT) {
+                    parseHistory(parser, handler);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Reads every dated price of the history object at the current position.
+     *
+     * @param parser the parser positioned at the start of the history object
+     * @param handler the handler receiving each dated price
+     * @throws IOException if the JSON cannot be read
+     */
+    private static void parseHistory(JsonParser parser, HistoricalStockPriceHandler handler) throws IOException {
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            LocalDate date = LocalDate.parse(parser.getCurrentName());
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            HistoricalStockPrice historicalStockPrice = new HistoricalStockPrice();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "open":
+                        historicalStockPrice.setOpen(parser.getValueAsString());
+                        break;
+                    case "close":
+                        historicalStockPrice.setClose(parser.getValueAsString());
+                        break;
+                    case "high":
+                        historicalStockPrice.setHigh(parser.getValueAsString());
+                        break;
+                    case "low":
+                        historicalStockPrice.setLow(parser.getValueAsString());
+                        break;
+                    case "volume":
+                        historicalStockPrice.setVolume(parser.getValueAsString());
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            handler.handle(date, historicalStockPrice);
+        }
+    }
+}
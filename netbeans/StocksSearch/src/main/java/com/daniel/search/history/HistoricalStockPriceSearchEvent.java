@@ -45,7 +45,7 @@ public class HistoricalStockPriceSearchEvent {
      * The stock price history result
      */
     @JsonProperty("stock_history_search_result")
-    private HistoricalStockPriceSearchResult historicalStockPriceSearchResult;
+    private HistoricalStockPriceSeries historicalStockPriceSeries;
 
     /**
      * Get the value of timeSearched
@@ -84,21 +84,20 @@ public class HistoricalStockPriceSearchEvent {
     }
 
     /**
-     * Get the value of historicalStockPriceSearchResult
+     * Get the value of historicalStockPriceSeries
      *
-     * @return the value of historicalStockPriceSearchResult
+     * @return the value of historicalStockPriceSeries
      */
-    public HistoricalStockPriceSearchResult getHistoricalStockPriceSearchResult() {
-        return historicalStockPriceSearchResult;
+    public HistoricalStockPriceSeries getHistoricalStockPriceSeries() {
+        return historicalStockPriceSeries;
     }
 
     /**
-     * Set the value of historicalStockPriceSearchResult
+     * Set the value of historicalStockPriceSeries
      *
-     * @param historicalStockPriceSearchResult new value of
-     * historicalStockPriceSearchResult
+     * @param historicalStockPriceSeries new value of historicalStockPriceSeries
      */
-    public void setHistoricalStockPriceSearchResult(HistoricalStockPriceSearchResult historicalStockPriceSearchResult) {
-        this.historicalStockPriceSearchResult = historicalStockPriceSearchResult;
+    public void setHistoricalStockPriceSeries(HistoricalStockPriceSeries historicalStockPriceSeries) {
+        this.historicalStockPriceSeries = historicalStockPriceSeries;
     }
 }
@@ -0,0 +1,476 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.history;
+
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * This class represents the result of a stock history web service call in
+ * columnar form. The dates are held as a sorted array of epoch days, the prices
+ * as fixed-point cents and the volumes as longs, with one array per column.
+ * Instances are immutable; slices are views sharing the arrays of the series
+ * they were taken from. The JSON form is the same as that of
+ * HistoricalStockPriceSearchResult.
+ *
+ * @author Bryan Daniel
+ */
+@JsonSerialize(using = HistoricalStockPriceSeriesSerializer.class)
+@JsonDeserialize(using = HistoricalStockPriceSeriesDeserializer.class)
+public class HistoricalStockPriceSeries {
+
+    /**
+     * The stock symbol
+     */
+    private final String name;
+
+    /**
+     * The dates in ascending order as epoch days
+     */
+    private final int[] epochDays;
+
+    /**
+     * The opening prices in cents
+     */
+    private final long[] open;
+
+    /**
+     * The closing prices in cents
+     */
+    private final long[] close;
+
+    /**
+     * The daily highs in cents
+     */
+    private final long[] high;
+
+    /**
+     * The daily lows in cents
+     */
+    private final long[] low;
+
+    /**
+     * The volumes
+     */
+    private final long[] volume;
+
+    /**
+     * The index in the arrays of the first date of this series
+     */
+    private final int offset;
+
+    /**
+     * The number of dates in this series
+     */
+    private final int size;
+
+    /**
+     * This constructor sets the columns and the range of them in this series.
+     */
+    private HistoricalStockPriceSeries(String name, int[] epochDays, long[] open, long[] close, long[] high,
+            long[] low, long[] volume, int offset, int size) {
+        this.name = name;
+        this.epochDays = epochDays;
+        this.open = open;
+        this.close = close;
+        this.high = high;
+        this.low = low;
+        this.volume = volume;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * Creates a series without any dates.
+     *
+     * @param name the stock symbol
+     * @return the empty series
+     */
+    public static HistoricalStockPriceSeries empty(String name) {
+        return new Builder(0).setName(name).build();
+    }
+
+    /**
+     * Gets the value of name.
+     *
+     * @return the stock symbol
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of dates in this series.
+     *
+     * @return the number of dates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether this series has no dates.
+     *
+     * @return true if the series is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the date at the given index as an epoch day.
+     *
+     * @param index the index within this series
+     * @return the epoch day
+     */
+    public int getEpochDay(int index) {
+        return epochDays[position(index)];
+    }
+
+    /**
+     * Gets the date at the given index.
+     *
+     * @param index the index within this series
+     * @return the date
+     */
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(getEpochDay(index));
+    }
+
+    /**
+     * Gets the opening price at the given index.
+     *
+     * @param index the index within this series
+     * @return the price in cents, or FixedPoint.NOT_AVAILABLE
+     */
+    public long getOpen(int index) {
+        return open[position(index)];
+    }
+
+    /**
+     * Gets the closing price at the given index.
+     *
+     * @param index the index within this series
+     * @return the price in cents, or FixedPoint.NOT_AVAILABLE
+     */
+    public long getClose(int index) {
+        return close[position(index)];
+    }
+
+    /**
+     * Gets the daily high at the given index.
+     *
+     * @param index the index within this series
+     * @return the price in cents, or FixedPoint.NOT_AVAILABLE
+     */
+    public long getHigh(int index) {
+        return high[position(index)];
+    }
+
+    /**
+     * Gets the daily low at the given index.
+     *
+     * @param index the index within this series
+     * @return the price in cents, or FixedPoint.NOT_AVAILABLE
+     */
+    public long getLow(int index) {
+        return low[position(index)];
+    }
+
+    /**
+     * Gets the volume at the given index.
+     *
+     * @param index the index within this series
+     * @return the volume, or FixedPoint.NOT_AVAILABLE
+     */
+    public long getVolume(int index) {
+        return volume[position(index)];
+    }
+
+    /**
+     * Finds the index of the given date with a binary search.
+     *
+     * @param date the date to find
+     * @return the index of the date if it is present; otherwise, (-(insertion
+     * point) - 1) as in Arrays.binarySearch
+     */
+    public int indexOf(LocalDate date) {
+        int found = Arrays.binarySearch(epochDays, offset, offset + size, (int) date.toEpochDay());
+        return found >= 0 ? found - offset : found + offset;
+    }
+
+    /**
+     * Returns a view of the dates from the first date to the last date, both
+     * inclusive. The view shares the columns of this series.
+     *
+     * @param from the first date
+     * @param to the last date
+     * @return the view of the dates in the range
+     */
+    public HistoricalStockPriceSeries slice(LocalDate from, LocalDate to) {
+        int start = insertionPoint(indexOf(from));
+        int found = indexOf(to);
+        int end = found >= 0 ? found + 1 : insertionPoint(found);
+        return slice(start, Math.max(start, end));
+    }
+
+    /**
+     * Returns a view of the dates between two indexes. The view shares the
+     * columns of this series.
+     *
+     * @param fromIndex the first index, inclusive
+     * @param toIndex the last index, exclusive
+     * @return the view of the dates in the range
+     */
+    public HistoricalStockPriceSeries slice(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("The range " + fromIndex + " to " + toIndex
+                    + " is outside the series of size " + size + ".");
+        }
+        return new HistoricalStockPriceSeries(name, epochDays, open, close, high, low, volume,
+                offset + fromIndex, toIndex - fromIndex);
+    }
+
+    /**
+     * Converts the result of a failed binary search to the insertion point.
+     *
+     * @param found the result of indexOf
+     * @return the index of the date or the index at which it would be inserted
+     */
+    private int insertionPoint(int found) {
+        return found >= 0 ? found : -found - 1;
+    }
+
+    /**
+     * Converts an index within this series to a position in the columns.
+     *
+     * @param index the index within this series
+     * @return the position in the columns
+     */
+    private int position(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return offset + index;
+    }
+
+    /**
+     * This class collects dated prices in any order and builds a series from
+     * them. It may be passed to the StocksInquisitor as the handler of a
+     * streamed stock history.
+     */
+    public static class Builder implements HistoricalStockPriceHandler {
+
+        /**
+         * The stock symbol
+         */
+        private String name;
+
+        /**
+         * The dates as epoch days
+         */
+        private int[] epochDays;
+
+        /**
+         * The opening prices in cents
+         */
+        private long[] open;
+
+        /**
+         * The closing prices in cents
+         */
+        private long[] close;
+
+        /**
+         * The daily highs in cents
+         */
+        private long[] high;
+
+        /**
+         * The daily lows in cents
+         */
+        private long[] low;
+
+        /**
+         * The volumes
+         */
+        private long[] volume;
+
+        /**
+         * The number of dates added
+         */
+        private int size;
+
+        /**
+         * This default constructor sizes the builder for a year of dates.
+         */
+        public Builder() {
+            this(260);
+        }
+
+        /**
+         * This parameterized constructor sizes the builder for the expected
+         * number of dates.
+         *
+         * @param capacity the expected number of dates
+         */
+        public Builder(int capacity) {
+            epochDays = new int[capacity];
+            open = new long[capacity];
+            close = new long[capacity];
+            high = new long[capacity];
+            low = new long[capacity];
+            volume = new long[capacity];
+        }
+
+        /**
+         * Sets the value of name.
+         *
+         * @param name the stock symbol
+         * @return this builder
+         */
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * Adds the prices of a date.
+         *
+         * @param epochDay the date as an epoch day
+         * @param openPrice the opening price in cents
+         * @param closePrice the closing price in cents
+         * @param highPrice the daily high in cents
+         * @param lowPrice the daily low in cents
+         * @param dayVolume the volume
+         * @return this builder
+         */
+        public Builder add(int epochDay, long openPrice, long closePrice, long highPrice, long lowPrice,
+                long dayVolume) {
+            if (size == epochDays.length) {
+                int capacity = Math.max(16, size * 2);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                open = Arrays.copyOf(open, capacity);
+                close = Arrays.copyOf(close, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            epochDays[size] = epochDay;
+            open[size] = openPrice;
+            close[size] = closePrice;
+            high[size] = highPrice;
+            low[size] = lowPrice;
+            volume[size] = dayVolume;
+            size++;
+            return this;
+        }
+
+        /**
+         * Adds every date of a series.
+         *
+         * @param series the series to add
+         * @return this builder
+         */
+        public Builder addAll(HistoricalStockPriceSeries series) {
+            for (int i = 0; i < series.size(); i++) {
+                add(series.getEpochDay(i), series.getOpen(i), series.getClose(i), series.getHigh(i),
+                        series.getLow(i), series.getVolume(i));
+            }
+            return this;
+        }
+
+        @Override
+        public void handle(LocalDate date, HistoricalStockPrice historicalStockPrice) {
+            add((int) date.toEpochDay(),
+                    FixedPoint.parse(historicalStockPrice.getOpen(), FixedPoint.PRICE_SCALE),
+                    FixedPoint.parse(historicalStockPrice.getClose(), FixedPoint.PRICE_SCALE),
+                    FixedPoint.parse(historicalStockPrice.getHigh(), FixedPoint.PRICE_SCALE),
+                    FixedPoint.parse(historicalStockPrice.getLow(), FixedPoint.PRICE_SCALE),
+                    FixedPoint.parse(historicalStockPrice.getVolume(), 0));
+        }
+
+        /**
+         * Builds the series with its dates in ascending order. When a date was
+         * added more than once, the prices added last are kept.
+         *
+         * @return the series
+         */
+        public HistoricalStockPriceSeries build() {
+            int[] order = sortedOrder();
+            int[] sortedDays = new int[order.length];
+            long[] sortedOpen = new long[order.length];
+            long[] sortedClose = new long[order.length];
+            long[] sortedHigh = new long[order.length];
+            long[] sortedLow = new long[order.length];
+            long[] sortedVolume = new long[order.length];
+            for (int i = 0; i < order.length; i++) {
+                int j = order[i];
+                sortedDays[i] = epochDays[j];
+                sortedOpen[i] = open[j];
+                sortedClose[i] = close[j];
+                sortedHigh[i] = high[j];
+                sortedLow[i] = low[j];
+                sortedVolume[i] = volume[j];
+            }
+            return new HistoricalStockPriceSeries(name, sortedDays, sortedOpen, sortedClose, sortedHigh,
+                    sortedLow, sortedVolume, 0, order.length);
+        }
+
+        /**
+         * Determines the positions of the added dates in ascending date order,
+         * keeping only the last position of a repeated date. The stock history
+         * service lists dates in descending order, which is handled without a
+         * sort.
+         *
+         * @return the positions in ascending date order
+         */
+        private int[] sortedOrder() {
+            boolean ascending = true;
+            boolean descending = true;
+            for (int i = 1; i < size && (ascending || descending); i++) {
+                ascending &= epochDays[i - 1] < epochDays[i];
+                descending &= epochDays[i - 1] > epochDays[i];
+            }
+            int[] order = new int[size];
+            if (ascending || descending) {
+                for (int i = 0; i < size; i++) {
+                    order[i] = ascending ? i : size - 1 - i;
+                }
+                return order;
+            }
+
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = ((long) epochDays[i] << 32) | i;
+            }
+            Arrays.sort(keys);
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                int position = (int) keys[i];
+                if (count > 0 && epochDays[order[count - 1]] == epochDays[position]) {
+                    order[count - 1] = position;
+                } else {
+                    order[count++] = position;
+                }
+            }
+            return Arrays.copyOf(order, count);
+        }
+    }
+}
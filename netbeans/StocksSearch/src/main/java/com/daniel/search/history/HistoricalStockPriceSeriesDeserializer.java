@@ -0,0 +1,117 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.history;
+
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * This deserializer reads the JSON form of the stock history web service into
+ * a HistoricalStockPriceSeries. Values are parsed from the characters of the
+ * parser's buffer, so no string is created for any price or volume.
+ *
+ * @author Bryan Daniel
+ */
+public class HistoricalStockPriceSeriesDeserializer extends StdDeserializer<HistoricalStockPriceSeries> {
+
+    /**
+     * serial version UID
+     */
+    private static final long serialVersionUID = -6243419780571126230L;
+
+    /**
+     * This default constructor sets the handled type.
+     */
+    public HistoricalStockPriceSeriesDeserializer() {
+        super(HistoricalStockPriceSeries.class);
+    }
+
+    @Override
+    public HistoricalStockPriceSeries deserialize(JsonParser parser, DeserializationContext context)
+            throws IOException {
+
+        HistoricalStockPriceSeries.Builder builder = new HistoricalStockPriceSeries.Builder();
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String fieldName = parser.getCurrentName();
+            JsonToken valueToken = parser.nextToken();
+            if ("name".equals(fieldName)) {
+                builder.setName(parser.getValueAsString());
+            } else if ("history".equals(fieldName) && valueToken == JsonToken.START_OBJECT) {
+                readHistory(parser, builder);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads every dated price of the history object at the current position.
+     *
+     * @param parser the parser positioned at the start of the history object
+     * @param builder the builder receiving each dated price
+     * @throws IOException if the JSON cannot be read
+     */
+    private void readHistory(JsonParser parser, HistoricalStockPriceSeries.Builder builder) throws IOException {
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int epochDay = (int) LocalDate.parse(parser.getCurrentName()).toEpochDay();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            long open = FixedPoint.NOT_AVAILABLE;
+            long close = FixedPoint.NOT_AVAILABLE;
+            long high = FixedPoint.NOT_AVAILABLE;
+            long low = FixedPoint.NOT_AVAILABLE;
+            long volume = FixedPoint.NOT_AVAILABLE;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                switch (fieldName) {
+                    case "open":
+                        open = FixedPoint.read(parser, FixedPoint.PRICE_SCALE);
+                        break;
+                    case "close":
+                        close = FixedPoint.read(parser, FixedPoint.PRICE_SCALE);
+                        break;
+                    case "high":
+                        high = FixedPoint.read(parser, FixedPoint.PRICE_SCALE);
+                        break;
+                    case "low":
+                        low = FixedPoint.read(parser, FixedPoint.PRICE_SCALE);
+                        break;
+                    case "volume":
+                        volume = FixedPoint.read(parser, 0);
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            builder.add(epochDay, open, close, high, low, volume);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.history;
+
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * This serializer writes a HistoricalStockPriceSeries in the JSON form of the
+ * stock history web service, with the most recent date first and every value
+ * as a string.
+ *
+ * @author Bryan Daniel
+ */
+public class HistoricalStockPriceSeriesSerializer extends StdSerializer<HistoricalStockPriceSeries> {
+
+    /**
+     * serial version UID
+     */
+    private static final long serialVersionUID = 4527364082930571658L;
+
+    /**
+     * This default constructor sets the handled type.
+     */
+    public HistoricalStockPriceSeriesSerializer() {
+        super(HistoricalStockPriceSeries.class);
+    }
+
+    @Override
+    public void serialize(HistoricalStockPriceSeries series, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+
+        generator.writeStartObject();
+        if (series.getName() != null) {
+            generator.writeStringField("name", series.getName());
+        }
+        generator.writeObjectFieldStart("history");
+        for (int i = series.size() - 1; i >= 0; i--) {
+            generator.writeObjectFieldStart(LocalDate.ofEpochDay(series.getEpochDay(i)).toString());
+            writePrice(generator, "open", series.getOpen(i));
+            writePrice(generator, "close", series.getClose(i));
+            writePrice(generator, "high", series.getHigh(i));
+            writePrice(generator, "low", series.getLow(i));
+            if (series.getVolume(i) != FixedPoint.NOT_AVAILABLE) {
+                generator.writeStringField("volume", Long.toString(series.getVolume(i)));
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a price field unless the price is not available.
+     *
+     * @param generator the JSON generator
+     * @param fieldName the field name
+     * @param price the price in cents
+     * @throws IOException if the field cannot be written
+     */
+    private void writePrice(JsonGenerator generator, String fieldName, long price) throws IOException {
+        if (price != FixedPoint.NOT_AVAILABLE) {
+            generator.writeStringField(fieldName, FixedPoint.format(price, FixedPoint.PRICE_SCALE));
+        }
+    }
+}
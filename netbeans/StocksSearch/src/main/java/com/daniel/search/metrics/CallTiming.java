@@ -0,0 +1,187 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class times the phases of one call to the stock web service on the
+ * thread making the call. The timing is the current timing of the thread from
+ * its start until it is closed, so that the connection manager can add the
+ * time taken to open a new connection to it. The phases are recorded in the
+ * latency metrics only when the call finishes, so a failed call records
+ * nothing.
+ *
+ * @author Bryan Daniel
+ */
+public class CallTiming implements AutoCloseable {
+
+    /**
+     * The timing of the call in progress on each thread
+     */
+    private static final ThreadLocal<CallTiming> CURRENT = new ThreadLocal<>();
+
+    /**
+     * The endpoint called
+     */
+    private final SearchEndpoint endpoint;
+
+    /**
+     * The nano time the call started
+     */
+    private final long started;
+
+    /**
+     * The nano time the response headers were received
+     */
+    private long headersReceived;
+
+    /**
+     * The nanoseconds spent opening connections
+     */
+    private long connectNanos;
+
+    /**
+     * The nanoseconds spent waiting for the response body
+     */
+    private long bodyReadNanos;
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private CallTiming(SearchEndpoint endpoint) {
+        this.endpoint = endpoint;
+        this.started = System.nanoTime();
+    }
+
+    /**
+     * Starts the timing of a call to the endpoint as the current timing of the
+     * calling thread.
+     *
+     * @param endpoint the endpoint called
+     * @return the timing, which must be closed by the calling thread
+     */
+    public static CallTiming start(SearchEndpoint endpoint) {
+        CallTiming callTiming = new CallTiming(endpoint);
+        CURRENT.set(callTiming);
+        return callTiming;
+    }
+
+    /**
+     * Adds the time taken to open a connection to the current timing of the
+     * calling thread. Nothing is done if the thread is not timing a call.
+     *
+     * @param nanos the nanoseconds taken to open the connection
+     */
+    public static void addConnectTime(long nanos) {
+        CallTiming callTiming = CURRENT.get();
+        if (callTiming != null) {
+            callTiming.connectNanos += nanos;
+        }
+    }
+
+    /**
+     * Marks the time the response headers were received and returns the
+     * response body wrapped in a stream that counts the time spent waiting for
+     * it.
+     *
+     * @param body the stream of the response body
+     * @return the timed stream of the response body
+     */
+    public InputStream headersReceived(InputStream body) {
+        headersReceived = System.nanoTime();
+        return new TimedInputStream(body);
+    }
+
+    /**
+     * Records the phases of the finished call in the latency metrics. The
+     * parse time is the time since the headers were received less the time
+     * spent waiting for the body. The connect time is recorded only if a new
+     * connection was opened.
+     *
+     * @return the total nanoseconds of the call
+     */
+    public long finish() {
+
+        long finished = System.nanoTime();
+        long total = finished - started;
+        LatencyMetrics latencyMetrics = LatencyMetrics.getInstance();
+        if (connectNanos > 0) {
+            latencyMetrics.record(endpoint, LatencyPhase.CONNECT, connectNanos);
+        }
+        latencyMetrics.record(endpoint, LatencyPhase.TIME_TO_FIRST_BYTE, headersReceived - started);
+        latencyMetrics.record(endpoint, LatencyPhase.BODY_READ, bodyReadNanos);
+        latencyMetrics.record(endpoint, LatencyPhase.PARSE, finished - headersReceived - bodyReadNanos);
+        latencyMetrics.record(endpoint, LatencyPhase.TOTAL, total);
+        return total;
+    }
+
+    /**
+     * Ends the timing as the current timing of the calling thread.
+     */
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * This stream adds the time spent in every read of the response body to
+     * the body read time of the call.
+     */
+    private class TimedInputStream extends FilterInputStream {
+
+        /**
+         * This constructor sets the stream read.
+         *
+         * @param in the stream of the response body
+         */
+        private TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long readStarted = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                bodyReadNanos += System.nanoTime() - readStarted;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long readStarted = System.nanoTime();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                bodyReadNanos += System.nanoTime() - readStarted;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long readStarted = System.nanoTime();
+            try {
+                return super.skip(n);
+            } finally {
+                bodyReadNanos += System.nanoTime() - readStarted;
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * This class records the latency of the calls to the stock web service in an
+ * HdrHistogram for every phase of the calls to every endpoint. Latencies are
+ * recorded in nanoseconds by the threads making the calls without locking, and
+ * are gathered into the cumulative histograms only when a snapshot is taken.
+ * Only one instance is produced, and it is registered as an MXBean by the
+ * application using the library.
+ *
+ * @author Bryan Daniel
+ */
+public class LatencyMetrics implements LatencyMetricsMXBean {
+
+    /**
+     * The name the metrics are registered under in the platform MBean server
+     */
+    public static final String OBJECT_NAME = "com.daniel.search:type=LatencyMetrics";
+
+    /**
+     * The number of significant decimal digits kept in the histograms
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    /**
+     * The number of nanoseconds in a millisecond
+     */
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    /**
+     * The LatencyMetrics instance
+     */
+    private static final LatencyMetrics LATENCY_METRICS = new LatencyMetrics();
+
+    /**
+     * The histograms of every phase of every endpoint
+     */
+    private final Map<SearchEndpoint, Map<LatencyPhase, PhaseHistogram>> histograms
+            = new EnumMap<>(SearchEndpoint.class);
+
+    /*
+     * Private constructor - not called from outside this class.
+     */
+    private LatencyMetrics() {
+        for (SearchEndpoint endpoint : SearchEndpoint.values()) {
+            Map<LatencyPhase, PhaseHistogram> phaseHistograms = new EnumMap<>(LatencyPhase.class);
+            for (LatencyPhase phase : LatencyPhase.values()) {
+                phaseHistograms.put(phase, new PhaseHistogram());
+            }
+            histograms.put(endpoint, phaseHistograms);
+        }
+    }
+
+    /**
+     * Returns the single instance of LatencyMetrics.
+     *
+     * @return the instance of LatencyMetrics
+     */
+    public static LatencyMetrics getInstance() {
+        return LATENCY_METRICS;
+    }
+
+    /**
+     * Records the latency of one phase of a call to the endpoint.
+     *
+     * @param endpoint the endpoint called
+     * @param phase the phase of the call
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(SearchEndpoint endpoint, LatencyPhase phase, long nanos) {
+        histograms.get(endpoint).get(phase).recorder.recordValue(Math.max(0, nanos));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized List<LatencySnapshot> getSnapshots() {
+
+        List<LatencySnapshot> snapshots = new ArrayList<>();
+        histograms.forEach((endpoint, phaseHistograms) -> phaseHistograms.forEach((phase, phaseHistogram) -> {
+            Histogram histogram = phaseHistogram.accumulate();
+            snapshots.add(new LatencySnapshot(endpoint.getName(), phase.getName(),
+                    histogram.getTotalCount(),
+                    histogram.getMinValue() / NANOS_PER_MILLI,
+                    histogram.getMean() / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                    histogram.getMaxValue() / NANOS_PER_MILLI));
+        }));
+        return snapshots;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void reset() {
+        histograms.values().forEach(phaseHistograms -> phaseHistograms.values().forEach(PhaseHistogram::reset));
+    }
+
+    /**
+     * This class holds the recorder written by the calling threads and the
+     * cumulative histogram of one phase of one endpoint. The histograms resize
+     * themselves to hold any latency.
+     */
+    private static class PhaseHistogram {
+
+        /**
+         * The recorder of the latencies since the last snapshot
+         */
+        private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+
+        /**
+         * The latencies since the metrics were started or last reset
+         */
+        private final Histogram cumulative = new Histogram(SIGNIFICANT_DIGITS);
+
+        /**
+         * The histogram recycled by the recorder
+         */
+        private Histogram interval;
+
+        /**
+         * Adds the latencies recorded since the last snapshot to the
+         * cumulative histogram.
+         *
+         * @return the cumulative histogram
+         */
+        private Histogram accumulate() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return cumulative;
+        }
+
+        /**
+         * Discards every latency recorded.
+         */
+        private void reset() {
+            recorder.reset();
+            cumulative.reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+import java.util.List;
+
+/**
+ * This interface is the management view of the latency metrics of the calls
+ * to the stock web service.
+ *
+ * @author Bryan Daniel
+ */
+public interface LatencyMetricsMXBean {
+
+    /**
+     * Returns the latency distribution of every phase of the calls to every
+     * endpoint since the metrics were started or last reset.
+     *
+     * @return the snapshots, ordered by endpoint and phase
+     */
+    List<LatencySnapshot> getSnapshots();
+
+    /**
+     * Discards every latency recorded so far.
+     */
+    void reset();
+}
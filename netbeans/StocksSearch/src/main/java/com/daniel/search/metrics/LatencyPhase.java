@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+/**
+ * This enumeration holds the phases of a call to the stock web service whose
+ * latency is recorded. The time to first byte runs from the start of the call
+ * until the response headers have been received, so it includes the connect
+ * time of a call that opened a new connection. The body read is the time spent
+ * waiting for the response body, and the parse is the rest of the time taken
+ * to read the body into the search result. The total is the whole call.
+ *
+ * @author Bryan Daniel
+ */
+public enum LatencyPhase {
+    CONNECT("connect"),
+    TIME_TO_FIRST_BYTE("ttfb"),
+    BODY_READ("body_read"),
+    PARSE("parse"),
+    TOTAL("total");
+
+    /**
+     * The name of the phase shown in the metrics
+     */
+    private final String name;
+
+    /**
+     * This private constructor sets the name of the phase.
+     *
+     * @param name the name
+     */
+    private LatencyPhase(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the phase shown in the metrics.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.beans.ConstructorProperties;
+
+/**
+ * This class holds the latency distribution of one phase of the calls to one
+ * endpoint at one point in time. The times are in milliseconds, recorded with
+ * nanosecond resolution.
+ *
+ * @author Bryan Daniel
+ */
+@JsonPropertyOrder({
+    "endpoint",
+    "phase",
+    "count",
+    "min_ms",
+    "mean_ms",
+    "p50_ms",
+    "p90_ms",
+    "p99_ms",
+    "p999_ms",
+    "max_ms"
+})
+public class LatencySnapshot {
+
+    /**
+     * The name of the endpoint
+     */
+    @JsonProperty("endpoint")
+    private final String endpoint;
+
+    /**
+     * The name of the phase
+     */
+    @JsonProperty("phase")
+    private final String phase;
+
+    /**
+     * The number of times recorded
+     */
+    @JsonProperty("count")
+    private final long count;
+
+    /**
+     * The shortest time
+     */
+    @JsonProperty("min_ms")
+    private final double min;
+
+    /**
+     * The mean time
+     */
+    @JsonProperty("mean_ms")
+    private final double mean;
+
+    /**
+     * The median time
+     */
+    @JsonProperty("p50_ms")
+    private final double p50;
+
+    /**
+     * The 90th percentile time
+     */
+    @JsonProperty("p90_ms")
+    private final double p90;
+
+    /**
+     * The 99th percentile time
+     */
+    @JsonProperty("p99_ms")
+    private final double p99;
+
+    /**
+     * The 99.9th percentile time
+     */
+    @JsonProperty("p999_ms")
+    private final double p999;
+
+    /**
+     * The longest time
+     */
+    @JsonProperty("max_ms")
+    private final double max;
+
+    /**
+     * This constructor sets the value of every statistic. The constructor
+     * properties let a JMX client rebuild the snapshot.
+     *
+     * @param endpoint the name of the endpoint
+     * @param phase the name of the phase
+     * @param count the number of times recorded
+     * @param min the shortest time
+     * @param mean the mean time
+     * @param p50 the median time
+     * @param p90 the 90th percentile time
+     * @param p99 the 99th percentile time
+     * @param p999 the 99.9th percentile time
+     * @param max the longest time
+     */
+    @ConstructorProperties({"endpoint", "phase", "count", "min", "mean", "p50", "p90", "p99", "p999", "max"})
+    public LatencySnapshot(String endpoint, String phase, long count, double min, double mean, double p50,
+            double p90, double p99, double p999, double max) {
+        this.endpoint = endpoint;
+        this.phase = phase;
+        this.count = count;
+        this.min = min;
+        this.mean = mean;
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    /**
+     * Gets the value of endpoint.
+     *
+     * @return the value of endpoint
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Gets the value of phase.
+     *
+     * @return the value of phase
+     */
+    public String getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets the value of count.
+     *
+     * @return the value of count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the value of min.
+     *
+     * @return the value of min
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Gets the value of mean.
+     *
+     * @return the value of mean
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Gets the value of p50.
+     *
+     * @return the value of p50
+     */
+    public double getP50() {
+        return p50;
+    }
+
+    /**
+     * Gets the value of p90.
+     *
+     * @return the value of p90
+     */
+    public double getP90() {
+        return p90;
+    }
+
+    /**
+     * Gets the value of p99.
+     *
+     * @return the value of p99
+     */
+    public double getP99() {
+        return p99;
+    }
+
+    /**
+     * Gets the value of p999.
+     *
+     * @return the value of p999
+     */
+    public double getP999() {
+        return p999;
+    }
+
+    /**
+     * Gets the value of max.
+     *
+     * @return the value of max
+     */
+    public double getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.metrics;
+
+/**
+ * This enumeration holds the endpoints of the stock web service whose calls
+ * are timed by the latency metrics.
+ *
+ * @author Bryan Daniel
+ */
+public enum SearchEndpoint {
+    PRICE("price"),
+    HISTORY("history");
+
+    /**
+     * The name of the endpoint shown in the metrics
+     */
+    private final String name;
+
+    /**
+     * This private constructor sets the name of the endpoint.
+     *
+     * @param name the name
+     */
+    private SearchEndpoint(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the name of the endpoint shown in the metrics.
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+}
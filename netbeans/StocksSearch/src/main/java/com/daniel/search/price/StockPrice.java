@@ -15,194 +15,148 @@
  */
 package com.daniel.search.price;
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 /**
  * Contains all data returned from a query for a particular stock symbol.
+ * Prices and the percent change are held as fixed-point values at
+ * FixedPoint.PRICE_SCALE and the volumes, counts and offsets as whole numbers,
+ * with FixedPoint.NOT_AVAILABLE for a value that is missing. The JSON form
+ * keeps every value as a string, as returned by the web service.
  *
  * @author Bryan Daniel
  */
-@JsonInclude(JsonInclude.Include.NON_NULL)
-@JsonPropertyOrder({
-    "symbol",
-    "name",
-    "price",
-    "currency",
-    "price_open",
-    "day_high",
-    "day_low",
-    "52_week_high",
-    "52_week_low",
-    "day_change",
-    "change_pct",
-    "close_yesterday",
-    "market_cap",
-    "volume",
-    "volume_avg",
-    "shares",
-    "stock_exchange_long",
-    "stock_exchange_short",
-    "timezone",
-    "timezone_name",
-    "gmt_offset",
-    "last_trade_time",
-    "pe",
-    "eps"
-})
+@JsonSerialize(using = StockPriceSerializer.class)
+@JsonDeserialize(using = StockPriceDeserializer.class)
 public class StockPrice {
 
     /**
      * The stock symbol
      */
-    @JsonProperty("symbol")
     private String symbol;
 
     /**
      * The company name
      */
-    @JsonProperty("name")
     private String name;
 
     /**
-     * The stock price
+     * The stock price in cents
      */
-    @JsonProperty("price")
-    private String price;
+    private long price = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The currency
      */
-    @JsonProperty("currency")
     private String currency;
 
     /**
-     * The price on market open
+     * The price on market open in cents
      */
-    @JsonProperty("price_open")
-    private String priceOpen;
+    private long priceOpen = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The high for the day
+     * The high for the day in cents
      */
-    @JsonProperty("day_high")
-    private String dayHigh;
+    private long dayHigh = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The low for the day
+     * The low for the day in cents
      */
-    @JsonProperty("day_low")
-    private String dayLow;
+    private long dayLow = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The high for the last 52 weeks
+     * The high for the last 52 weeks in cents
      */
-    @JsonProperty("52_week_high")
-    private String fiftyTwoWeekHigh;
+    private long fiftyTwoWeekHigh = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The low for the last 52 weeks
+     * The low for the last 52 weeks in cents
      */
-    @JsonProperty("52_week_low")
-    private String fiftyTwoWeekLow;
+    private long fiftyTwoWeekLow = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The price change for the day
+     * The price change for the day in cents
      */
-    @JsonProperty("day_change")
-    private String dayChange;
+    private long dayChange = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The percent change for the day
+     * The percent change for the day in hundredths of a percent
      */
-    @JsonProperty("change_pct")
-    private String changePct;
+    private long changePct = FixedPoint.NOT_AVAILABLE;
 
     /**
-     * The price at market close yesterday
+     * The price at market close yesterday in cents
      */
-    @JsonProperty("close_yesterday")
-    private String closeYesterday;
+    private long closeYesterday = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The market cap
      */
-    @JsonProperty("market_cap")
-    private String marketCap;
+    private long marketCap = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The volume
      */
-    @JsonProperty("volume")
-    private String volume;
+    private long volume = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The average volume
      */
-    @JsonProperty("volume_avg")
-    private String volumeAvg;
+    private long volumeAvg = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The number of shares
      */
-    @JsonProperty("shares")
-    private String shares;
+    private long shares = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The stock exchange long
      */
-    @JsonProperty("stock_exchange_long")
     private String stockExchangeLong;
 
     /**
      * The stock exchange short
      */
-    @JsonProperty("stock_exchange_short")
     private String stockExchangeShort;
 
     /**
      * The time zone
      */
-    @JsonProperty("timezone")
     private String timezone;
 
     /**
      * The time zone name
      */
-    @JsonProperty("timezone_name")
     private String timezoneName;
 
     /**
      * The Greenwich Mean Time offset
      */
-    @JsonProperty("gmt_offset")
-    private String gmtOffset;
+    private long gmtOffset = FixedPoint.NOT_AVAILABLE;
 
     /**
      * The last trade time
      */
-    @JsonProperty("last_trade_time")
     private String lastTradeTime;
 
     /**
      * The price to earnings ratio
      */
-    @JsonProperty("pe")
     private String pe;
 
     /**
-     * The earnings per share
+     * The earnings per share in cents
      */
-    @JsonProperty("eps")
-    private String eps;
+    private long eps = FixedPoint.NOT_AVAILABLE;
 
     /**
      * Gets the value of symbol.
      *
      * @return the value of symbol
      */
-    @JsonProperty("symbol")
     public String getSymbol() {
         return symbol;
     }
@@ -212,7 +166,6 @@ public class StockPrice {
      *
      * @param symbol the symbol to set
      */
-    @JsonProperty("symbol")
     public void setSymbol(String symbol) {
         this.symbol = symbol;
     }
@@ -222,7 +175,6 @@ public class StockPrice {
      *
      * @return the value of name
      */
-    @JsonProperty("name")
     public String getName() {
         return name;
     }
@@ -232,7 +184,6 @@ public class StockPrice {
      *
      * @param name the name to set
      */
-    @JsonProperty("name")
     public void setName(String name) {
         this.name = name;
     }
@@ -242,8 +193,7 @@ public class StockPrice {
      *
      * @return the value of price
      */
-    @JsonProperty("price")
-    public String getPrice() {
+    public long getPrice() {
         return price;
     }
 
@@ -252,8 +202,7 @@ public class StockPrice {
      *
      * @param price the price to set
      */
-    @JsonProperty("price")
-    public void setPrice(String price) {
+    public void setPrice(long price) {
         this.price = price;
     }
 
@@ -262,7 +211,6 @@ public class StockPrice {
      *
      * @return the value of currency
      */
-    @JsonProperty("currency")
     public String getCurrency() {
         return currency;
     }
@@ -272,7 +220,6 @@ public class StockPrice {
      *
      * @param currency the currency to set
      */
-    @JsonProperty("currency")
     public void setCurrency(String currency) {
         this.currency = currency;
     }
@@ -282,8 +229,7 @@ public class StockPrice {
      *
      * @return the value of priceOpen
      */
-    @JsonProperty("price_open")
-    public String getPriceOpen() {
+    public long getPriceOpen() {
         return priceOpen;
     }
 
@@ -292,8 +238,7 @@ public class StockPrice {
      *
      * @param priceOpen the priceOpen to set
      */
-    @JsonProperty("price_open")
-    public void setPriceOpen(String priceOpen) {
+    public void setPriceOpen(long priceOpen) {
         this.priceOpen = priceOpen;
     }
 
@@ -302,8 +247,7 @@ public class StockPrice {
      *
      * @return the value of dayHigh
      */
-    @JsonProperty("day_high")
-    public String getDayHigh() {
+    public long getDayHigh() {
         return dayHigh;
     }
 
@@ -312,8 +256,7 @@ public class StockPrice {
      *
      * @param dayHigh the dayHigh to set
      */
-    @JsonProperty("day_high")
-    public void setDayHigh(String dayHigh) {
+    public void setDayHigh(long dayHigh) {
         this.dayHigh = dayHigh;
     }
 
@@ -322,8 +265,7 @@ public class StockPrice {
      *
      * @return the value of dayLow
      */
-    @JsonProperty("day_low")
-    public String getDayLow() {
+    public long getDayLow() {
         return dayLow;
     }
 
@@ -332,8 +274,7 @@ public class StockPrice {
      *
      * @param dayLow the dayLow to set
      */
-    @JsonProperty("day_low")
-    public void setDayLow(String dayLow) {
+    public void setDayLow(long dayLow) {
         this.dayLow = dayLow;
     }
 
@@ -342,8 +283,7 @@ public class StockPrice {
      *
      * @return the value of fiftyTwoWeekHigh
      */
-    @JsonProperty("52_week_high")
-    public String getFiftyTwoWeekHigh() {
+    public long getFiftyTwoWeekHigh() {
         return fiftyTwoWeekHigh;
     }
 
@@ -352,8 +292,7 @@ public class StockPrice {
      *
      * @param fiftyTwoWeekHigh the fiftyTwoWeekHigh to set
      */
-    @JsonProperty("52_week_high")
-    public void setFiftyTwoWeekHigh(String fiftyTwoWeekHigh) {
+    public void setFiftyTwoWeekHigh(long fiftyTwoWeekHigh) {
         this.fiftyTwoWeekHigh = fiftyTwoWeekHigh;
     }
 
@@ -362,8 +301,7 @@ public class StockPrice {
      *
      * @return the value of fiftyTwoWeekLow
      */
-    @JsonProperty("52_week_low")
-    public String getFiftyTwoWeekLow() {
+    public long getFiftyTwoWeekLow() {
         return fiftyTwoWeekLow;
     }
 
@@ -372,8 +310,7 @@ public class StockPrice {
      *
      * @param fiftyTwoWeekLow the fiftyTwoWeekLow to set
      */
-    @JsonProperty("52_week_low")
-    public void setFiftyTwoWeekLow(String fiftyTwoWeekLow) {
+    public void setFiftyTwoWeekLow(long fiftyTwoWeekLow) {
         this.fiftyTwoWeekLow = fiftyTwoWeekLow;
     }
 
@@ -382,8 +319,7 @@ public class StockPrice {
      *
      * @return the value of dayChange
      */
-    @JsonProperty("day_change")
-    public String getDayChange() {
+    public long getDayChange() {
         return dayChange;
     }
 
@@ -392,8 +328,7 @@ public class StockPrice {
      *
      * @param dayChange the dayChange to set
      */
-    @JsonProperty("day_change")
-    public void setDayChange(String dayChange) {
+    public void setDayChange(long dayChange) {
         this.dayChange = dayChange;
     }
 
@@ -402,8 +337,7 @@ public class StockPrice {
      *
      * @return the value of changePct
      */
-    @JsonProperty("change_pct")
-    public String getChangePct() {
+    public long getChangePct() {
         return changePct;
     }
 
@@ -412,8 +346,7 @@ public class StockPrice {
      *
      * @param changePct the changePct to set
      */
-    @JsonProperty("change_pct")
-    public void setChangePct(String changePct) {
+    public void setChangePct(long changePct) {
         this.changePct = changePct;
     }
 
@@ -422,8 +355,7 @@ public class StockPrice {
      *
      * @return the value of closeYesterday
      */
-    @JsonProperty("close_yesterday")
-    public String getCloseYesterday() {
+    public long getCloseYesterday() {
         return closeYesterday;
     }
 
@@ -432,8 +364,7 @@ public class StockPrice {
      *
      * @param closeYesterday the closeYesterday to set
      */
-    @JsonProperty("close_yesterday")
-    public void setCloseYesterday(String closeYesterday) {
+    public void setCloseYesterday(long closeYesterday) {
         this.closeYesterday = closeYesterday;
     }
 
@@ -442,8 +373,7 @@ public class StockPrice {
      *
      * @return the value of marketCap
      */
-    @JsonProperty("market_cap")
-    public String getMarketCap() {
+    public long getMarketCap() {
         return marketCap;
     }
 
@@ -452,8 +382,7 @@ public class StockPrice {
      *
      * @param marketCap the marketCap to set
      */
-    @JsonProperty("market_cap")
-    public void setMarketCap(String marketCap) {
+    public void setMarketCap(long marketCap) {
         this.marketCap = marketCap;
     }
 
@@ -462,8 +391,7 @@ public class StockPrice {
      *
      * @return the value of volume
      */
-    @JsonProperty("volume")
-    public String getVolume() {
+    public long getVolume() {
         return volume;
     }
 
@@ -472,8 +400,7 @@ public class StockPrice {
      *
      * @param volume the volume to set
      */
-    @JsonProperty("volume")
-    public void setVolume(String volume) {
+    public void setVolume(long volume) {
         this.volume = volume;
     }
 
@@ -482,8 +409,7 @@ public class StockPrice {
      *
      * @return the value of volumeAvg
      */
-    @JsonProperty("volume_avg")
-    public String getVolumeAvg() {
+    public long getVolumeAvg() {
         return volumeAvg;
     }
 
@@ -492,8 +418,7 @@ public class StockPrice {
      *
      * @param volumeAvg the volumeAvg to set
      */
-    @JsonProperty("volume_avg")
-    public void setVolumeAvg(String volumeAvg) {
+    public void setVolumeAvg(long volumeAvg) {
         this.volumeAvg = volumeAvg;
     }
 
@@ -502,8 +427,7 @@ public class StockPrice {
      *
      * @return the value of shares
      */
-    @JsonProperty("shares")
-    public String getShares() {
+    public long getShares() {
         return shares;
     }
 
@@ -512,8 +436,7 @@ public class StockPrice {
      *
      * @param shares the shares to set
      */
-    @JsonProperty("shares")
-    public void setShares(String shares) {
+    public void setShares(long shares) {
         this.shares = shares;
     }
 
@@ -522,7 +445,6 @@ public class StockPrice {
      *
      * @return the value of stockExchangeLong
      */
-    @JsonProperty("stock_exchange_long")
     public String getStockExchangeLong() {
         return stockExchangeLong;
     }
@@ -532,7 +454,6 @@ public class StockPrice {
      *
      * @param stockExchangeLong the stockExchangeLong to set
      */
-    @JsonProperty("stock_exchange_long")
     public void setStockExchangeLong(String stockExchangeLong) {
         this.stockExchangeLong = stockExchangeLong;
     }
@@ -542,7 +463,6 @@ public class StockPrice {
      *
      * @return the value of stockExchangeShort
      */
-    @JsonProperty("stock_exchange_short")
     public String getStockExchangeShort() {
         return stockExchangeShort;
     }
@@ -552,7 +472,6 @@ public class StockPrice {
      *
      * @param stockExchangeShort the stockExchangeShort to set
      */
-    @JsonProperty("stock_exchange_short")
     public void setStockExchangeShort(String stockExchangeShort) {
         this.stockExchangeShort = stockExchangeShort;
     }
@@ -562,7 +481,6 @@ public class StockPrice {
      *
      * @return the value of timezone
      */
-    @JsonProperty("timezone")
     public String getTimezone() {
         return timezone;
     }
@@ -572,7 +490,6 @@ public class StockPrice {
      *
      * @param timezone the timezone to set
      */
-    @JsonProperty("timezone")
     public void setTimezone(String timezone) {
         this.timezone = timezone;
     }
@@ -582,7 +499,6 @@ public class StockPrice {
      *
      * @return the value of timezoneName
      */
-    @JsonProperty("timezone_name")
     public String getTimezoneName() {
         return timezoneName;
     }
@@ -592,7 +508,6 @@ public class StockPrice {
      *
      * @param timezoneName the timezoneName to set
      */
-    @JsonProperty("timezone_name")
     public void setTimezoneName(String timezoneName) {
         this.timezoneName = timezoneName;
     }
@@ -602,8 +517,7 @@ public class StockPrice {
      *
      * @return the value of gmtOffset
      */
-    @JsonProperty("gmt_offset")
-    public String getGmtOffset() {
+    public long getGmtOffset() {
         return gmtOffset;
     }
 
@@ -612,8 +526,7 @@ public class StockPrice {
      *
      * @param gmtOffset the gmtOffset to set
      */
-    @JsonProperty("gmt_offset")
-    public void setGmtOffset(String gmtOffset) {
+    public void setGmtOffset(long gmtOffset) {
         this.gmtOffset = gmtOffset;
     }
 
@@ -622,7 +535,6 @@ public class StockPrice {
      *
      * @return the value of lastTradeTime
      */
-    @JsonProperty("last_trade_time")
     public String getLastTradeTime() {
         return lastTradeTime;
     }
@@ -632,48 +544,43 @@ public class StockPrice {
      *
      * @param lastTradeTime the lastTradeTime to set
      */
-    @JsonProperty("last_trade_time")
     public void setLastTradeTime(String lastTradeTime) {
         this.lastTradeTime = lastTradeTime;
     }
 
     /**
-     * Gets the value of price to earnings ratio.
+     * Gets the value of pe.
      *
-     * @return the price to earnings ratio
+     * @return the value of pe
      */
-    @JsonProperty("pe")
     public String getPe() {
         return pe;
     }
 
     /**
-     * Sets the value of price to earnings ratio.
+     * Sets the value of pe.
      *
-     * @param pe the price to earnings ratio to set
+     * @param pe the pe to set
      */
-    @JsonProperty("pe")
     public void setPe(String pe) {
         this.pe = pe;
     }
 
     /**
-     * Gets the value of earnings per share.
+     * Gets the value of eps.
      *
-     * @return the earnings per share
+     * @return the value of eps
      */
-    @JsonProperty("eps")
-    public String getEps() {
+    public long getEps() {
         return eps;
     }
 
     /**
-     * Sets the value of earnings per share.
+     * Sets the value of eps.
      *
-     * @param eps the earnings per share to set
+     * @param eps the eps to set
      */
-    @JsonProperty("eps")
-    public void setEps(String eps) {
+    public void setEps(long eps) {
         this.eps = eps;
     }
 }
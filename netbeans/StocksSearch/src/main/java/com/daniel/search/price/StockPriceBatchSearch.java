@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.price;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the outcome of a stock price search for many symbols,
+ * which is sent to the web service in batches. It holds the search event of
+ * every batch that completed, the prices of all batches merged into a single
+ * result, and the reason each symbol without a price failed.
+ *
+ * @author Bryan Daniel
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+    "stock_price_search_result",
+    "failed_symbols"
+})
+public class StockPriceBatchSearch {
+
+    /**
+     * The search events of the completed batches
+     */
+    @JsonIgnore
+    private List<StockPriceSearchEvent> stockPriceSearchEvents;
+
+    /**
+     * The merged stock price result
+     */
+    @JsonProperty("stock_price_search_result")
+    private StockPriceSearchResult stockPriceSearchResult;
+
+    /**
+     * The reasons for failure keyed by stock symbol
+     */
+    @JsonProperty("failed_symbols")
+    private Map<String, String> failedSymbols;
+
+    /**
+     * Gets the value of stockPriceSearchEvents.
+     *
+     * @return the value of stockPriceSearchEvents
+     */
+    public List<StockPriceSearchEvent> getStockPriceSearchEvents() {
+        return stockPriceSearchEvents;
+    }
+
+    /**
+     * Sets the value of stockPriceSearchEvents.
+     *
+     * @param stockPriceSearchEvents the stockPriceSearchEvents to set
+     */
+    public void setStockPriceSearchEvents(List<StockPriceSearchEvent> stockPriceSearchEvents) {
+        this.stockPriceSearchEvents = stockPriceSearchEvents;
+    }
+
+    /**
+     * Gets the value of stockPriceSearchResult.
+     *
+     * @return the value of stockPriceSearchResult
+     */
+    public StockPriceSearchResult getStockPriceSearchResult() {
+        return stockPriceSearchResult;
+    }
+
+    /**
+     * Sets the value of stockPriceSearchResult.
+     *
+     * @param stockPriceSearchResult the stockPriceSearchResult to set
+     */
+    public void setStockPriceSearchResult(StockPriceSearchResult stockPriceSearchResult) {
+        this.stockPriceSearchResult = stockPriceSearchResult;
+    }
+
+    /**
+     * Gets the value of failedSymbols.
+     *
+     * @return the value of failedSymbols
+     */
+    public Map<String, String> getFailedSymbols() {
+        return failedSymbols;
+    }
+
+    /**
+     * Sets the value of failedSymbols.
+     *
+     * @param failedSymbols the failedSymbols to set
+     */
+    public void setFailedSymbols(Map<String, String> failedSymbols) {
+        this.failedSymbols = failedSymbols;
+    }
+}
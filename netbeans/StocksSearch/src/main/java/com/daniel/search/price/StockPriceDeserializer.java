@@ -0,0 +1,137 @@
+/* 
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.price;
+
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+
+/**
+ * This deserializer reads the JSON form of the stock price web service into a
+ * StockPrice. Numbers are parsed from the characters of the parser's buffer,
+ * so no string is created for any price, volume or count.
+ *
+ * @author Bryan Daniel
+ */
+public class StockPriceDeserializer extends StdDeserializer<StockPrice> {
+
+    /**
+     * serial version UID
+     */
+    private static final long serialVersionUID = 3816547710251963427L;
+
+    /**
+     * This default constructor sets the handled type.
+     */
+    public StockPriceDeserializer() {
+        super(StockPrice.class);
+    }
+
+    @Override
+    public StockPrice deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+
+        StockPrice stockPrice = new StockPrice();
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        }
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            switch (fieldName) {
+                case "symbol":
+                    stockPrice.setSymbol(parser.getValueAsString());
+                    break;
+                case "name":
+                    stockPrice.setName(parser.getValueAsString());
+                    break;
+                case "price":
+                    stockPrice.setPrice(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "currency":
+                    stockPrice.setCurrency(parser.getValueAsString());
+                    break;
+                case "price_open":
+                    stockPrice.setPriceOpen(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "day_high":
+                    stockPrice.setDayHigh(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "day_low":
+                    stockPrice.setDayLow(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "52_week_high":
+                    stockPrice.setFiftyTwoWeekHigh(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "52_week_low":
+                    stockPrice.setFiftyTwoWeekLow(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "day_change":
+                    stockPrice.setDayChange(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "change_pct":
+                    stockPrice.setChangePct(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "close_yesterday":
+                    stockPrice.setCloseYesterday(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                case "market_cap":
+                    stockPrice.setMarketCap(FixedPoint.read(parser, 0));
+                    break;
+                case "volume":
+                    stockPrice.setVolume(FixedPoint.read(parser, 0));
+                    break;
+                case "volume_avg":
+                    stockPrice.setVolumeAvg(FixedPoint.read(parser, 0));
+                    break;
+                case "shares":
+                    stockPrice.setShares(FixedPoint.read(parser, 0));
+                    break;
+                case "stock_exchange_long":
+                    stockPrice.setStockExchangeLong(parser.getValueAsString());
+                    break;
+                case "stock_exchange_short":
+                    stockPrice.setStockExchangeShort(parser.getValueAsString());
+                    break;
+                case "timezone":
+                    stockPrice.setTimezone(parser.getValueAsString());
+                    break;
+                case "timezone_name":
+                    stockPrice.setTimezoneName(parser.getValueAsString());
+                    break;
+                case "gmt_offset":
+                    stockPrice.setGmtOffset(FixedPoint.read(parser, 0));
+                    break;
+                case "last_trade_time":
+                    stockPrice.setLastTradeTime(parser.getValueAsString());
+                    break;
+                case "pe":
+                    stockPrice.setPe(parser.getValueAsString());
+                    break;
+                case "eps":
+                    stockPrice.setEps(FixedPoint.read(parser, FixedPoint.PRICE_SCALE));
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        return stockPrice;
+    }
+}
@@ -0,0 +1,107 @@
+/* 
+ * Copyright 2019 Bryan Daniel.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.daniel.search.price;
+
+import com.daniel.search.codec.FixedPoint;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
+
+/**
+ * This serializer writes a StockPrice in the JSON form of the stock price web
+ * service, with every value as a string. Values that are not available are
+ * left out.
+ *
+ * @author Bryan Daniel
+ */
+public class StockPriceSerializer extends StdSerializer<StockPrice> {
+
+    /**
+     * serial version UID
+     */
+    private static final long serialVersionUID = -2290413877640325516L;
+
+    /**
+     * This default constructor sets the handled type.
+     */
+    public StockPriceSerializer() {
+        super(StockPrice.class);
+    }
+
+    @Override
+    public void serialize(StockPrice stockPrice, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+
+        generator.writeStartObject();
+        writeText(generator, "symbol", stockPrice.getSymbol());
+        writeText(generator, "name", stockPrice.getName());
+        writeNumber(generator, "price", stockPrice.getPrice(), FixedPoint.PRICE_SCALE);
+        writeText(generator, "currency", stockPrice.getCurrency());
+        writeNumber(generator, "price_open", stockPrice.getPriceOpen(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "day_high", stockPrice.getDayHigh(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "day_low", stockPrice.getDayLow(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "52_week_high", stockPrice.getFiftyTwoWeekHigh(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "52_week_low", stockPrice.getFiftyTwoWeekLow(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "day_change", stockPrice.getDayChange(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "change_pct", stockPrice.getChangePct(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "close_yesterday", stockPrice.getCloseYesterday(), FixedPoint.PRICE_SCALE);
+        writeNumber(generator, "market_cap", stockPrice.getMarketCap(), 0);
+        writeNumber(generator, "volume", stockPrice.getVolume(), 0);
+        writeNumber(generator, "volume_avg", stockPrice.getVolumeAvg(), 0);
+        writeNumber(generator, "shares", stockPrice.getShares(), 0);
+        writeText(generator, "stock_exchange_long", stockPrice.getStockExchangeLong());
+        writeText(generator, "stock_exchange_short", stockPrice.getStockExchangeShort());
+        writeText(generator, "timezone", stockPrice.getTimezone());
+        writeText(generator, "timezone_name", stockPrice.getTimezoneName());
+        writeNumber(generator, "gmt_offset", stockPrice.getGmtOffset(), 0);
+        writeText(generator, "last_trade_time", stockPrice.getLastTradeTime());
+        writeText(generator, "pe", stockPrice.getPe());
+        writeNumber(generator, "eps", stockPrice.getEps(), FixedPoint.PRICE_SCALE);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes a text field unless the text is null.
+     *
+     * @param generator the JSON generator
+     * @param fieldName the field name
+     * @param text the text
+     * @throws IOException if the field cannot be written
+     */
+    private void writeText(JsonGenerator generator, String fieldName, String text) throws IOException {
+        if (text != null) {
+            generator.writeStringField(fieldName, text);
+        }
+    }
+
+    /**
+     * Writes a fixed-point field as a string unless the value is not
+     * available.
+     *
+     * @param generator the JSON generator
+     * @param fieldName the field name
+     * @param value the fixed-point value
+     * @param scale the scale of the value
+     * @throws IOException if the field cannot be written
+     */
+    private void writeNumber(JsonGenerator generator, String fieldName, long value, int scale)
+            throws IOException {
+        if (value != FixedPoint.NOT_AVAILABLE) {
+            generator.writeStringField(fieldName, FixedPoint.format(value, scale));
+        }
+    }
+}
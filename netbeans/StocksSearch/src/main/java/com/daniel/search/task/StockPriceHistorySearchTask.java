@@ -39,6 +39,11 @@ public class StockPriceHistorySearchTask implements Callable<HistoricalStockPric
      */
     private String apiToken;
 
+    /**
+     * The start date for the history retrieval, or null for one year ago
+     */
+    private LocalDate dateFrom;
+
     /**
      * This default constructor sets stockSymbol to null.
      */
@@ -57,10 +62,25 @@ public class StockPriceHistorySearchTask implements Callable<HistoricalStockPric
         this.apiToken = apiToken;
     }
 
+    /**
+     * This parameterized constructor sets the value of stockSymbol and the
+     * start date for the history retrieval.
+     *
+     * @param stockSymbol the stock symbol value
+     * @param apiToken the API token
+     * @param dateFrom the start date for the history retrieval
+     */
+    public StockPriceHistorySearchTask(String stockSymbol, String apiToken, LocalDate dateFrom) {
+        this.stockSymbol = stockSymbol;
+        this.apiToken = apiToken;
+        this.dateFrom = dateFrom;
+    }
+
     @Override
     public HistoricalStockPriceSearchEvent call() throws Exception {
         StocksInquisitor inquisitor = StocksInquisitor.getInstance();
-        return inquisitor.findStockPriceHistory(stockSymbol, apiToken, LocalDate.now().minusYears(1));
+        return inquisitor.findStockPriceHistory(stockSymbol, apiToken,
+                dateFrom != null ? dateFrom : LocalDate.now().minusYears(1));
     }
 
     /**
@@ -80,4 +100,13 @@ public class StockPriceHistorySearchTask implements Callable<HistoricalStockPric
     public void setApiToken(String apiToken) {
         this.apiToken = apiToken;
     }
+
+    /**
+     * Sets the value of dateFrom
+     *
+     * @param dateFrom the start date for the history retrieval
+     */
+    public void setDateFrom(LocalDate dateFrom) {
+        this.dateFrom = dateFrom;
+    }
 }
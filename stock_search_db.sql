@@ -13,7 +13,11 @@ CREATE TABLE IF NOT EXISTS Stock(
     name		VARCHAR(100) NOT NULL
 );
 
-/* StockPriceSearch represents a search event and contains the results and time of the search */
+/* 
+ * StockPriceSearch represents a search event and contains the results and time of the search. 
+ * A search for many symbols stores a row for each symbol with the time of the whole call, and 
+ * only its first row has first_of_call set. 
+ */
 DROP TABLE IF EXISTS StockPriceSearch;
 CREATE TABLE IF NOT EXISTS StockPriceSearch(
     stock_price_id       BIGINT NOT NULL AUTO_INCREMENT,
@@ -42,17 +46,66 @@ CREATE TABLE IF NOT EXISTS StockPriceSearch(
     eps                  NUMERIC(20,2),
     search_date_time     DATETIME NOT NULL,
     time_elapsed		 BIGINT NOT NULL,
-    CONSTRAINT fk_price_search_symbol FOREIGN KEY (symbol) 
-    REFERENCES Stock (symbol),
-    CONSTRAINT pk_price_search PRIMARY KEY (stock_price_id)
+    first_of_call        BOOLEAN NOT NULL DEFAULT TRUE,
+    CONSTRAINT pk_price_search PRIMARY KEY (stock_price_id, search_date_time),
+    INDEX idx_price_search_date_time (search_date_time, time_elapsed, first_of_call),
+    INDEX idx_price_search_symbol_date_time (symbol, search_date_time, time_elapsed)
+)
+/* 
+ * Partitioned by month of search. The monthly partitions are created and 
+ * dropped by the partition maintenance job of the Operation Monitor. 
+ * Partitioned tables cannot hold foreign keys, so the symbol is not 
+ * constrained to the Stock table.
+ */
+PARTITION BY RANGE (TO_DAYS(search_date_time)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
 );
 
-/* StockHistorySearch contains the ID and time of a stock history search */
+/* 
+ * StockHistorySearch contains the ID and time of a stock history search, and 
+ * the symbol, number of days and date range of its results, so that searches 
+ * are listed without reading StockHistorySearchResult 
+ */
 DROP TABLE IF EXISTS StockHistorySearch;
 CREATE TABLE IF NOT EXISTS StockHistorySearch(
     stock_history_search_id     BIGINT NOT NULL AUTO_INCREMENT,
     search_date_time            DATETIME NOT NULL,     
-    CONSTRAINT pk_history_search PRIMARY KEY (stock_history_search_id)
+    symbol                      VARCHAR(5),
+    time_elapsed                BIGINT,
+    bar_count                   INT NOT NULL DEFAULT 0,
+    first_date                  DATE,
+    last_date                   DATE,
+    CONSTRAINT pk_history_search PRIMARY KEY (stock_history_search_id, search_date_time),
+    INDEX idx_history_search_date_time (search_date_time),
+    INDEX idx_history_search_symbol_date_time (symbol, search_date_time)
+)
+/* Partitioned by month of search, as StockPriceSearch */
+PARTITION BY RANGE (TO_DAYS(search_date_time)) (
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+/* 
+ * StockPriceSearchAggregate holds the stock price searches of a symbol within 
+ * an hour or a day, rolled up from StockPriceSearch before the searches older 
+ * than the raw retention are purged. The symbol '*' holds the searches of 
+ * every symbol, without prices, counting a search for many symbols once. 
+ */
+DROP TABLE IF EXISTS StockPriceSearchAggregate;
+CREATE TABLE IF NOT EXISTS StockPriceSearchAggregate(
+    granularity         VARCHAR(4) NOT NULL,
+    symbol              VARCHAR(5) NOT NULL,
+    period_start        DATETIME NOT NULL,
+    search_count        BIGINT NOT NULL,
+    avg_time_elapsed    DOUBLE,
+    p50_time_elapsed    BIGINT,
+    p95_time_elapsed    BIGINT,
+    p99_time_elapsed    BIGINT,
+    first_price         NUMERIC(7,2),
+    last_price          NUMERIC(7,2),
+    min_price           NUMERIC(7,2),
+    max_price           NUMERIC(7,2),
+    CONSTRAINT pk_price_search_aggregate PRIMARY KEY (granularity, symbol, period_start),
+    INDEX idx_price_search_aggregate_period (granularity, period_start)
 );
 
 /* StockHistoryResult holds a single dated result for a stock history search */
@@ -70,14 +123,17 @@ CREATE TABLE IF NOT EXISTS StockHistoryResult(
     CONSTRAINT pk_history_result PRIMARY KEY (symbol, history_date)
 );
 
-/* StockHistorySearchResult links stock history searches with dated result elements */
+/* 
+ * StockHistorySearchResult links stock history searches with dated result 
+ * elements. The search is not a foreign key because StockHistorySearch is 
+ * partitioned, and the links of a dropped partition are deleted by the 
+ * partition maintenance job.
+ */
 DROP TABLE IF EXISTS StockHistorySearchResult;
 CREATE TABLE IF NOT EXISTS StockHistorySearchResult(
     stock_history_search_id     BIGINT NOT NULL,
     symbol                      VARCHAR(5) NOT NULL,
     history_date                DATE NOT NULL,     
-    CONSTRAINT fk_history_search_result_search FOREIGN KEY (stock_history_search_id) 
-    REFERENCES StockHistorySearch (stock_history_search_id),    
     CONSTRAINT fk_history_search_result_result FOREIGN KEY (symbol, history_date) 
     REFERENCES StockHistoryResult (symbol, history_date),
     CONSTRAINT pk_history_search_result PRIMARY KEY (stock_history_search_id, symbol, history_date)
@@ -148,7 +204,7 @@ CREATE PROCEDURE drop_user_if_exists()
 DELIMITER ;
 CALL drop_user_if_exists() ;
 CREATE USER stock_search_db_user@localhost IDENTIFIED BY '7r6H5fq}dD98!@x';
-GRANT EXECUTE, SELECT, INSERT, UPDATE, DELETE, CREATE, DROP
+GRANT EXECUTE, SELECT, INSERT, UPDATE, DELETE, CREATE, DROP, ALTER
 ON stock_search.*
 TO stock_search_db_user@localhost;
 GRANT SELECT ON mysql.proc TO stock_search_db_user@localhost;